@@ -0,0 +1,48 @@
+package com.github.matheusmv.beerstock.benchmark;
+
+import com.github.matheusmv.beerstock.dto.BeerDTO;
+import com.github.matheusmv.beerstock.entity.Beer;
+import com.github.matheusmv.beerstock.mapper.BeerMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class BeerMapperBenchmark {
+
+    private final BeerMapper beerMapper = BeerMapper.INSTANCE;
+
+    private BeerDTO beerDTO;
+    private Beer beer;
+
+    @Setup
+    public void setUp() {
+        beerDTO = BenchmarkData.catalog(1).get(0);
+        beerDTO.setId(1L);
+        beer = beerMapper.toModel(beerDTO);
+    }
+
+    @Benchmark
+    public BeerDTO toDTO() {
+        return beerMapper.toDTO(beer);
+    }
+
+    @Benchmark
+    public Beer toModel() {
+        return beerMapper.toModel(beerDTO);
+    }
+}
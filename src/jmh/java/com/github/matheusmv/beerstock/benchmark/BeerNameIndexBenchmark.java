@@ -0,0 +1,99 @@
+package com.github.matheusmv.beerstock.benchmark;
+
+import com.github.matheusmv.beerstock.dto.BeerSuggestionDTO;
+import com.github.matheusmv.beerstock.service.BeerNameIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Autocomplete through the in-memory name index against {@code LIKE} queries on H2, over a
+ * catalog of a million beers. The rare query matches a single beer, so the contains query
+ * has to scan the whole table.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class BeerNameIndexBenchmark {
+
+    private static final String INSERT_BEER_SQL =
+            "INSERT INTO beer (id, name, brand, max, quantity, type, version) VALUES (?, ?, ?, ?, ?, ?, 0)";
+    private static final String SELECT_MATCHING_SQL =
+            "SELECT id, name, brand FROM beer WHERE name LIKE ? ORDER BY name LIMIT ?";
+    private static final int INSERT_BATCH_SIZE = 10_000;
+    private static final int SUGGESTIONS = 10;
+
+    @Param({"1000000"})
+    public int catalogSize;
+
+    @Param({"Beer 4242", "Beer 999999"})
+    public String query;
+
+    private ConfigurableApplicationContext context;
+    private JdbcTemplate jdbcTemplate;
+    private BeerNameIndex beerNameIndex;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkData.startApplication();
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        beerNameIndex = context.getBean(BeerNameIndex.class);
+
+        var beers = BenchmarkData.catalog(catalogSize);
+        var batch = new ArrayList<Object[]>(INSERT_BATCH_SIZE);
+
+        for (int i = 0; i < beers.size(); i++) {
+            var beer = beers.get(i);
+            batch.add(new Object[]{i + 1L, beer.getName(), beer.getBrand(), beer.getMax(), beer.getQuantity(), beer.getType().name()});
+
+            if (batch.size() == INSERT_BATCH_SIZE || i == beers.size() - 1) {
+                jdbcTemplate.batchUpdate(INSERT_BEER_SQL, batch);
+                batch.clear();
+            }
+        }
+
+        beerNameIndex.build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<BeerSuggestionDTO> index() {
+        return beerNameIndex.suggest(query, SUGGESTIONS);
+    }
+
+    @Benchmark
+    public List<BeerSuggestionDTO> sqlContains() {
+        return jdbcTemplate.query(SELECT_MATCHING_SQL,
+                (resultSet, row) -> new BeerSuggestionDTO(resultSet.getLong(1), resultSet.getString(2), resultSet.getString(3)),
+                "%" + query + "%", SUGGESTIONS);
+    }
+
+    @Benchmark
+    public List<BeerSuggestionDTO> sqlPrefix() {
+        return jdbcTemplate.query(SELECT_MATCHING_SQL,
+                (resultSet, row) -> new BeerSuggestionDTO(resultSet.getLong(1), resultSet.getString(2), resultSet.getString(3)),
+                query + "%", SUGGESTIONS);
+    }
+}
@@ -0,0 +1,64 @@
+package com.github.matheusmv.beerstock.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.github.matheusmv.beerstock.dto.BeerDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson cost of the list responses, using an object mapper configured like the one Spring
+ * Boot hands to the message converters.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class BeerSerializationBenchmark {
+
+    @Param({"10", "1000", "10000"})
+    public int catalogSize;
+
+    private ObjectWriter listWriter;
+    private ObjectReader listReader;
+    private List<BeerDTO> beers;
+    private byte[] json;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        var listType = objectMapper.getTypeFactory().constructCollectionType(List.class, BeerDTO.class);
+
+        listWriter = objectMapper.writerFor(listType);
+        listReader = objectMapper.readerFor(listType);
+        beers = BenchmarkData.catalog(catalogSize);
+        json = listWriter.writeValueAsBytes(beers);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return listWriter.writeValueAsBytes(beers);
+    }
+
+    @Benchmark
+    public List<BeerDTO> deserialize() throws IOException {
+        return listReader.readValue(json);
+    }
+}
@@ -0,0 +1,103 @@
+package com.github.matheusmv.beerstock.benchmark;
+
+import com.github.matheusmv.beerstock.config.CacheConfig;
+import com.github.matheusmv.beerstock.dto.BeerDTO;
+import com.github.matheusmv.beerstock.entity.Beer;
+import com.github.matheusmv.beerstock.enums.BeerType;
+import com.github.matheusmv.beerstock.mapper.BeerMapper;
+import com.github.matheusmv.beerstock.repository.BeerRepository;
+import com.github.matheusmv.beerstock.service.BeerService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Service hot paths against the in-memory H2 of a fully started application. The stock beer
+ * has a huge max so increments and decrements never hit a bound during a run.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class BeerServiceBenchmark {
+
+    private static final String STOCK_BEER_NAME = "Benchmark Stock";
+
+    @Param({"100", "10000"})
+    public int catalogSize;
+
+    private ConfigurableApplicationContext context;
+    private BeerService beerService;
+    private Cache beersCache;
+    private Long stockBeerId;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkData.startApplication();
+        beerService = context.getBean(BeerService.class);
+        beersCache = context.getBean(CacheManager.class).getCache(CacheConfig.BEERS_CACHE);
+
+        var beerRepository = context.getBean(BeerRepository.class);
+        var beers = BenchmarkData.catalog(catalogSize)
+                .stream()
+                .map(BeerMapper.INSTANCE::toModel)
+                .collect(Collectors.toList());
+
+        beerRepository.saveAll(beers);
+        stockBeerId = beerRepository.save(new Beer(null, STOCK_BEER_NAME, "Benchmark",
+                Integer.MAX_VALUE, Integer.MAX_VALUE / 2, BeerType.LAGER, null)).getId();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public BeerDTO increment() {
+        return beerService.increment(stockBeerId, 1);
+    }
+
+    @Benchmark
+    public BeerDTO decrement() {
+        return beerService.decrement(stockBeerId, 1);
+    }
+
+    @Benchmark
+    public BeerDTO findByNameCached() {
+        return beerService.findByName(STOCK_BEER_NAME);
+    }
+
+    /**
+     * Evicts the entry first, so this measures the query plus a cache put.
+     */
+    @Benchmark
+    public BeerDTO findByNameUncached() {
+        beersCache.evict(STOCK_BEER_NAME);
+
+        return beerService.findByName(STOCK_BEER_NAME);
+    }
+
+    @Benchmark
+    public List<BeerDTO> listAll() {
+        return beerService.listAll();
+    }
+}
@@ -0,0 +1,56 @@
+package com.github.matheusmv.beerstock.benchmark;
+
+import com.github.matheusmv.beerstock.BeerstockApplication;
+import com.github.matheusmv.beerstock.dto.BeerDTO;
+import com.github.matheusmv.beerstock.enums.BeerType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Shared fixtures for the benchmarks. Catalogs are generated from a fixed seed so every run,
+ * on every commit, measures the same data.
+ */
+final class BenchmarkData {
+
+    static final long SEED = 42L;
+
+    private BenchmarkData() {
+    }
+
+    static List<BeerDTO> catalog(int size) {
+        var random = new Random(SEED);
+        var types = BeerType.values();
+        var beers = new ArrayList<BeerDTO>(size);
+
+        for (int i = 0; i < size; i++) {
+            var max = 100 + random.nextInt(400);
+
+            beers.add(BeerDTO.builder()
+                    .name("Beer " + i)
+                    .brand("Brand " + random.nextInt(50))
+                    .max(max)
+                    .quantity(random.nextInt(max))
+                    .type(types[random.nextInt(types.length)])
+                    .build());
+        }
+
+        return beers;
+    }
+
+    /**
+     * Starts the application on a random port against its in-memory H2, with SQL logging off
+     * so the console does not dominate the measurements.
+     */
+    static ConfigurableApplicationContext startApplication() {
+        return new SpringApplicationBuilder(BeerstockApplication.class)
+                .properties("server.port=0",
+                        "spring.jpa.show-sql=false",
+                        "spring.devtools.restart.enabled=false",
+                        "logging.level.root=WARN")
+                .run();
+    }
+}
@@ -0,0 +1,122 @@
+package com.github.matheusmv.beerstock.benchmark;
+
+import com.github.matheusmv.beerstock.exception.BeerNotFoundException;
+import com.github.matheusmv.beerstock.exception.BeerStockException;
+import com.github.matheusmv.beerstock.exception.GlobalExceptionHandler;
+import com.github.matheusmv.beerstock.exception.StandardError;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the error path: throwing a not found exception from some frames deep and turning it
+ * into a response, and the handler alone with an exception built up front. The {@code stack}
+ * variants replay the previous error path, an exception capturing its stack trace answered by
+ * a handler building the whole error on every call, as the baseline.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class GlobalExceptionHandlerBenchmark {
+
+    private static final String BEER_NAME = "Unknown";
+
+    @Param({"0", "100"})
+    public int depth;
+
+    private final GlobalExceptionHandler globalExceptionHandler = new GlobalExceptionHandler();
+
+    private MockHttpServletRequest request;
+    private BeerNotFoundException prebuiltException;
+    private StackTraceNotFoundException prebuiltStackTraceException;
+
+    @Setup
+    public void setUp() {
+        request = new MockHttpServletRequest("GET", "/api/v1/beers/" + BEER_NAME);
+        prebuiltException = new BeerNotFoundException(BEER_NAME);
+        prebuiltStackTraceException = new StackTraceNotFoundException(BEER_NAME);
+    }
+
+    @Benchmark
+    public ResponseEntity<StandardError> throwAndHandle() {
+        try {
+            throwNotFound(depth);
+            throw new IllegalStateException();
+        } catch (BeerStockException exception) {
+            return globalExceptionHandler.beerStockException(exception, request);
+        }
+    }
+
+    @Benchmark
+    public ResponseEntity<StandardError> handleOnly() {
+        return globalExceptionHandler.beerStockException(prebuiltException, request);
+    }
+
+    @Benchmark
+    public ResponseEntity<StandardError> throwAndHandleWithStackTrace() {
+        try {
+            throwStackTraceNotFound(depth);
+            throw new IllegalStateException();
+        } catch (StackTraceNotFoundException exception) {
+            return handleWithStackTrace(exception);
+        }
+    }
+
+    @Benchmark
+    public ResponseEntity<StandardError> handleOnlyWithStackTrace() {
+        return handleWithStackTrace(prebuiltStackTraceException);
+    }
+
+    private static void throwNotFound(int depth) {
+        if (depth > 0) {
+            throwNotFound(depth - 1);
+        } else {
+            throw new BeerNotFoundException(BEER_NAME);
+        }
+    }
+
+    private static void throwStackTraceNotFound(int depth) {
+        if (depth > 0) {
+            throwStackTraceNotFound(depth - 1);
+        } else {
+            throw new StackTraceNotFoundException(BEER_NAME);
+        }
+    }
+
+    private ResponseEntity<StandardError> handleWithStackTrace(StackTraceNotFoundException exception) {
+        var status = HttpStatus.NOT_FOUND;
+        var error = StandardError.builder()
+                .timestamp(Instant.now())
+                .status(status.value())
+                .error(exception.getClass().getSimpleName())
+                .message(exception.getMessage())
+                .path(request.getRequestURI())
+                .build();
+
+        return ResponseEntity.status(status).body(error);
+    }
+
+    private static class StackTraceNotFoundException extends RuntimeException {
+
+        StackTraceNotFoundException(String beerName) {
+            super(String.format("Beer with name %s not found in the system.", beerName));
+        }
+    }
+}
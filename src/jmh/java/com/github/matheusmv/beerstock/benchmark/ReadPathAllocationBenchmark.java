@@ -0,0 +1,105 @@
+package com.github.matheusmv.beerstock.benchmark;
+
+import com.github.matheusmv.beerstock.dto.BeerDTO;
+import com.github.matheusmv.beerstock.entity.Beer;
+import com.github.matheusmv.beerstock.mapper.BeerMapper;
+import com.github.matheusmv.beerstock.repository.BeerRepository;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Reads through managed entities copied by the mapper, as the service did before, against
+ * the DTO projections in read-only transactions it uses now. Run with the GC profiler the
+ * benchmark profile enables, gc.alloc.rate.norm is the number of bytes allocated per lookup
+ * or listing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class ReadPathAllocationBenchmark {
+
+    private static final String LOOKUP_NAME = "Beer 0";
+
+    @Param({"10000"})
+    public int catalogSize;
+
+    private ConfigurableApplicationContext context;
+    private BeerRepository beerRepository;
+    private EntityManager entityManager;
+    private TransactionTemplate transactionTemplate;
+    private TransactionTemplate readOnlyTransactionTemplate;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkData.startApplication();
+        beerRepository = context.getBean(BeerRepository.class);
+        entityManager = context.getBean(EntityManager.class);
+
+        var transactionManager = context.getBean(PlatformTransactionManager.class);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        readOnlyTransactionTemplate.setReadOnly(true);
+
+        beerRepository.saveAll(BenchmarkData.catalog(catalogSize)
+                .stream()
+                .map(BeerMapper.INSTANCE::toModel)
+                .collect(Collectors.toList()));
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public BeerDTO findByNameThroughEntity() {
+        return transactionTemplate.execute(status -> entityManager
+                .createQuery("SELECT b FROM Beer b WHERE b.name = :name", Beer.class)
+                .setParameter("name", LOOKUP_NAME)
+                .getResultStream()
+                .findFirst()
+                .map(BeerMapper.INSTANCE::toDTO)
+                .orElseThrow());
+    }
+
+    @Benchmark
+    public BeerDTO findByNameThroughProjection() {
+        return readOnlyTransactionTemplate.execute(status -> beerRepository.findDTOByName(LOOKUP_NAME).orElseThrow());
+    }
+
+    @Benchmark
+    public List<BeerDTO> listAllThroughEntities() {
+        return transactionTemplate.execute(status -> entityManager
+                .createQuery("SELECT b FROM Beer b", Beer.class)
+                .getResultList()
+                .stream()
+                .map(BeerMapper.INSTANCE::toDTO)
+                .collect(Collectors.toList()));
+    }
+
+    @Benchmark
+    public List<BeerDTO> listAllThroughProjection() {
+        return readOnlyTransactionTemplate.execute(status -> beerRepository.findAllDTOs());
+    }
+}
@@ -0,0 +1,77 @@
+package com.github.matheusmv.beerstock.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.github.matheusmv.beerstock.config.WireFormatConfig;
+import com.github.matheusmv.beerstock.dto.BeerDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON against the CBOR and Smile encodings of a catalog, with the object mappers the message
+ * converters use. The payload size of each format is printed once per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class WireFormatBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    public int catalogSize;
+
+    @Param({"json", "cbor", "smile"})
+    public String format;
+
+    private ObjectWriter listWriter;
+    private ObjectReader listReader;
+    private List<BeerDTO> beers;
+    private byte[] payload;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = switch (format) {
+            case "cbor" -> WireFormatConfig.binaryObjectMapper(Jackson2ObjectMapperBuilder.cbor(), new CBORFactory());
+            case "smile" -> WireFormatConfig.binaryObjectMapper(Jackson2ObjectMapperBuilder.smile(), new SmileFactory());
+            default -> Jackson2ObjectMapperBuilder.json().build();
+        };
+        var listType = objectMapper.getTypeFactory().constructCollectionType(List.class, BeerDTO.class);
+
+        listWriter = objectMapper.writerFor(listType);
+        listReader = objectMapper.readerFor(listType);
+        beers = BenchmarkData.catalog(catalogSize);
+        payload = listWriter.writeValueAsBytes(beers);
+
+        System.out.printf("%n%s payload for %d beers: %d bytes (%.1f bytes per beer)%n",
+                format, catalogSize, payload.length, (double) payload.length / catalogSize);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return listWriter.writeValueAsBytes(beers);
+    }
+
+    @Benchmark
+    public List<BeerDTO> deserialize() throws IOException {
+        return listReader.readValue(payload);
+    }
+}
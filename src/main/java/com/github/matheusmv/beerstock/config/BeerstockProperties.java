@@ -0,0 +1,275 @@
+package com.github.matheusmv.beerstock.config;
+
+import com.github.matheusmv.beerstock.enums.IdempotencyStoreType;
+import com.github.matheusmv.beerstock.enums.JournalBackpressure;
+import com.github.matheusmv.beerstock.enums.OutboxSinkType;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "beerstock")
+public class BeerstockProperties {
+
+    private final Ledger ledger = new Ledger();
+
+    private final Pagination pagination = new Pagination();
+
+    private final CatalogImport catalogImport = new CatalogImport();
+
+    private final Metrics metrics = new Metrics();
+
+    private final Events events = new Events();
+
+    private final Alerts alerts = new Alerts();
+
+    private final Journal journal = new Journal();
+
+    private final Rollups rollups = new Rollups();
+
+    private final Idempotency idempotency = new Idempotency();
+
+    private final Autocomplete autocomplete = new Autocomplete();
+
+    private final Outbox outbox = new Outbox();
+
+    @Data
+    public static class Ledger {
+
+        /**
+         * Keeps the stock of active beers in memory and writes it behind to the database.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Maximum time an adjustment stays in memory before being flushed to the database.
+         */
+        private Duration flushInterval = Duration.ofSeconds(1);
+
+        /**
+         * Number of pending adjustments that triggers a flush before the interval elapses.
+         */
+        private int flushThreshold = 1000;
+
+        /**
+         * Append-only log replayed on startup when the application stopped between flushes.
+         */
+        private String logFile = "data/stock-ledger.log";
+
+        /**
+         * Forces every log append to the storage device instead of relying on the OS page cache.
+         */
+        private boolean syncWrites = false;
+    }
+
+    @Data
+    public static class Pagination {
+
+        /**
+         * Page size used when the request does not ask for one.
+         */
+        private int defaultSize = 50;
+
+        /**
+         * Largest page size a request can ask for.
+         */
+        private int maxSize = 500;
+
+        /**
+         * Page size to use for a request, clamped to the max size.
+         */
+        public int resolveSize(Integer size) {
+            if (size == null) {
+                return defaultSize;
+            }
+
+            return Math.min(Math.max(size, 1), maxSize);
+        }
+    }
+
+    @Data
+    public static class CatalogImport {
+
+        /**
+         * Number of rows checked for duplicates with one query and inserted in one transaction.
+         */
+        private int chunkSize = 500;
+    }
+
+    @Data
+    public static class Metrics {
+
+        /**
+         * Stock level, as a percentage of max, from which a beer counts as near its max.
+         */
+        private int nearMaxPercent = 90;
+
+        /**
+         * Time for which the stock level gauges reuse the values last read from the database,
+         * so a scrape reading the three of them runs a single query.
+         */
+        private Duration stockLevelsRefresh = Duration.ofSeconds(10);
+    }
+
+    @Data
+    public static class Events {
+
+        /**
+         * Number of beers with a pending change a subscriber can fall behind by before the
+         * oldest pending change is dropped.
+         */
+        private int bufferSize = 256;
+
+        /**
+         * Time after which an event stream is closed and the client has to reconnect.
+         */
+        private Duration timeout = Duration.ofMinutes(30);
+    }
+
+    @Data
+    public static class Alerts {
+
+        /**
+         * Reorder point, as a percentage of max, of the beers without their own reorder point.
+         * The near max percentage of those beers is {@code beerstock.metrics.near-max-percent}.
+         */
+        private int defaultReorderPercent = 10;
+    }
+
+    @Data
+    public static class Journal {
+
+        /**
+         * Records every stock increment and decrement in the stock_movement table.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Movements that can wait in memory for the writer before the backpressure policy applies.
+         */
+        private int capacity = 10000;
+
+        /**
+         * Movements inserted per JDBC batch; a full batch is written without waiting for the interval.
+         */
+        private int batchSize = 500;
+
+        /**
+         * Maximum time a movement waits in memory before being written.
+         */
+        private Duration flushInterval = Duration.ofMillis(500);
+
+        /**
+         * What to do with a movement when the queue is full.
+         */
+        private JournalBackpressure backpressure = JournalBackpressure.BLOCK;
+
+        /**
+         * Longest time the block policy holds a request waiting for room in the queue; the
+         * movement is then discarded and counted as dropped.
+         */
+        private Duration blockTimeout = Duration.ofMillis(200);
+
+        /**
+         * Time given to the writer to finish its current batch on shutdown, before the rest of
+         * the queue is written.
+         */
+        private Duration shutdownTimeout = Duration.ofSeconds(10);
+    }
+
+    @Data
+    public static class Rollups {
+
+        /**
+         * Keeps hourly and daily totals of the units incremented and decremented per beer.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Maximum time stock changes are aggregated in memory before being added to the buckets.
+         */
+        private Duration flushInterval = Duration.ofSeconds(1);
+    }
+
+    @Data
+    public static class Idempotency {
+
+        /**
+         * Where the responses of requests sent with an Idempotency-Key header are kept.
+         */
+        private IdempotencyStoreType store = IdempotencyStoreType.MEMORY;
+
+        /**
+         * Time during which a retry with the same key gets the stored response.
+         */
+        private Duration ttl = Duration.ofHours(24);
+
+        /**
+         * Maximum number of responses kept by the memory store; the least recently used go first.
+         */
+        private long maxEntries = 100000;
+
+        /**
+         * How often the JDBC store deletes the responses older than the retention time.
+         */
+        private Duration purgeInterval = Duration.ofMinutes(10);
+    }
+
+    @Data
+    public static class Autocomplete {
+
+        /**
+         * Keeps an in-memory index of the name and brand words of every beer for the
+         * autocomplete endpoint, built on startup.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Largest number of suggestions a request can ask for.
+         */
+        private int maxSuggestions = 25;
+    }
+
+    @Data
+    public static class Outbox {
+
+        /**
+         * Writes every beer creation, deletion and stock change to the outbox_event table in
+         * the transaction making it, and relays the rows to the sink. Must be disabled when the
+         * ledger is enabled or the application runs on the reactive stack.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Where the relay delivers the events.
+         */
+        private OutboxSinkType sink = OutboxSinkType.MEMORY;
+
+        /**
+         * Events read and handed to the sink at a time; a full batch is followed by the next
+         * one without waiting for the interval.
+         */
+        private int batchSize = 200;
+
+        /**
+         * How often the relay looks for new events.
+         */
+        private Duration pollInterval = Duration.ofMillis(500);
+
+        /**
+         * Events kept by the memory sink; the oldest go first.
+         */
+        private int memoryCapacity = 10000;
+
+        /**
+         * File the file sink appends the events to, one JSON document per line.
+         */
+        private String file = "data/outbox-events.jsonl";
+
+        /**
+         * Time given to the relay to finish its current batch on shutdown.
+         */
+        private Duration shutdownTimeout = Duration.ofSeconds(10);
+    }
+}
@@ -0,0 +1,54 @@
+package com.github.matheusmv.beerstock.config;
+
+import org.springframework.boot.autoconfigure.cache.CacheProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.Cache;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.util.CollectionUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * The caching advice wraps the transactional one, so cache entries are only written once the
+ * transaction that produced them has committed. Only the service metrics sit outside it, so
+ * cache hits are timed too.
+ * <p>
+ * The cache manager is built from the spring.cache properties, the beers cache keeping the
+ * newest version of each beer, see {@link VersionedBeerCache}.
+ */
+@Configuration
+@EnableCaching(order = CacheConfig.CACHE_ADVICE_ORDER)
+@EnableConfigurationProperties(CacheProperties.class)
+public class CacheConfig {
+
+    public static final String BEERS_CACHE = "beers";
+
+    public static final int CACHE_ADVICE_ORDER = Ordered.HIGHEST_PRECEDENCE + 1;
+
+    @Bean
+    public CaffeineCacheManager cacheManager(CacheProperties cacheProperties) {
+        var cacheManager = new CaffeineCacheManager() {
+            @Override
+            protected Cache adaptCaffeineCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> cache) {
+                return BEERS_CACHE.equals(name)
+                        ? new VersionedBeerCache(name, cache, isAllowNullValues())
+                        : super.adaptCaffeineCache(name, cache);
+            }
+        };
+
+        var spec = cacheProperties.getCaffeine().getSpec();
+
+        if (StringUtils.hasText(spec)) {
+            cacheManager.setCacheSpecification(spec);
+        }
+
+        if (!CollectionUtils.isEmpty(cacheProperties.getCacheNames())) {
+            cacheManager.setCacheNames(cacheProperties.getCacheNames());
+        }
+
+        return cacheManager;
+    }
+}
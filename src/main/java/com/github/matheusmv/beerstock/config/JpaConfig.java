@@ -0,0 +1,18 @@
+package com.github.matheusmv.beerstock.config;
+
+import com.github.matheusmv.beerstock.repository.BeerRepository;
+import com.github.matheusmv.beerstock.repository.ReactiveBeerRepository;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+/**
+ * Pins the JPA repositories to the repository package, leaving out the R2DBC one, which only
+ * the reactive stack bootstraps.
+ */
+@Configuration
+@EnableJpaRepositories(basePackageClasses = BeerRepository.class,
+        excludeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = ReactiveBeerRepository.class))
+public class JpaConfig {
+}
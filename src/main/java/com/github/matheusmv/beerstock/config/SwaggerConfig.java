@@ -1,19 +1,13 @@
 package com.github.matheusmv.beerstock.config;
 
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.info.Contact;
+import io.swagger.v3.oas.models.info.Info;
+import org.springdoc.core.models.GroupedOpenApi;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import springfox.documentation.builders.ApiInfoBuilder;
-import springfox.documentation.builders.PathSelectors;
-import springfox.documentation.service.ApiInfo;
-import springfox.documentation.service.Contact;
-import springfox.documentation.spi.DocumentationType;
-import springfox.documentation.spring.web.plugins.Docket;
-import springfox.documentation.swagger2.annotations.EnableSwagger2;
-
-import static springfox.documentation.builders.RequestHandlerSelectors.basePackage;
 
 @Configuration
-@EnableSwagger2
 public class SwaggerConfig {
 
     private static final String BASE_PACKAGE = "com.github.matheusmv.beerstock.controller";
@@ -24,21 +18,25 @@ public class SwaggerConfig {
     private static final String CONTACT_EMAIL = "matheus.matias.viana@hotmail.com";
 
     @Bean
-    public Docket api() {
-        return new Docket(DocumentationType.SWAGGER_2)
-                .select()
-                .apis(basePackage(BASE_PACKAGE))
-                .paths(PathSelectors.any())
-                .build()
-                .apiInfo(buildApiInfo());
+    public GroupedOpenApi api() {
+        return GroupedOpenApi.builder()
+                .group(API_TITLE)
+                .packagesToScan(BASE_PACKAGE)
+                .pathsToMatch("/**")
+                .build();
+    }
+
+    @Bean
+    public OpenAPI apiInfo() {
+        return new OpenAPI()
+                .info(buildApiInfo());
     }
 
-    private ApiInfo buildApiInfo() {
-        return new ApiInfoBuilder()
+    private Info buildApiInfo() {
+        return new Info()
                 .title(API_TITLE)
                 .description(API_DESCRIPTION)
                 .version("0.0.1")
-                .contact(new Contact(CONTACT_NAME, CONTACT_GITHUB, CONTACT_EMAIL))
-                .build();
+                .contact(new Contact().name(CONTACT_NAME).url(CONTACT_GITHUB).email(CONTACT_EMAIL));
     }
 }
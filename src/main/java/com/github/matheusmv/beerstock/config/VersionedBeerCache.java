@@ -0,0 +1,36 @@
+package com.github.matheusmv.beerstock.config;
+
+import com.github.matheusmv.beerstock.dto.BeerDTO;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.lang.Nullable;
+
+/**
+ * Beers cache that never replaces an entry with an older version of the beer.
+ * <p>
+ * Entries are put once the transaction producing them has committed, and two transactions can
+ * commit in one order and put in the other; a read started before a change can also put the
+ * DTO it selected after the change has put its own. Each put is merged with the stored entry,
+ * keeping whichever has the higher version.
+ */
+class VersionedBeerCache extends CaffeineCache {
+
+    VersionedBeerCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> cache,
+                       boolean allowNullValues) {
+        super(name, cache, allowNullValues);
+    }
+
+    @Override
+    public void put(Object key, @Nullable Object value) {
+        getNativeCache().asMap().merge(key, toStoreValue(value), VersionedBeerCache::newer);
+    }
+
+    private static Object newer(Object stored, Object candidate) {
+        if (stored instanceof BeerDTO storedBeer && candidate instanceof BeerDTO candidateBeer
+                && storedBeer.getVersion() != null && candidateBeer.getVersion() != null
+                && candidateBeer.getVersion() < storedBeer.getVersion()) {
+            return stored;
+        }
+
+        return candidate;
+    }
+}
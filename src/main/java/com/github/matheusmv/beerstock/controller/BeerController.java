@@ -1,30 +1,75 @@
 package com.github.matheusmv.beerstock.controller;
 
+import com.github.matheusmv.beerstock.config.WireFormatConfig;
 import com.github.matheusmv.beerstock.dto.BeerDTO;
+import com.github.matheusmv.beerstock.dto.BeerImportResponseDTO;
+import com.github.matheusmv.beerstock.dto.BeerMovementRankDTO;
+import com.github.matheusmv.beerstock.dto.BulkStockRequestDTO;
+import com.github.matheusmv.beerstock.dto.BulkStockResponseDTO;
+import com.github.matheusmv.beerstock.dto.CursorPageDTO;
+import com.github.matheusmv.beerstock.dto.PageDTO;
 import com.github.matheusmv.beerstock.dto.QuantityDTO;
+import com.github.matheusmv.beerstock.dto.StockAlertDTO;
+import com.github.matheusmv.beerstock.dto.StockMovementDTO;
+import com.github.matheusmv.beerstock.dto.StockRollupDTO;
+import com.github.matheusmv.beerstock.dto.StockThresholdsDTO;
+import com.github.matheusmv.beerstock.enums.BeerType;
+import com.github.matheusmv.beerstock.enums.RollupGranularity;
+import com.github.matheusmv.beerstock.enums.StockAlertKind;
+import com.github.matheusmv.beerstock.service.BeerExportService;
+import com.github.matheusmv.beerstock.service.BeerImportService;
 import com.github.matheusmv.beerstock.service.BeerService;
+import com.github.matheusmv.beerstock.service.IdempotencyService;
+import com.github.matheusmv.beerstock.service.StockAlertService;
+import com.github.matheusmv.beerstock.service.StockEventBroadcaster;
+import com.github.matheusmv.beerstock.service.StockMovementJournal;
+import com.github.matheusmv.beerstock.service.StockRollupService;
+import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
-import javax.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
 import java.util.List;
 
 @RestController
 @RequestMapping("/api/v1/beers")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @AllArgsConstructor(onConstructor = @__(@Autowired))
 public class BeerController implements BeerControllerDocs {
 
+    private static final String TEXT_CSV_VALUE = "text/csv";
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
     private final BeerService beerService;
+    private final BeerExportService beerExportService;
+    private final BeerImportService beerImportService;
+    private final StockEventBroadcaster stockEventBroadcaster;
+    private final StockAlertService stockAlertService;
+    private final StockMovementJournal stockMovementJournal;
+    private final StockRollupService stockRollupService;
+    private final IdempotencyService idempotencyService;
 
     @PostMapping
     public ResponseEntity<BeerDTO> createBeer(@RequestBody @Valid BeerDTO beerDTO) {
@@ -39,18 +84,85 @@ public class BeerController implements BeerControllerDocs {
         return ResponseEntity.created(uri).body(newBeer);
     }
 
+    @PostMapping(path = "/import", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE,
+            WireFormatConfig.APPLICATION_SMILE_VALUE})
+    public ResponseEntity<BeerImportResponseDTO> importBeers(@RequestBody List<BeerDTO> beers) {
+        var response = beerImportService.importBeers(beers);
+
+        return ResponseEntity.ok().body(response);
+    }
+
+    @PostMapping(path = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<BeerImportResponseDTO> importBeersAsNdjson(InputStream inputStream) throws IOException {
+        var response = beerImportService.importNdjson(inputStream);
+
+        return ResponseEntity.ok().body(response);
+    }
+
+    /**
+     * A conditional request is answered from the version of the beer alone, so a 304 neither
+     * loads nor serializes it.
+     */
     @GetMapping("/{name}")
-    public ResponseEntity<BeerDTO> findByName(@PathVariable String name) {
+    public ResponseEntity<BeerDTO> findByName(@PathVariable String name, WebRequest request) {
+        var accept = request.getHeader(HttpHeaders.ACCEPT);
+        var ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+
+        if (ifNoneMatch != null) {
+            var eTag = beerService.findVersion(name).map(version -> BeerETags.of(version, accept));
+
+            if (eTag.isPresent() && BeerETags.matches(ifNoneMatch, eTag.get())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .eTag(eTag.get())
+                        .varyBy(HttpHeaders.ACCEPT)
+                        .build();
+            }
+        }
+
         var beer = beerService.findByName(name);
 
-        return ResponseEntity.ok().body(beer);
+        return withETag(beer, accept);
     }
 
+    /**
+     * The ETag is derived from the rows of the page, so a page costs the same whatever the size
+     * of the catalog; a 304, sent by Spring MVC when If-None-Match holds that ETag, saves sending
+     * the page, not reading it.
+     */
     @GetMapping
-    public ResponseEntity<List<BeerDTO>> listBeers() {
-        var listOfBeers = beerService.listAll();
+    public ResponseEntity<CursorPageDTO<BeerDTO>> listBeers(@RequestParam(required = false) String cursor,
+                                                            @RequestParam(required = false) Integer size,
+                                                            WebRequest request) {
+        var pageOfBeers = beerService.listAfter(cursor, size);
+        var eTag = BeerETags.ofPage(request.getHeader(HttpHeaders.ACCEPT),
+                pageOfBeers.getContent(), pageOfBeers.getNextCursor());
+
+        return ResponseEntity.ok().eTag(eTag).varyBy(HttpHeaders.ACCEPT).body(pageOfBeers);
+    }
 
-        return ResponseEntity.ok().body(listOfBeers);
+    @GetMapping(params = "page")
+    public ResponseEntity<PageDTO<BeerDTO>> listBeersByPage(@RequestParam int page,
+                                                            @RequestParam(required = false) Integer size,
+                                                            WebRequest request) {
+        var pageOfBeers = beerService.listPage(page, size);
+        var eTag = BeerETags.ofPage(request.getHeader(HttpHeaders.ACCEPT),
+                pageOfBeers.getContent(), pageOfBeers.getTotalElements(), pageOfBeers.getSize());
+
+        return ResponseEntity.ok().eTag(eTag).varyBy(HttpHeaders.ACCEPT).body(pageOfBeers);
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportBeersAsNdjson() {
+        StreamingResponseBody body = beerExportService::writeNdjson;
+
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    @GetMapping(produces = TEXT_CSV_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportBeersAsCsv() {
+        StreamingResponseBody body = beerExportService::writeCsv;
+
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(TEXT_CSV_VALUE)).body(body);
     }
 
     @DeleteMapping("/{id}")
@@ -62,17 +174,111 @@ public class BeerController implements BeerControllerDocs {
 
     @PatchMapping("/{id}/increment")
     public ResponseEntity<BeerDTO> increment(@PathVariable Long id,
-                                             @RequestBody @Valid QuantityDTO quantityDTO) {
-        var beer = beerService.increment(id, quantityDTO.getQuantity());
+                                             @RequestBody @Valid QuantityDTO quantityDTO,
+                                             @RequestHeader(name = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+                                             @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                             @RequestHeader(name = HttpHeaders.ACCEPT, required = false) String accept) {
+        var expectedVersion = BeerETags.expectedVersion(ifMatch, id);
+        var fingerprint = "increment:" + id + ":" + quantityDTO.getQuantity() + ":" + expectedVersion;
+        var beer = idempotencyService.execute(idempotencyKey, fingerprint, () -> expectedVersion != null
+                ? beerService.increment(id, quantityDTO.getQuantity(), expectedVersion)
+                : beerService.increment(id, quantityDTO.getQuantity()));
 
-        return ResponseEntity.ok().body(beer);
+        return withETag(beer, accept);
     }
 
     @PatchMapping("/{id}/decrement")
     public ResponseEntity<BeerDTO> decrement(@PathVariable Long id,
-                                             @RequestBody @Valid QuantityDTO quantityDTO) {
-        var beer = beerService.decrement(id, quantityDTO.getQuantity());
+                                             @RequestBody @Valid QuantityDTO quantityDTO,
+                                             @RequestHeader(name = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+                                             @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                             @RequestHeader(name = HttpHeaders.ACCEPT, required = false) String accept) {
+        var expectedVersion = BeerETags.expectedVersion(ifMatch, id);
+        var fingerprint = "decrement:" + id + ":" + quantityDTO.getQuantity() + ":" + expectedVersion;
+        var beer = idempotencyService.execute(idempotencyKey, fingerprint, () -> expectedVersion != null
+                ? beerService.decrement(id, quantityDTO.getQuantity(), expectedVersion)
+                : beerService.decrement(id, quantityDTO.getQuantity()));
+
+        return withETag(beer, accept);
+    }
+
+    @GetMapping("/{id}/movements")
+    public ResponseEntity<PageDTO<StockMovementDTO>> listMovements(@PathVariable Long id,
+                                                                   @RequestParam(defaultValue = "0") int page,
+                                                                   @RequestParam(required = false) Integer size) {
+        var pageOfMovements = stockMovementJournal.findByBeer(id, page, size);
+
+        return ResponseEntity.ok().body(pageOfMovements);
+    }
+
+    @GetMapping("/{id}/rollups")
+    public ResponseEntity<List<StockRollupDTO>> listRollups(@PathVariable Long id,
+                                                            @RequestParam(defaultValue = "HOUR") RollupGranularity granularity,
+                                                            @RequestParam(required = false) Instant from,
+                                                            @RequestParam(required = false) Instant to) {
+        var rollups = stockRollupService.findSeries(id, granularity, from, to);
+
+        return ResponseEntity.ok().body(rollups);
+    }
+
+    @GetMapping("/rollups/top")
+    public ResponseEntity<List<BeerMovementRankDTO>> listTopMoving(@RequestParam(defaultValue = "DAY") RollupGranularity granularity,
+                                                                   @RequestParam(required = false) BeerType type,
+                                                                   @RequestParam(required = false) Instant from,
+                                                                   @RequestParam(required = false) Instant to,
+                                                                   @RequestParam(defaultValue = "10") int limit) {
+        var ranking = stockRollupService.findTopMoving(granularity, type, from, to, limit);
+
+        return ResponseEntity.ok().body(ranking);
+    }
+
+    @GetMapping("/alerts/low-stock")
+    public ResponseEntity<List<StockAlertDTO>> listLowStock() {
+        var alerts = stockAlertService.findActive(StockAlertKind.LOW_STOCK);
+
+        return ResponseEntity.ok().body(alerts);
+    }
+
+    @GetMapping("/alerts/near-max")
+    public ResponseEntity<List<StockAlertDTO>> listNearMax() {
+        var alerts = stockAlertService.findActive(StockAlertKind.NEAR_MAX);
+
+        return ResponseEntity.ok().body(alerts);
+    }
+
+    @PutMapping("/{id}/thresholds")
+    public ResponseEntity<StockThresholdsDTO> updateThresholds(@PathVariable Long id,
+                                                               @RequestBody @Valid StockThresholdsDTO stockThresholdsDTO) {
+        var thresholds = stockAlertService.updateThresholds(id, stockThresholdsDTO);
+
+        return ResponseEntity.ok().body(thresholds);
+    }
+
+    @GetMapping(path = "/stock/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamStockEvents(@RequestParam(required = false) BeerType type,
+                                        @RequestParam(required = false) Long id) {
+        var emitter = new SseEmitter(stockEventBroadcaster.getTimeout().toMillis());
+        var subscription = stockEventBroadcaster.subscribe(type, id, event -> emitter.send(event, MediaType.APPLICATION_JSON));
+
+        emitter.onCompletion(subscription::cancel);
+        emitter.onTimeout(subscription::cancel);
+        emitter.onError(exception -> subscription.cancel());
+
+        return emitter;
+    }
+
+    @PatchMapping("/stock")
+    public ResponseEntity<BulkStockResponseDTO> adjustStock(@RequestBody @Valid BulkStockRequestDTO bulkStockRequestDTO) {
+        var response = beerService.adjustStock(bulkStockRequestDTO.getOperations(), bulkStockRequestDTO.getMode());
+
+        return ResponseEntity.ok().body(response);
+    }
+
+    private static ResponseEntity<BeerDTO> withETag(BeerDTO beer, String accept) {
+        var eTag = BeerETags.of(beer, accept);
 
-        return ResponseEntity.ok().body(beer);
+        return eTag != null
+                ? ResponseEntity.ok().eTag(eTag).varyBy(HttpHeaders.ACCEPT).body(beer)
+                : ResponseEntity.ok().body(beer);
     }
 }
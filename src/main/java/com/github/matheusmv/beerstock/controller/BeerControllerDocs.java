@@ -1,42 +1,146 @@
 package com.github.matheusmv.beerstock.controller;
 
 import com.github.matheusmv.beerstock.dto.BeerDTO;
-import io.swagger.annotations.Api;
-import io.swagger.annotations.ApiOperation;
-import io.swagger.annotations.ApiResponse;
-import io.swagger.annotations.ApiResponses;
+import com.github.matheusmv.beerstock.dto.BeerImportResponseDTO;
+import com.github.matheusmv.beerstock.dto.BeerMovementRankDTO;
+import com.github.matheusmv.beerstock.dto.BulkStockRequestDTO;
+import com.github.matheusmv.beerstock.dto.BulkStockResponseDTO;
+import com.github.matheusmv.beerstock.dto.CursorPageDTO;
+import com.github.matheusmv.beerstock.dto.PageDTO;
+import com.github.matheusmv.beerstock.dto.StockAlertDTO;
+import com.github.matheusmv.beerstock.dto.StockMovementDTO;
+import com.github.matheusmv.beerstock.dto.StockRollupDTO;
+import com.github.matheusmv.beerstock.dto.StockThresholdsDTO;
+import com.github.matheusmv.beerstock.enums.BeerType;
+import com.github.matheusmv.beerstock.enums.RollupGranularity;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
 import java.util.List;
 
-@Api("Manages beer stock")
+@Tag(name = "beers", description = "Manages beer stock")
 public interface BeerControllerDocs {
 
-    @ApiOperation(value = "Beer creation operation")
+    @Operation(summary = "Beer creation operation")
     @ApiResponses(value = {
-            @ApiResponse(code = 201, message = "Success beer creation"),
-            @ApiResponse(code = 400, message = "Missing required fields or wrong field range value.")
+            @ApiResponse(responseCode = "201", description = "Success beer creation"),
+            @ApiResponse(responseCode = "400", description = "Missing required fields or wrong field range value.")
     })
     ResponseEntity<BeerDTO> createBeer(BeerDTO beerDTO);
 
-    @ApiOperation(value = "Returns beer found by a given name")
+    @Operation(summary = "Imports a list of beers, inserting them in batches")
     @ApiResponses(value = {
-            @ApiResponse(code = 200, message = "Success beer found in the system"),
-            @ApiResponse(code = 404, message = "Beer with given name not found.")
+            @ApiResponse(responseCode = "200", description = "Outcome of each beer: created, duplicate or invalid"),
     })
-    ResponseEntity<BeerDTO> findByName(@PathVariable String name);
+    ResponseEntity<BeerImportResponseDTO> importBeers(List<BeerDTO> beers);
 
-    @ApiOperation(value = "Returns a list of all beers registered in the system")
+    @Operation(summary = "Imports newline-delimited JSON beers (Content-Type: application/x-ndjson), inserting them in batches")
     @ApiResponses(value = {
-            @ApiResponse(code = 200, message = "List of all beers registered in the system"),
+            @ApiResponse(responseCode = "200", description = "Outcome of each line: created, duplicate or invalid"),
     })
-    ResponseEntity<List<BeerDTO>> listBeers();
+    ResponseEntity<BeerImportResponseDTO> importBeersAsNdjson(InputStream inputStream) throws IOException;
 
-    @ApiOperation(value = "Delete a beer found by a given valid Id")
+    @Operation(summary = "Returns beer found by a given name")
     @ApiResponses(value = {
-            @ApiResponse(code = 204, message = "Success beer deleted in the system"),
-            @ApiResponse(code = 404, message = "Beer with given id not found.")
+            @ApiResponse(responseCode = "200", description = "Success beer found in the system, with its ETag"),
+            @ApiResponse(responseCode = "304", description = "Beer unchanged since the ETag given in If-None-Match"),
+            @ApiResponse(responseCode = "404", description = "Beer with given name not found.")
+    })
+    ResponseEntity<BeerDTO> findByName(@PathVariable String name, WebRequest request);
+
+    @Operation(summary = "Returns a page of beers ordered by id, starting after the given cursor")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Page of beers and the cursor of the next page, if any, with the ETag of the page"),
+            @ApiResponse(responseCode = "304", description = "Page unchanged since the ETag given in If-None-Match"),
+            @ApiResponse(responseCode = "400", description = "Invalid page cursor.")
+    })
+    ResponseEntity<CursorPageDTO<BeerDTO>> listBeers(String cursor, Integer size, WebRequest request);
+
+    @Operation(summary = "Returns a page of beers ordered by id, selected by page number")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Page of beers and the total number of pages, with the ETag of the page"),
+            @ApiResponse(responseCode = "304", description = "Page unchanged since the ETag given in If-None-Match"),
+    })
+    ResponseEntity<PageDTO<BeerDTO>> listBeersByPage(int page, Integer size, WebRequest request);
+
+    @Operation(summary = "Streams the whole catalog as newline-delimited JSON (Accept: application/x-ndjson)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "One beer per line, ordered by id"),
+    })
+    ResponseEntity<StreamingResponseBody> exportBeersAsNdjson();
+
+    @Operation(summary = "Streams the whole catalog as CSV (Accept: text/csv)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Header line followed by one beer per line, ordered by id"),
+    })
+    ResponseEntity<StreamingResponseBody> exportBeersAsCsv();
+
+    @Operation(summary = "Delete a beer found by a given valid Id")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Success beer deleted in the system"),
+            @ApiResponse(responseCode = "404", description = "Beer with given id not found.")
     })
     ResponseEntity<Void> deleteById(@PathVariable Long id);
+
+    @Operation(summary = "Applies a list of stock increments and decrements in a single transaction")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Result of each operation, including the rejected ones"),
+            @ApiResponse(responseCode = "400", description = "Missing required fields or wrong field range value.")
+    })
+    ResponseEntity<BulkStockResponseDTO> adjustStock(BulkStockRequestDTO bulkStockRequestDTO);
+
+    @Operation(summary = "Returns a page of the stock movements of a beer, newest first")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Page of movements with who made them, delta and resulting quantity"),
+    })
+    ResponseEntity<PageDTO<StockMovementDTO>> listMovements(Long id, int page, Integer size);
+
+    @Operation(summary = "Returns the hourly or daily totals of units incremented and decremented for a beer")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Buckets within [from, to), oldest first; the last 24 hours or 30 days by default"),
+    })
+    ResponseEntity<List<StockRollupDTO>> listRollups(Long id, RollupGranularity granularity, Instant from, Instant to);
+
+    @Operation(summary = "Returns the beers with the most units decremented, optionally of one type")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Beers ranked by units decremented within [from, to)"),
+    })
+    ResponseEntity<List<BeerMovementRankDTO>> listTopMoving(RollupGranularity granularity, BeerType type,
+                                                            Instant from, Instant to, int limit);
+
+    @Operation(summary = "Returns the beers whose stock is below their reorder point")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Beers in low stock alert, ordered by id"),
+    })
+    ResponseEntity<List<StockAlertDTO>> listLowStock();
+
+    @Operation(summary = "Returns the beers whose stock is close to their max")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Beers in near max alert, ordered by id"),
+    })
+    ResponseEntity<List<StockAlertDTO>> listNearMax();
+
+    @Operation(summary = "Sets the alert thresholds of a beer, null values falling back to the defaults")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Thresholds saved and the alerts of the beer re-evaluated"),
+            @ApiResponse(responseCode = "400", description = "Wrong field range value."),
+            @ApiResponse(responseCode = "404", description = "Beer with given id not found.")
+    })
+    ResponseEntity<StockThresholdsDTO> updateThresholds(Long id, StockThresholdsDTO stockThresholdsDTO);
+
+    @Operation(summary = "Streams stock changes as Server-Sent Events, optionally filtered by beer type or id")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "One event per change; changes a slow client has not received yet are coalesced per beer"),
+    })
+    SseEmitter streamStockEvents(BeerType type, Long id);
 }
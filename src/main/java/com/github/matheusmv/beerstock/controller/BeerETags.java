@@ -0,0 +1,167 @@
+package com.github.matheusmv.beerstock.controller;
+
+import com.github.matheusmv.beerstock.config.WireFormatConfig;
+import com.github.matheusmv.beerstock.dto.BeerDTO;
+import com.github.matheusmv.beerstock.dto.BeerVersionDTO;
+import com.github.matheusmv.beerstock.exception.BeerVersionMismatchException;
+import org.springframework.http.MediaType;
+import org.springframework.util.MimeTypeUtils;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Strong ETags of beers, {@code "<id>-<version>"}, and of pages of beers, {@code "p<hash>"}.
+ * The id keeps a beer recreated under the same name from matching the ETag of the old one.
+ * <p>
+ * The same beer is sent as JSON, CBOR or Smile depending on the Accept header, so the ETag of
+ * a binary representation ends with its format, {@code "<id>-<version>+cbor"}, and the
+ * responses carrying these ETags vary on Accept.
+ */
+final class BeerETags {
+
+    private static final String ANY = "*";
+    private static final String WEAK_PREFIX = "W/";
+    private static final char FORMAT_SEPARATOR = '+';
+    private static final Map<MediaType, String> BINARY_FORMATS = Map.of(
+            MediaType.APPLICATION_CBOR, "cbor",
+            MediaType.parseMediaType(WireFormatConfig.APPLICATION_SMILE_VALUE), "smile");
+
+    private BeerETags() {
+    }
+
+    static String of(BeerDTO beer, String accept) {
+        return beer.getVersion() != null ? of(beer.getId(), beer.getVersion(), accept) : null;
+    }
+
+    static String of(BeerVersionDTO beerVersion, String accept) {
+        return of(beerVersion.getId(), beerVersion.getVersion(), accept);
+    }
+
+    /**
+     * Hash of the ids and versions of the beers of a page, along with what else the page body
+     * carries, such as its totals or next cursor. It only costs the rows of the page, and it
+     * changes whenever a beer of the page is replaced or has its stock changed.
+     */
+    static String ofPage(String accept, List<BeerDTO> beers, Object... extras) {
+        long hash = 1125899906842597L;
+
+        for (var beer : beers) {
+            hash = 31 * hash + beer.getId();
+            hash = 31 * hash + (beer.getVersion() != null ? beer.getVersion() : -1L);
+        }
+
+        for (var extra : extras) {
+            hash = 31 * hash + (extra != null ? extra.hashCode() : 0);
+        }
+
+        return quote("p" + Long.toHexString(hash), accept);
+    }
+
+    /**
+     * Whether an If-None-Match header matches the given ETag, by weak comparison: the weak
+     * indicator of either tag is ignored and {@code *} matches any ETag.
+     */
+    static boolean matches(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+
+        var current = opaqueTag(eTag);
+
+        for (var candidate : ifNoneMatch.split(",")) {
+            var tag = candidate.trim();
+
+            if (tag.equals(ANY) || opaqueTag(tag).equals(current)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Version required by an If-Match header for the given beer, or null when the header is
+     * absent or matches any version. The ETag of any representation of the beer is accepted;
+     * a weak, malformed or foreign ETag can never match.
+     */
+    static Long expectedVersion(String ifMatch, Long id) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals(ANY)) {
+            return null;
+        }
+
+        var prefix = "\"" + id + "-";
+        var eTag = ifMatch.trim();
+
+        if (!eTag.startsWith(prefix) || !eTag.endsWith("\"") || eTag.length() <= prefix.length() + 1) {
+            throw new BeerVersionMismatchException(id);
+        }
+
+        var version = eTag.substring(prefix.length(), eTag.length() - 1);
+        var separator = version.indexOf(FORMAT_SEPARATOR);
+
+        if (separator >= 0) {
+            if (!BINARY_FORMATS.containsValue(version.substring(separator + 1))) {
+                throw new BeerVersionMismatchException(id);
+            }
+
+            version = version.substring(0, separator);
+        }
+
+        try {
+            return Long.parseLong(version);
+        } catch (NumberFormatException exception) {
+            throw new BeerVersionMismatchException(id);
+        }
+    }
+
+    private static String opaqueTag(String eTag) {
+        var tag = eTag.trim();
+
+        return tag.startsWith(WEAK_PREFIX) ? tag.substring(WEAK_PREFIX.length()) : tag;
+    }
+
+    private static String of(Long id, Long version, String accept) {
+        return quote(id + "-" + version, accept);
+    }
+
+    private static String quote(String tag, String accept) {
+        var format = binaryFormat(accept);
+
+        return "\"" + tag + (format != null ? FORMAT_SEPARATOR + format : "") + "\"";
+    }
+
+    /**
+     * Binary format the Accept header selects, or null for JSON. Like the message converters,
+     * which list JSON first, the most preferred media type wins and a wildcard means JSON.
+     */
+    private static String binaryFormat(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return null;
+        }
+
+        List<MediaType> mediaTypes;
+
+        try {
+            mediaTypes = MediaType.parseMediaTypes(accept);
+            MimeTypeUtils.sortBySpecificity(mediaTypes);
+        } catch (IllegalArgumentException exception) {
+            // a malformed header is answered with the default representation
+            return null;
+        }
+
+        for (var mediaType : mediaTypes) {
+            if (mediaType.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                return null;
+            }
+
+            for (var format : BINARY_FORMATS.entrySet()) {
+                if (mediaType.isCompatibleWith(format.getKey())) {
+                    return format.getValue();
+                }
+            }
+        }
+
+        return null;
+    }
+}
@@ -0,0 +1,61 @@
+package com.github.matheusmv.beerstock.controller;
+
+import com.github.matheusmv.beerstock.dto.BeerDTO;
+import com.github.matheusmv.beerstock.dto.BeerSearchCriteriaDTO;
+import com.github.matheusmv.beerstock.dto.BeerSuggestionDTO;
+import com.github.matheusmv.beerstock.dto.PageDTO;
+import com.github.matheusmv.beerstock.enums.BeerSortField;
+import com.github.matheusmv.beerstock.exception.InvalidSearchQueryException;
+import com.github.matheusmv.beerstock.service.BeerNameIndex;
+import com.github.matheusmv.beerstock.service.BeerService;
+import jakarta.validation.Valid;
+import lombok.AllArgsConstructor;
+import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Kept apart from {@code /api/v1/beers} so that its path can never be taken for a beer name.
+ */
+@RestController
+@RequestMapping("/api/v1/search")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@AllArgsConstructor(onConstructor = @__(@Autowired))
+public class BeerSearchController implements BeerSearchControllerDocs {
+
+    private static final int MAX_QUERY_LENGTH = 200;
+
+    private final BeerService beerService;
+    private final BeerNameIndex beerNameIndex;
+
+    @GetMapping("/beers")
+    public ResponseEntity<PageDTO<BeerDTO>> searchBeers(@ParameterObject @Valid BeerSearchCriteriaDTO criteria,
+                                                        @RequestParam(defaultValue = "0") int page,
+                                                        @RequestParam(required = false) Integer size,
+                                                        @RequestParam(defaultValue = "ID") BeerSortField sort,
+                                                        @RequestParam(defaultValue = "ASC") Sort.Direction direction) {
+        var pageOfBeers = beerService.search(criteria, page, size, sort, direction);
+
+        return ResponseEntity.ok().body(pageOfBeers);
+    }
+
+    @GetMapping("/beers/autocomplete")
+    public ResponseEntity<List<BeerSuggestionDTO>> suggestBeers(@RequestParam("q") String query,
+                                                                @RequestParam(required = false) Integer limit) {
+        if (query.length() > MAX_QUERY_LENGTH) {
+            throw new InvalidSearchQueryException(MAX_QUERY_LENGTH);
+        }
+
+        var suggestions = beerNameIndex.suggest(query, limit);
+
+        return ResponseEntity.ok().body(suggestions);
+    }
+}
@@ -0,0 +1,35 @@
+package com.github.matheusmv.beerstock.controller;
+
+import com.github.matheusmv.beerstock.dto.BeerDTO;
+import com.github.matheusmv.beerstock.dto.BeerSearchCriteriaDTO;
+import com.github.matheusmv.beerstock.dto.BeerSuggestionDTO;
+import com.github.matheusmv.beerstock.dto.PageDTO;
+import com.github.matheusmv.beerstock.enums.BeerSortField;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+
+@Tag(name = "search", description = "Searches the beer catalog")
+public interface BeerSearchControllerDocs {
+
+    @Operation(summary = "Returns a page of the beers matching every given filter: type, brand prefix, name prefix " +
+            "or contains, quantity range, in stock and near max")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Page of matching beers in the requested order, ties broken by id"),
+            @ApiResponse(responseCode = "400", description = "Invalid filter value.")
+    })
+    ResponseEntity<PageDTO<BeerDTO>> searchBeers(BeerSearchCriteriaDTO criteria, int page, Integer size,
+                                                 BeerSortField sort, Sort.Direction direction);
+
+    @Operation(summary = "Suggests beers whose name or brand has a word starting with each word typed, " +
+            "ignoring case and accents")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Up to limit suggestions with id, name and brand"),
+    })
+    ResponseEntity<List<BeerSuggestionDTO>> suggestBeers(String query, Integer limit);
+}
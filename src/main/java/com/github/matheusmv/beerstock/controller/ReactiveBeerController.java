@@ -0,0 +1,230 @@
+package com.github.matheusmv.beerstock.controller;
+
+import com.github.matheusmv.beerstock.dto.BeerDTO;
+import com.github.matheusmv.beerstock.dto.BeerImportResponseDTO;
+import com.github.matheusmv.beerstock.dto.BeerMovementRankDTO;
+import com.github.matheusmv.beerstock.dto.BulkStockRequestDTO;
+import com.github.matheusmv.beerstock.dto.BulkStockResponseDTO;
+import com.github.matheusmv.beerstock.dto.CursorPageDTO;
+import com.github.matheusmv.beerstock.dto.PageDTO;
+import com.github.matheusmv.beerstock.dto.QuantityDTO;
+import com.github.matheusmv.beerstock.dto.StockAlertDTO;
+import com.github.matheusmv.beerstock.dto.StockChangeEventDTO;
+import com.github.matheusmv.beerstock.dto.StockMovementDTO;
+import com.github.matheusmv.beerstock.dto.StockRollupDTO;
+import com.github.matheusmv.beerstock.dto.StockThresholdsDTO;
+import com.github.matheusmv.beerstock.enums.BeerType;
+import com.github.matheusmv.beerstock.enums.RollupGranularity;
+import com.github.matheusmv.beerstock.enums.StockAlertKind;
+import com.github.matheusmv.beerstock.service.BeerExportService;
+import com.github.matheusmv.beerstock.service.BeerImportService;
+import com.github.matheusmv.beerstock.service.BeerService;
+import com.github.matheusmv.beerstock.service.ReactiveBeerService;
+import com.github.matheusmv.beerstock.service.StockAlertService;
+import com.github.matheusmv.beerstock.service.StockMovementJournal;
+import com.github.matheusmv.beerstock.service.StockRollupService;
+import jakarta.validation.Valid;
+import lombok.AllArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * WebFlux implementation of the beer API, active when the application runs as a reactive web
+ * application (the {@code reactive} profile). Reads and single-beer writes go through R2DBC;
+ * the bulk stock adjustment and the catalog import reuse the JPA services on the bounded
+ * elastic scheduler, so they keep their transactional batching.
+ */
+@RestController
+@RequestMapping("/api/v1/beers")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@AllArgsConstructor(onConstructor = @__(@Autowired))
+public class ReactiveBeerController {
+
+    private static final String TEXT_CSV_VALUE = "text/csv";
+
+    private final ReactiveBeerService reactiveBeerService;
+    private final BeerService beerService;
+    private final BeerImportService beerImportService;
+    private final StockAlertService stockAlertService;
+    private final StockMovementJournal stockMovementJournal;
+    private final StockRollupService stockRollupService;
+
+    @PostMapping
+    public Mono<ResponseEntity<BeerDTO>> createBeer(@RequestBody @Valid BeerDTO beerDTO, ServerHttpRequest request) {
+        return reactiveBeerService.createBeer(beerDTO)
+                .map(newBeer -> {
+                    var uri = UriComponentsBuilder
+                            .fromUri(request.getURI())
+                            .path("/{id}")
+                            .buildAndExpand(newBeer.getId())
+                            .toUri();
+
+                    return ResponseEntity.created(uri).body(newBeer);
+                });
+    }
+
+    @PostMapping(path = "/import", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<BeerImportResponseDTO>> importBeers(@RequestBody List<BeerDTO> beers) {
+        return Mono.fromCallable(() -> beerImportService.importBeers(beers))
+                .subscribeOn(Schedulers.boundedElastic())
+                .map(response -> ResponseEntity.ok().body(response));
+    }
+
+    /**
+     * The body is collected before the import starts, since the import reads a blocking stream.
+     */
+    @PostMapping(path = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public Mono<ResponseEntity<BeerImportResponseDTO>> importBeersAsNdjson(@RequestBody Flux<DataBuffer> body) {
+        return DataBufferUtils.join(body)
+                .publishOn(Schedulers.boundedElastic())
+                .map(dataBuffer -> {
+                    try (var inputStream = dataBuffer.asInputStream(true)) {
+                        return beerImportService.importNdjson(inputStream);
+                    } catch (IOException exception) {
+                        throw new UncheckedIOException(exception);
+                    }
+                })
+                .map(response -> ResponseEntity.ok().body(response));
+    }
+
+    @GetMapping("/{name}")
+    public Mono<ResponseEntity<BeerDTO>> findByName(@PathVariable String name) {
+        return reactiveBeerService.findByName(name)
+                .map(beer -> ResponseEntity.ok().body(beer));
+    }
+
+    @GetMapping
+    public Mono<ResponseEntity<CursorPageDTO<BeerDTO>>> listBeers(@RequestParam(required = false) String cursor,
+                                                                  @RequestParam(required = false) Integer size) {
+        return reactiveBeerService.listAfter(cursor, size)
+                .map(pageOfBeers -> ResponseEntity.ok().body(pageOfBeers));
+    }
+
+    @GetMapping(params = "page")
+    public Mono<ResponseEntity<PageDTO<BeerDTO>>> listBeersByPage(@RequestParam int page,
+                                                                  @RequestParam(required = false) Integer size) {
+        return reactiveBeerService.listPage(page, size)
+                .map(pageOfBeers -> ResponseEntity.ok().body(pageOfBeers));
+    }
+
+    /**
+     * Written as the rows arrive; a slow client slows down the database reads instead of
+     * buffering the catalog in memory.
+     */
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<BeerDTO> exportBeersAsNdjson() {
+        return reactiveBeerService.streamAll();
+    }
+
+    @GetMapping(produces = TEXT_CSV_VALUE)
+    public Flux<String> exportBeersAsCsv() {
+        return reactiveBeerService.streamAll()
+                .map(beerDTO -> BeerExportService.toCsvLine(beerDTO) + "\n")
+                .startWith(BeerExportService.CSV_HEADER + "\n");
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> deleteById(@PathVariable Long id) {
+        return reactiveBeerService.deleteById(id)
+                .then(Mono.just(ResponseEntity.noContent().build()));
+    }
+
+    @PatchMapping("/{id}/increment")
+    public Mono<ResponseEntity<BeerDTO>> increment(@PathVariable Long id,
+                                                   @RequestBody @Valid QuantityDTO quantityDTO) {
+        return reactiveBeerService.increment(id, quantityDTO.getQuantity())
+                .map(beer -> ResponseEntity.ok().body(beer));
+    }
+
+    @PatchMapping("/{id}/decrement")
+    public Mono<ResponseEntity<BeerDTO>> decrement(@PathVariable Long id,
+                                                   @RequestBody @Valid QuantityDTO quantityDTO) {
+        return reactiveBeerService.decrement(id, quantityDTO.getQuantity())
+                .map(beer -> ResponseEntity.ok().body(beer));
+    }
+
+    @GetMapping("/{id}/movements")
+    public Mono<ResponseEntity<PageDTO<StockMovementDTO>>> listMovements(@PathVariable Long id,
+                                                                         @RequestParam(defaultValue = "0") int page,
+                                                                         @RequestParam(required = false) Integer size) {
+        return Mono.fromCallable(() -> stockMovementJournal.findByBeer(id, page, size))
+                .subscribeOn(Schedulers.boundedElastic())
+                .map(pageOfMovements -> ResponseEntity.ok().body(pageOfMovements));
+    }
+
+    @GetMapping("/{id}/rollups")
+    public Mono<ResponseEntity<List<StockRollupDTO>>> listRollups(@PathVariable Long id,
+                                                                  @RequestParam(defaultValue = "HOUR") RollupGranularity granularity,
+                                                                  @RequestParam(required = false) Instant from,
+                                                                  @RequestParam(required = false) Instant to) {
+        return Mono.fromCallable(() -> stockRollupService.findSeries(id, granularity, from, to))
+                .subscribeOn(Schedulers.boundedElastic())
+                .map(rollups -> ResponseEntity.ok().body(rollups));
+    }
+
+    @GetMapping("/rollups/top")
+    public Mono<ResponseEntity<List<BeerMovementRankDTO>>> listTopMoving(@RequestParam(defaultValue = "DAY") RollupGranularity granularity,
+                                                                         @RequestParam(required = false) BeerType type,
+                                                                         @RequestParam(required = false) Instant from,
+                                                                         @RequestParam(required = false) Instant to,
+                                                                         @RequestParam(defaultValue = "10") int limit) {
+        return Mono.fromCallable(() -> stockRollupService.findTopMoving(granularity, type, from, to, limit))
+                .subscribeOn(Schedulers.boundedElastic())
+                .map(ranking -> ResponseEntity.ok().body(ranking));
+    }
+
+    @GetMapping("/alerts/low-stock")
+    public Mono<ResponseEntity<List<StockAlertDTO>>> listLowStock() {
+        return Mono.fromSupplier(() -> ResponseEntity.ok().body(stockAlertService.findActive(StockAlertKind.LOW_STOCK)));
+    }
+
+    @GetMapping("/alerts/near-max")
+    public Mono<ResponseEntity<List<StockAlertDTO>>> listNearMax() {
+        return Mono.fromSupplier(() -> ResponseEntity.ok().body(stockAlertService.findActive(StockAlertKind.NEAR_MAX)));
+    }
+
+    @PutMapping("/{id}/thresholds")
+    public Mono<ResponseEntity<StockThresholdsDTO>> updateThresholds(@PathVariable Long id,
+                                                                     @RequestBody @Valid StockThresholdsDTO stockThresholdsDTO) {
+        return Mono.fromCallable(() -> stockAlertService.updateThresholds(id, stockThresholdsDTO))
+                .subscribeOn(Schedulers.boundedElastic())
+                .map(thresholds -> ResponseEntity.ok().body(thresholds));
+    }
+
+    @GetMapping(path = "/stock/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<StockChangeEventDTO> streamStockEvents(@RequestParam(required = false) BeerType type,
+                                                      @RequestParam(required = false) Long id) {
+        return reactiveBeerService.streamStockChanges(type, id);
+    }
+
+    @PatchMapping("/stock")
+    public Mono<ResponseEntity<BulkStockResponseDTO>> adjustStock(@RequestBody @Valid BulkStockRequestDTO bulkStockRequestDTO) {
+        return Mono.fromCallable(() -> beerService.adjustStock(bulkStockRequestDTO.getOperations(), bulkStockRequestDTO.getMode()))
+                .subscribeOn(Schedulers.boundedElastic())
+                .map(response -> ResponseEntity.ok().body(response));
+    }
+}
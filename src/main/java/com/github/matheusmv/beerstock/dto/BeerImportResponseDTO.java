@@ -0,0 +1,23 @@
+package com.github.matheusmv.beerstock.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BeerImportResponseDTO {
+
+    private long created;
+
+    private long duplicates;
+
+    private long invalid;
+
+    private List<BeerImportResultDTO> results;
+}
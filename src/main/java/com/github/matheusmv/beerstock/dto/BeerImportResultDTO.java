@@ -0,0 +1,24 @@
+package com.github.matheusmv.beerstock.dto;
+
+import com.github.matheusmv.beerstock.enums.BeerImportStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BeerImportResultDTO {
+
+    private int index;
+
+    private String name;
+
+    private BeerImportStatus status;
+
+    private Long id;
+
+    private String message;
+}
@@ -0,0 +1,24 @@
+package com.github.matheusmv.beerstock.dto;
+
+import com.github.matheusmv.beerstock.enums.BeerType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BeerMovementRankDTO {
+
+    private Long id;
+
+    private String name;
+
+    private BeerType type;
+
+    private Long incremented;
+
+    private Long decremented;
+}
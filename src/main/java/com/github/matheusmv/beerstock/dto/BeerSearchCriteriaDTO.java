@@ -0,0 +1,50 @@
+package com.github.matheusmv.beerstock.dto;
+
+import com.github.matheusmv.beerstock.enums.BeerType;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Filters of a beer search, all optional and combined with AND. Name and brand matching is
+ * case-sensitive, so prefixes are answered by the name and brand indexes.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BeerSearchCriteriaDTO {
+
+    private BeerType type;
+
+    @Size(max = 200)
+    private String brand;
+
+    @Size(max = 200)
+    private String name;
+
+    /**
+     * Matches the name anywhere instead of only as a prefix, which cannot use an index.
+     */
+    private boolean nameContains;
+
+    @Min(0)
+    private Integer minQuantity;
+
+    @Min(0)
+    private Integer maxQuantity;
+
+    /**
+     * Only beers with stock when true, only beers without stock when false.
+     */
+    private Boolean inStock;
+
+    /**
+     * Only beers at least at the near max percentage of their max when true, only the others
+     * when false.
+     */
+    private Boolean nearMax;
+}
@@ -0,0 +1,17 @@
+package com.github.matheusmv.beerstock.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BeerVersionDTO {
+
+    private Long id;
+
+    private Long version;
+}
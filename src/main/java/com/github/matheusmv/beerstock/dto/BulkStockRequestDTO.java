@@ -0,0 +1,29 @@
+package com.github.matheusmv.beerstock.dto;
+
+import com.github.matheusmv.beerstock.enums.BulkMode;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkStockRequestDTO {
+
+    @NotNull
+    @Builder.Default
+    private BulkMode mode = BulkMode.BEST_EFFORT;
+
+    @Valid
+    @NotEmpty
+    @Size(max = 1000)
+    private List<StockOperationDTO> operations;
+}
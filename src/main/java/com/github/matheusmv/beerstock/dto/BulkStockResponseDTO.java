@@ -0,0 +1,24 @@
+package com.github.matheusmv.beerstock.dto;
+
+import com.github.matheusmv.beerstock.enums.BulkMode;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkStockResponseDTO {
+
+    private BulkMode mode;
+
+    private long applied;
+
+    private long rejected;
+
+    private List<StockOperationResultDTO> results;
+}
@@ -0,0 +1,36 @@
+package com.github.matheusmv.beerstock.dto;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import com.github.matheusmv.beerstock.enums.StockChangeKind;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Change of a beer as handed to an outbox sink. The sequence grows with every change of the
+ * same beer, so a consumer can drop the duplicates of an at-least-once delivery by keeping
+ * the last sequence it applied for each beer.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxEventDTO {
+
+    private Long sequence;
+
+    private Long beerId;
+
+    private StockChangeKind kind;
+
+    /**
+     * The stock change event, as JSON.
+     */
+    @JsonRawValue
+    private String payload;
+
+    private Instant createdAt;
+}
@@ -0,0 +1,33 @@
+package com.github.matheusmv.beerstock.dto;
+
+import com.github.matheusmv.beerstock.enums.BeerType;
+import com.github.matheusmv.beerstock.enums.StockAlertKind;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockAlertDTO {
+
+    private StockAlertKind kind;
+
+    private Long id;
+
+    private String name;
+
+    private BeerType type;
+
+    private int quantity;
+
+    private int max;
+
+    private int threshold;
+
+    private Instant since;
+}
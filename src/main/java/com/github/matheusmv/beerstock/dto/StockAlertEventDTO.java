@@ -0,0 +1,22 @@
+package com.github.matheusmv.beerstock.dto;
+
+import com.github.matheusmv.beerstock.enums.StockAlertState;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockAlertEventDTO {
+
+    private StockAlertState state;
+
+    private StockAlertDTO alert;
+
+    private Instant timestamp;
+}
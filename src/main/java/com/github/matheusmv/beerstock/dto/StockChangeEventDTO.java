@@ -0,0 +1,38 @@
+package com.github.matheusmv.beerstock.dto;
+
+import com.github.matheusmv.beerstock.enums.BeerType;
+import com.github.matheusmv.beerstock.enums.StockChangeKind;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockChangeEventDTO {
+
+    private StockChangeKind kind;
+
+    private Long id;
+
+    private String name;
+
+    private BeerType type;
+
+    private int max;
+
+    private int oldQuantity;
+
+    private int newQuantity;
+
+    /**
+     * Version of the beer once the change is applied, which orders the changes of a beer.
+     */
+    private Long version;
+
+    private Instant timestamp;
+}
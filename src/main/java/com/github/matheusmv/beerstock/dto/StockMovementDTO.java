@@ -0,0 +1,27 @@
+package com.github.matheusmv.beerstock.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockMovementDTO {
+
+    private Long id;
+
+    private Long beerId;
+
+    private int delta;
+
+    private int quantity;
+
+    private String actor;
+
+    private Instant movedAt;
+}
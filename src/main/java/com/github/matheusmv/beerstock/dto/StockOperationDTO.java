@@ -0,0 +1,24 @@
+package com.github.matheusmv.beerstock.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockOperationDTO {
+
+    @NotNull
+    private Long id;
+
+    @NotNull
+    @Min(-100)
+    @Max(100)
+    private Integer delta;
+}
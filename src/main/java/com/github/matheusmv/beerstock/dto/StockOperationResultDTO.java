@@ -0,0 +1,26 @@
+package com.github.matheusmv.beerstock.dto;
+
+import com.github.matheusmv.beerstock.enums.StockOperationStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockOperationResultDTO {
+
+    private Long id;
+
+    private Integer delta;
+
+    private StockOperationStatus status;
+
+    private Integer quantity;
+
+    private String error;
+
+    private String message;
+}
@@ -0,0 +1,21 @@
+package com.github.matheusmv.beerstock.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockRollupDTO {
+
+    private Instant bucketStart;
+
+    private long incremented;
+
+    private long decremented;
+}
@@ -0,0 +1,23 @@
+package com.github.matheusmv.beerstock.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockThresholdsDTO {
+
+    @Min(0)
+    @Max(500)
+    private Integer reorderPoint;
+
+    @Min(1)
+    @Max(100)
+    private Integer nearMaxPercent;
+}
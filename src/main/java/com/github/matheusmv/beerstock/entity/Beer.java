@@ -1,26 +1,42 @@
 package com.github.matheusmv.beerstock.entity;
 
 import com.github.matheusmv.beerstock.enums.BeerType;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import javax.persistence.Column;
-import javax.persistence.Entity;
-import javax.persistence.EnumType;
-import javax.persistence.Enumerated;
-import javax.persistence.GeneratedValue;
-import javax.persistence.GenerationType;
-import javax.persistence.Id;
-
+/**
+ * A beer and its stock. The version is incremented by every stock change, whichever path
+ * writes it, and is exposed to clients as the ETag of the beer.
+ * <p>
+ * Besides the unique name, type, brand and quantity are indexed for the search filters.
+ */
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_beer_type", columnList = "type"),
+        @Index(name = "idx_beer_brand", columnList = "brand"),
+        @Index(name = "idx_beer_quantity", columnList = "quantity")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Beer {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @org.springframework.data.annotation.Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "beer_sequence")
+    @SequenceGenerator(name = "beer_sequence", sequenceName = "beer_sequence", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, unique = true)
@@ -38,4 +54,8 @@ public class Beer {
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private BeerType type;
+
+    @Version
+    @Column(nullable = false)
+    private Long version;
 }
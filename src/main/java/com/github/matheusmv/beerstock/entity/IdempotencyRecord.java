@@ -0,0 +1,37 @@
+package com.github.matheusmv.beerstock.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Response of a completed request sent with an idempotency key. Rows are inserted once and
+ * purged by the JDBC idempotency store after the retention time.
+ */
+@Entity
+@Table(indexes = @Index(name = "idx_idempotency_record_created_at", columnList = "created_at"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdempotencyRecord {
+
+    @Id
+    @Column(length = 255)
+    private String idempotencyKey;
+
+    @Column(nullable = false)
+    private String fingerprint;
+
+    @Column(nullable = false, length = 4096)
+    private String response;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+}
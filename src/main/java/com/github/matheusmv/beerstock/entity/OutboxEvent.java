@@ -0,0 +1,44 @@
+package com.github.matheusmv.beerstock.entity;
+
+import com.github.matheusmv.beerstock.enums.StockChangeKind;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Change of a beer waiting to be relayed to the downstream consumers. Rows are inserted in
+ * the transaction making the change and deleted by the outbox relay once the sink accepted
+ * them; the id orders the changes.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long beerId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private StockChangeKind kind;
+
+    @Column(nullable = false, length = 4096)
+    private String payload;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+}
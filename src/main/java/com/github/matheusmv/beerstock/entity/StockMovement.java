@@ -0,0 +1,45 @@
+package com.github.matheusmv.beerstock.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * One stock adjustment of a beer. Rows are only ever inserted, in JDBC batches, by the
+ * stock movement journal.
+ */
+@Entity
+@Table(indexes = @Index(name = "idx_stock_movement_beer_moved_at", columnList = "beer_id, moved_at"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockMovement {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long beerId;
+
+    @Column(nullable = false)
+    private int delta;
+
+    @Column(nullable = false)
+    private int quantity;
+
+    @Column(nullable = false)
+    private String actor;
+
+    @Column(nullable = false)
+    private Instant movedAt;
+}
@@ -0,0 +1,56 @@
+package com.github.matheusmv.beerstock.entity;
+
+import com.github.matheusmv.beerstock.enums.BeerType;
+import com.github.matheusmv.beerstock.enums.RollupGranularity;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Units added to and removed from the stock of a beer within one time bucket. Rows are
+ * written by the stock rollup writer, which adds to the totals of existing buckets.
+ */
+@Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_stock_rollup_bucket", columnNames = {"beer_id", "granularity", "bucket_start"}),
+        indexes = @Index(name = "idx_stock_rollup_granularity_bucket", columnList = "granularity, bucket_start"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long beerId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private BeerType beerType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private RollupGranularity granularity;
+
+    @Column(nullable = false)
+    private Instant bucketStart;
+
+    @Column(nullable = false)
+    private long incremented;
+
+    @Column(nullable = false)
+    private long decremented;
+}
@@ -0,0 +1,24 @@
+package com.github.matheusmv.beerstock.entity;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Alert thresholds of one beer. A null threshold falls back to the configured default.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockThreshold {
+
+    @Id
+    private Long beerId;
+
+    private Integer reorderPoint;
+
+    private Integer nearMaxPercent;
+}
@@ -0,0 +1,15 @@
+package com.github.matheusmv.beerstock.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public enum BeerImportStatus {
+
+    CREATED("Created"),
+    DUPLICATE("Duplicate"),
+    INVALID("Invalid");
+
+    private final String description;
+}
@@ -0,0 +1,22 @@
+package com.github.matheusmv.beerstock.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public enum BeerSortField {
+
+    ID("Id", "id"),
+    NAME("Name", "name"),
+    BRAND("Brand", "brand"),
+    TYPE("Type", "type"),
+    QUANTITY("Quantity in stock", "quantity");
+
+    private final String description;
+
+    /**
+     * Attribute of the beer entity the results are ordered by.
+     */
+    private final String property;
+}
@@ -3,6 +3,9 @@ package com.github.matheusmv.beerstock.enums;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 
+/**
+ * The binary wire formats encode the type as its ordinal, so new types are only ever appended.
+ */
 @Getter
 @AllArgsConstructor
 public enum BeerType {
@@ -0,0 +1,14 @@
+package com.github.matheusmv.beerstock.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public enum BulkMode {
+
+    ALL_OR_NOTHING("All or nothing"),
+    BEST_EFFORT("Best effort");
+
+    private final String description;
+}
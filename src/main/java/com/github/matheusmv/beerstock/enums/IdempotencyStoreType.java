@@ -0,0 +1,14 @@
+package com.github.matheusmv.beerstock.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public enum IdempotencyStoreType {
+
+    MEMORY("Bounded in-memory cache, local to each instance"),
+    JDBC("idempotency_record table, shared by every instance using the same database");
+
+    private final String description;
+}
@@ -0,0 +1,15 @@
+package com.github.matheusmv.beerstock.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public enum JournalBackpressure {
+
+    DROP("Discard the movement and count it as dropped"),
+    BLOCK("Wait for the writer to free space in the queue, up to the block timeout, then discard it"),
+    CALLER_RUNS("Write the movement on the calling thread");
+
+    private final String description;
+}
@@ -0,0 +1,14 @@
+package com.github.matheusmv.beerstock.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public enum OutboxSinkType {
+
+    MEMORY("Bounded in-process list of the last relayed events, for tests and local runs"),
+    FILE("JSON lines appended to a local file");
+
+    private final String description;
+}
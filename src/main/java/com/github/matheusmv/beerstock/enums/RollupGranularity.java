@@ -0,0 +1,29 @@
+package com.github.matheusmv.beerstock.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+@Getter
+@AllArgsConstructor
+public enum RollupGranularity {
+
+    HOUR("Hourly buckets", ChronoUnit.HOURS, Duration.ofHours(24)),
+    DAY("Daily buckets (UTC)", ChronoUnit.DAYS, Duration.ofDays(30));
+
+    private final String description;
+
+    private final ChronoUnit unit;
+
+    /**
+     * Window returned when a query does not give one.
+     */
+    private final Duration defaultWindow;
+
+    public Instant bucketOf(Instant instant) {
+        return instant.truncatedTo(unit);
+    }
+}
@@ -0,0 +1,14 @@
+package com.github.matheusmv.beerstock.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public enum StockAlertKind {
+
+    LOW_STOCK("Stock below the reorder point"),
+    NEAR_MAX("Stock close to the max");
+
+    private final String description;
+}
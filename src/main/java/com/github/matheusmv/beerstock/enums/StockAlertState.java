@@ -0,0 +1,14 @@
+package com.github.matheusmv.beerstock.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public enum StockAlertState {
+
+    RAISED("Beer entered the alert"),
+    CLEARED("Beer left the alert");
+
+    private final String description;
+}
@@ -0,0 +1,16 @@
+package com.github.matheusmv.beerstock.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public enum StockChangeKind {
+
+    CREATED("Beer registered"),
+    INCREMENTED("Stock incremented"),
+    DECREMENTED("Stock decremented"),
+    DELETED("Beer removed");
+
+    private final String description;
+}
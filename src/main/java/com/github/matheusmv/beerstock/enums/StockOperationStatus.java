@@ -0,0 +1,15 @@
+package com.github.matheusmv.beerstock.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public enum StockOperationStatus {
+
+    APPLIED("Applied"),
+    REJECTED("Rejected"),
+    ROLLED_BACK("Rolled back");
+
+    private final String description;
+}
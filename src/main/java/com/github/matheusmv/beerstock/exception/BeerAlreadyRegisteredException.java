@@ -4,7 +4,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ResponseStatus;
 
 @ResponseStatus(HttpStatus.BAD_REQUEST)
-public class BeerAlreadyRegisteredException extends RuntimeException {
+public class BeerAlreadyRegisteredException extends BeerStockException {
 
     public BeerAlreadyRegisteredException(String beerName) {
         super(String.format("Beer with name %s already registered in the system.", beerName));
@@ -4,7 +4,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ResponseStatus;
 
 @ResponseStatus(HttpStatus.NOT_FOUND)
-public class BeerNotFoundException extends RuntimeException {
+public class BeerNotFoundException extends BeerStockException {
 
     public BeerNotFoundException(String beerName) {
         super(String.format("Beer with name %s not found in the system.", beerName));
@@ -4,7 +4,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ResponseStatus;
 
 @ResponseStatus(HttpStatus.BAD_REQUEST)
-public class BeerStockExceededException extends RuntimeException {
+public class BeerStockExceededException extends BeerStockException {
 
     public BeerStockExceededException(Long id, int quantityToIncrement) {
         super(String.format("Beers with %s ID to increment informed exceeds the max stock capacity: %s", id, quantityToIncrement));
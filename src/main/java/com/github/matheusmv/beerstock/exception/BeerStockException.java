@@ -0,0 +1,14 @@
+package com.github.matheusmv.beerstock.exception;
+
+/**
+ * Base of the domain exceptions. They report expected outcomes of a request, such as an
+ * unknown name or an insufficient stock, not bugs, so they skip capturing the stack trace and
+ * tracking suppressed exceptions, which would otherwise be most of the cost of those
+ * responses. The HTTP status of each one is given by its {@code @ResponseStatus}.
+ */
+public abstract class BeerStockException extends RuntimeException {
+
+    protected BeerStockException(String message) {
+        super(message, null, false, false);
+    }
+}
@@ -0,0 +1,12 @@
+package com.github.matheusmv.beerstock.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+public class BeerVersionMismatchException extends BeerStockException {
+
+    public BeerVersionMismatchException(Long id) {
+        super(String.format("Beer with %s ID is no longer at the version given in If-Match.", id));
+    }
+}
@@ -1,52 +1,65 @@
 package com.github.matheusmv.beerstock.exception;
 
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.method.annotation.HandlerMethodValidationException;
 
-import javax.servlet.http.HttpServletRequest;
-import java.time.Instant;
+import java.util.stream.Collectors;
 
+/**
+ * Turns the domain exceptions and validation failures into a {@link StandardError}. Every
+ * exception of this package is a {@link BeerStockException}, answered with the status of its
+ * {@code @ResponseStatus}.
+ */
 @ControllerAdvice
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class GlobalExceptionHandler {
 
-    @ExceptionHandler(BeerNotFoundException.class)
-    public ResponseEntity<StandardError> beerNotFoundException(BeerNotFoundException exception,
-                                                               HttpServletRequest request) {
-        var status = HttpStatus.NOT_FOUND;
-        var error = getStandardError(exception, request, status);
+    private static final StandardErrorTemplate INVALID_BODY =
+            StandardErrorTemplate.of(MethodArgumentNotValidException.class, HttpStatus.BAD_REQUEST);
+    private static final StandardErrorTemplate INVALID_PARAMETERS =
+            StandardErrorTemplate.of(HandlerMethodValidationException.class, HttpStatus.BAD_REQUEST);
 
-        return ResponseEntity.status(status).body(error);
-    }
-
-    @ExceptionHandler(BeerAlreadyRegisteredException.class)
-    public ResponseEntity<StandardError> beerAlreadyRegisteredException(BeerAlreadyRegisteredException exception,
-                                                                        HttpServletRequest request) {
-        var status = HttpStatus.BAD_REQUEST;
-        var error = getStandardError(exception, request, status);
+    @ExceptionHandler(BeerStockException.class)
+    public ResponseEntity<StandardError> beerStockException(BeerStockException exception,
+                                                            HttpServletRequest request) {
+        var template = StandardErrorTemplate.of(exception.getClass());
+        var error = template.toError(exception.getMessage(), request.getRequestURI());
 
-        return ResponseEntity.status(status).body(error);
+        return ResponseEntity.status(template.status()).body(error);
     }
 
-    @ExceptionHandler(BeerStockExceededException.class)
-    public ResponseEntity<StandardError> BeerStockExceededException(BeerStockExceededException exception,
-                                                                    HttpServletRequest request) {
-        var status = HttpStatus.BAD_REQUEST;
-        var error = getStandardError(exception, request, status);
+    @ExceptionHandler(MethodArgumentNotValidException.class)
+    public ResponseEntity<StandardError> methodArgumentNotValidException(MethodArgumentNotValidException exception,
+                                                                         HttpServletRequest request) {
+        var message = exception.getBindingResult()
+                .getFieldErrors()
+                .stream()
+                .map(fieldError -> fieldError.getField() + " " + fieldError.getDefaultMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+        var error = INVALID_BODY.toError(message, request.getRequestURI());
 
-        return ResponseEntity.status(status).body(error);
+        return ResponseEntity.status(INVALID_BODY.status()).body(error);
     }
 
-    private StandardError getStandardError(RuntimeException exception,
-                                           HttpServletRequest request,
-                                           HttpStatus status) {
-        return StandardError.builder()
-                .timestamp(Instant.now())
-                .status(status.value())
-                .error(exception.getClass().getSimpleName())
-                .message(exception.getMessage())
-                .path(request.getRequestURI())
-                .build();
+    @ExceptionHandler(HandlerMethodValidationException.class)
+    public ResponseEntity<StandardError> handlerMethodValidationException(HandlerMethodValidationException exception,
+                                                                          HttpServletRequest request) {
+        var message = exception.getAllValidationResults()
+                .stream()
+                .flatMap(result -> result.getResolvableErrors()
+                        .stream()
+                        .map(resolvable -> result.getMethodParameter().getParameterName() + " " + resolvable.getDefaultMessage()))
+                .sorted()
+                .collect(Collectors.joining(", "));
+        var error = INVALID_PARAMETERS.toError(message, request.getRequestURI());
+
+        return ResponseEntity.status(INVALID_PARAMETERS.status()).body(error);
     }
 }
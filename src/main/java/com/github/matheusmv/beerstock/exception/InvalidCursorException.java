@@ -0,0 +1,12 @@
+package com.github.matheusmv.beerstock.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidCursorException extends BeerStockException {
+
+    public InvalidCursorException(String cursor) {
+        super(String.format("Cursor %s is not a valid page cursor.", cursor));
+    }
+}
@@ -0,0 +1,12 @@
+package com.github.matheusmv.beerstock.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidIdempotencyKeyException extends BeerStockException {
+
+    public InvalidIdempotencyKeyException(int maxLength) {
+        super(String.format("Idempotency key must be at most %d characters long.", maxLength));
+    }
+}
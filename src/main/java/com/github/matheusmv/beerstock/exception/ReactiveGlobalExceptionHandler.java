@@ -0,0 +1,44 @@
+package com.github.matheusmv.beerstock.exception;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.support.WebExchangeBindException;
+
+import java.util.stream.Collectors;
+
+/**
+ * Same error mapping as {@link GlobalExceptionHandler}, for the reactive stack.
+ */
+@ControllerAdvice
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveGlobalExceptionHandler {
+
+    private static final StandardErrorTemplate INVALID_BODY =
+            StandardErrorTemplate.of(WebExchangeBindException.class, HttpStatus.BAD_REQUEST);
+
+    @ExceptionHandler(BeerStockException.class)
+    public ResponseEntity<StandardError> beerStockException(BeerStockException exception,
+                                                            ServerHttpRequest request) {
+        var template = StandardErrorTemplate.of(exception.getClass());
+        var error = template.toError(exception.getMessage(), request.getPath().value());
+
+        return ResponseEntity.status(template.status()).body(error);
+    }
+
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<StandardError> webExchangeBindException(WebExchangeBindException exception,
+                                                                  ServerHttpRequest request) {
+        var message = exception.getFieldErrors()
+                .stream()
+                .map(fieldError -> fieldError.getField() + " " + fieldError.getDefaultMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+        var error = INVALID_BODY.toError(message, request.getPath().value());
+
+        return ResponseEntity.status(INVALID_BODY.status()).body(error);
+    }
+}
@@ -0,0 +1,44 @@
+package com.github.matheusmv.beerstock.exception;
+
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.time.Instant;
+
+/**
+ * The parts of a {@link StandardError} that only depend on the exception type, resolved once
+ * per type so that building an error response only costs its timestamp, message and path.
+ */
+record StandardErrorTemplate(HttpStatus status, Integer statusCode, String error) {
+
+    private static final ClassValue<StandardErrorTemplate> TEMPLATES = new ClassValue<>() {
+        @Override
+        protected StandardErrorTemplate computeValue(Class<?> type) {
+            var responseStatus = AnnotatedElementUtils.findMergedAnnotation(type, ResponseStatus.class);
+
+            return of(type, responseStatus != null ? responseStatus.code() : HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    };
+
+    /**
+     * Template of a type carrying a {@code @ResponseStatus}, 500 for the others.
+     */
+    static StandardErrorTemplate of(Class<? extends Throwable> type) {
+        return TEMPLATES.get(type);
+    }
+
+    static StandardErrorTemplate of(Class<?> type, HttpStatus status) {
+        return new StandardErrorTemplate(status, status.value(), type.getSimpleName());
+    }
+
+    StandardError toError(String message, String path) {
+        return StandardError.builder()
+                .timestamp(Instant.now())
+                .status(statusCode)
+                .error(error)
+                .message(message)
+                .path(path)
+                .build();
+    }
+}
@@ -3,6 +3,7 @@ package com.github.matheusmv.beerstock.mapper;
 import com.github.matheusmv.beerstock.dto.BeerDTO;
 import com.github.matheusmv.beerstock.entity.Beer;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import org.mapstruct.factory.Mappers;
 
 @Mapper
@@ -10,6 +11,10 @@ public interface BeerMapper {
 
     BeerMapper INSTANCE = Mappers.getMapper(BeerMapper.class);
 
+    /**
+     * The version is never taken from the client, it is only set by the persistence layer.
+     */
+    @Mapping(target = "version", ignore = true)
     Beer toModel(BeerDTO beerDTO);
 
     BeerDTO toDTO(Beer beer);
@@ -1,13 +1,149 @@
 package com.github.matheusmv.beerstock.repository;
 
+import com.github.matheusmv.beerstock.dto.BeerDTO;
+import com.github.matheusmv.beerstock.dto.BeerSuggestionDTO;
+import com.github.matheusmv.beerstock.dto.BeerVersionDTO;
+import com.github.matheusmv.beerstock.dto.StockLevelsDTO;
 import com.github.matheusmv.beerstock.entity.Beer;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
-public interface BeerRepository extends JpaRepository<Beer, Long> {
+public interface BeerRepository extends JpaRepository<Beer, Long>, BeerSearchRepository {
+
+    int EXPORT_FETCH_SIZE = 500;
+
+    /**
+     * Selects beers straight into DTOs: the rows never become managed entities, so reads pay
+     * for neither the persistence context nor the dirty-checking snapshots.
+     */
+    String SELECT_BEER_DTO = "SELECT new com.github.matheusmv.beerstock.dto.BeerDTO(b.id, b.name, b.brand, b.max, " +
+            "b.quantity, b.type, b.version) FROM Beer b";
+
+    @Query(SELECT_BEER_DTO + " WHERE b.name = :name")
+    Optional<BeerDTO> findDTOByName(@Param("name") String name);
+
+    @Query(SELECT_BEER_DTO)
+    List<BeerDTO> findAllDTOs();
+
+    @Query(value = SELECT_BEER_DTO, countQuery = "SELECT COUNT(b) FROM Beer b")
+    Page<BeerDTO> findAllDTOs(Pageable pageable);
+
+    /**
+     * Id and version of a beer, read through the unique index on its name without loading it.
+     */
+    @Query("SELECT new com.github.matheusmv.beerstock.dto.BeerVersionDTO(b.id, b.version) FROM Beer b WHERE b.name = :name")
+    Optional<BeerVersionDTO> findVersionByName(@Param("name") String name);
+
+    @Query("SELECT b.name FROM Beer b WHERE b.name IN :names")
+    List<String> findNamesIn(@Param("names") Collection<String> names);
+
+    /**
+     * Keyset page: {@code WHERE id > ? ORDER BY id LIMIT ?}, served by the primary key index
+     * at the same cost whatever the position of the page.
+     */
+    @Query(SELECT_BEER_DTO + " WHERE b.id > :id ORDER BY b.id")
+    List<BeerDTO> findDTOsAfter(@Param("id") Long id, Pageable pageable);
+
+    /**
+     * Streams the whole catalog in id order, fetching rows from the database in chunks.
+     * Must be consumed inside a transaction and closed afterwards.
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT b FROM Beer b ORDER BY b.id")
+    Stream<Beer> streamAll();
+
+    /**
+     * Streams the id, name and brand of every beer without loading the entities. Must be
+     * consumed inside a transaction and closed afterwards.
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE))
+    @Query("SELECT new com.github.matheusmv.beerstock.dto.BeerSuggestionDTO(b.id, b.name, b.brand) FROM Beer b ORDER BY b.id")
+    Stream<BeerSuggestionDTO> streamSuggestions();
+
+    /**
+     * Loads and row-locks every given beer with a single {@code IN} query, in id order so
+     * that concurrent bulk adjustments acquire their locks in the same sequence.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM Beer b WHERE b.id IN :ids ORDER BY b.id")
+    List<Beer> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Adds the given quantity to the stock in a single guarded statement.
+     *
+     * @return the number of updated rows, 0 when the beer does not exist or the max stock would be exceeded
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Beer b SET b.quantity = b.quantity + :quantity, b.version = b.version + 1 " +
+            "WHERE b.id = :id AND b.quantity + :quantity <= b.max")
+    int incrementQuantity(@Param("id") Long id, @Param("quantity") int quantity);
+
+    /**
+     * Subtracts the given quantity from the stock in a single guarded statement.
+     *
+     * @return the number of updated rows, 0 when the beer does not exist or the stock is insufficient
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Beer b SET b.quantity = b.quantity - :quantity, b.version = b.version + 1 " +
+            "WHERE b.id = :id AND b.quantity - :quantity >= 0")
+    int decrementQuantity(@Param("id") Long id, @Param("quantity") int quantity);
+
+    /**
+     * Same as {@link #incrementQuantity(Long, int)}, only applied while the beer is still at
+     * the given version.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Beer b SET b.quantity = b.quantity + :quantity, b.version = b.version + 1 " +
+            "WHERE b.id = :id AND b.version = :version AND b.quantity + :quantity <= b.max")
+    int incrementQuantityAtVersion(@Param("id") Long id, @Param("quantity") int quantity, @Param("version") Long version);
+
+    /**
+     * Same as {@link #decrementQuantity(Long, int)}, only applied while the beer is still at
+     * the given version.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Beer b SET b.quantity = b.quantity - :quantity, b.version = b.version + 1 " +
+            "WHERE b.id = :id AND b.version = :version AND b.quantity - :quantity >= 0")
+    int decrementQuantityAtVersion(@Param("id") Long id, @Param("quantity") int quantity, @Param("version") Long version);
+
+    /**
+     * Total stock units, beers at their max and beers whose stock is at least the given
+     * percentage of their max, in one scan.
+     */
+    @Query("SELECT new com.github.matheusmv.beerstock.dto.StockLevelsDTO(" +
+            "COALESCE(SUM(b.quantity), 0), " +
+            "COALESCE(SUM(CASE WHEN b.quantity >= b.max THEN 1 ELSE 0 END), 0), " +
+            "COALESCE(SUM(CASE WHEN b.quantity * 100 >= b.max * :percent THEN 1 ELSE 0 END), 0)) FROM Beer b")
+    StockLevelsDTO findStockLevels(@Param("percent") int nearMaxPercent);
 
-    Optional<Beer> findByName(String name);
+    /**
+     * Beers whose stock is below their reorder point or at least at their near max percentage,
+     * using the given defaults for the beers without their own thresholds.
+     */
+    @Query("SELECT b FROM Beer b LEFT JOIN StockThreshold t ON t.beerId = b.id " +
+            "WHERE b.quantity < COALESCE(t.reorderPoint, b.max * :reorderPercent / 100) " +
+            "OR b.quantity * 100 >= b.max * COALESCE(t.nearMaxPercent, :nearMaxPercent)")
+    List<Beer> findInStockAlert(@Param("reorderPercent") int reorderPercent,
+                                @Param("nearMaxPercent") int nearMaxPercent);
 }
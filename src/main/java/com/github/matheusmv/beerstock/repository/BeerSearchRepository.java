@@ -0,0 +1,15 @@
+package com.github.matheusmv.beerstock.repository;
+
+import com.github.matheusmv.beerstock.dto.BeerDTO;
+import com.github.matheusmv.beerstock.dto.BeerSearchCriteriaDTO;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+public interface BeerSearchRepository {
+
+    /**
+     * Page of the beers matching the criteria, selected straight into DTOs without loading
+     * the entities. The total is only counted when the page does not tell it already.
+     */
+    Page<BeerDTO> search(BeerSearchCriteriaDTO criteria, int nearMaxPercent, Pageable pageable);
+}
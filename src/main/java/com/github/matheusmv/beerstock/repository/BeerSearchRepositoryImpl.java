@@ -0,0 +1,133 @@
+package com.github.matheusmv.beerstock.repository;
+
+import com.github.matheusmv.beerstock.dto.BeerDTO;
+import com.github.matheusmv.beerstock.dto.BeerSearchCriteriaDTO;
+import com.github.matheusmv.beerstock.entity.Beer;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Criteria implementation of the beer search. Every filter is a plain comparison on an
+ * indexed column, or a {@code LIKE 'prefix%'} on one, except the name contains match and
+ * the near max ratio.
+ */
+class BeerSearchRepositoryImpl implements BeerSearchRepository {
+
+    private static final char LIKE_ESCAPE = '\\';
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<BeerDTO> search(BeerSearchCriteriaDTO criteria, int nearMaxPercent, Pageable pageable) {
+        var builder = entityManager.getCriteriaBuilder();
+        var query = builder.createQuery(BeerDTO.class);
+        var beer = query.from(Beer.class);
+
+        query.select(builder.construct(BeerDTO.class,
+                        beer.get("id"),
+                        beer.get("name"),
+                        beer.get("brand"),
+                        beer.get("max"),
+                        beer.get("quantity"),
+                        beer.get("type"),
+                        beer.get("version")))
+                .where(predicates(builder, beer, criteria, nearMaxPercent))
+                .orderBy(orders(builder, beer, pageable));
+
+        var content = entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(criteria, nearMaxPercent));
+    }
+
+    private long count(BeerSearchCriteriaDTO criteria, int nearMaxPercent) {
+        var builder = entityManager.getCriteriaBuilder();
+        var query = builder.createQuery(Long.class);
+        var beer = query.from(Beer.class);
+
+        query.select(builder.count(beer))
+                .where(predicates(builder, beer, criteria, nearMaxPercent));
+
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private static Predicate[] predicates(CriteriaBuilder builder, Root<Beer> beer,
+                                          BeerSearchCriteriaDTO criteria, int nearMaxPercent) {
+        var predicates = new ArrayList<Predicate>();
+
+        if (criteria.getType() != null) {
+            predicates.add(builder.equal(beer.get("type"), criteria.getType()));
+        }
+
+        if (criteria.getBrand() != null && !criteria.getBrand().isEmpty()) {
+            predicates.add(builder.like(beer.<String>get("brand"), escapeLike(criteria.getBrand()) + "%", LIKE_ESCAPE));
+        }
+
+        if (criteria.getName() != null && !criteria.getName().isEmpty()) {
+            var pattern = criteria.isNameContains()
+                    ? "%" + escapeLike(criteria.getName()) + "%"
+                    : escapeLike(criteria.getName()) + "%";
+
+            predicates.add(builder.like(beer.<String>get("name"), pattern, LIKE_ESCAPE));
+        }
+
+        if (criteria.getMinQuantity() != null) {
+            predicates.add(builder.greaterThanOrEqualTo(beer.<Integer>get("quantity"), criteria.getMinQuantity()));
+        }
+
+        if (criteria.getMaxQuantity() != null) {
+            predicates.add(builder.lessThanOrEqualTo(beer.<Integer>get("quantity"), criteria.getMaxQuantity()));
+        }
+
+        if (criteria.getInStock() != null) {
+            predicates.add(criteria.getInStock()
+                    ? builder.greaterThan(beer.<Integer>get("quantity"), 0)
+                    : builder.equal(beer.get("quantity"), 0));
+        }
+
+        if (criteria.getNearMax() != null) {
+            var quantityPercent = builder.prod(beer.<Integer>get("quantity"), 100);
+            var nearMaxQuantityPercent = builder.prod(beer.<Integer>get("max"), nearMaxPercent);
+
+            predicates.add(criteria.getNearMax()
+                    ? builder.ge(quantityPercent, nearMaxQuantityPercent)
+                    : builder.lt(quantityPercent, nearMaxQuantityPercent));
+        }
+
+        return predicates.toArray(Predicate[]::new);
+    }
+
+    private static List<Order> orders(CriteriaBuilder builder, Root<Beer> beer, Pageable pageable) {
+        var orders = new ArrayList<Order>();
+
+        pageable.getSort().forEach(order -> orders.add(order.isAscending()
+                ? builder.asc(beer.get(order.getProperty()))
+                : builder.desc(beer.get(order.getProperty()))));
+
+        // ties are broken by id so that pages never overlap
+        if (pageable.getSort().getOrderFor("id") == null) {
+            orders.add(builder.asc(beer.get("id")));
+        }
+
+        return orders;
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+    }
+}
@@ -0,0 +1,17 @@
+package com.github.matheusmv.beerstock.repository;
+
+import com.github.matheusmv.beerstock.entity.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Oldest events waiting to be relayed, in the order they were written.
+     */
+    List<OutboxEvent> findAllByOrderByIdAsc(Pageable pageable);
+}
@@ -0,0 +1,47 @@
+package com.github.matheusmv.beerstock.repository;
+
+import com.github.matheusmv.beerstock.entity.Beer;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * R2DBC access to the same beer table the JPA repository maps, used by the reactive stack.
+ */
+@Repository
+public interface ReactiveBeerRepository extends R2dbcRepository<Beer, Long> {
+
+    Mono<Beer> findByName(String name);
+
+    Flux<Beer> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    Flux<Beer> findAllBy(Pageable pageable);
+
+    Flux<Beer> findAllByOrderByIdAsc();
+
+    @Query("SELECT NEXT VALUE FOR beer_sequence")
+    Mono<Long> nextId();
+
+    /**
+     * Adds the given quantity to the stock in a single guarded statement.
+     *
+     * @return the number of updated rows, 0 when the beer does not exist or the max stock would be exceeded
+     */
+    @Modifying
+    @Query("UPDATE beer SET quantity = quantity + :quantity, version = version + 1 WHERE id = :id AND quantity + :quantity <= max")
+    Mono<Integer> incrementQuantity(@Param("id") Long id, @Param("quantity") int quantity);
+
+    /**
+     * Subtracts the given quantity from the stock in a single guarded statement.
+     *
+     * @return the number of updated rows, 0 when the beer does not exist or the stock is insufficient
+     */
+    @Modifying
+    @Query("UPDATE beer SET quantity = quantity - :quantity, version = version + 1 WHERE id = :id AND quantity - :quantity >= 0")
+    Mono<Integer> decrementQuantity(@Param("id") Long id, @Param("quantity") int quantity);
+}
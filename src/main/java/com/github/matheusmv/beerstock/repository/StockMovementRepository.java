@@ -0,0 +1,16 @@
+package com.github.matheusmv.beerstock.repository;
+
+import com.github.matheusmv.beerstock.entity.StockMovement;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface StockMovementRepository extends JpaRepository<StockMovement, Long> {
+
+    /**
+     * Movements of a beer, newest first, read through the (beer_id, moved_at) index.
+     */
+    Page<StockMovement> findByBeerIdOrderByMovedAtDescIdDesc(Long beerId, Pageable pageable);
+}
@@ -0,0 +1,44 @@
+package com.github.matheusmv.beerstock.repository;
+
+import com.github.matheusmv.beerstock.dto.BeerMovementRankDTO;
+import com.github.matheusmv.beerstock.entity.StockRollup;
+import com.github.matheusmv.beerstock.enums.BeerType;
+import com.github.matheusmv.beerstock.enums.RollupGranularity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface StockRollupRepository extends JpaRepository<StockRollup, Long> {
+
+    /**
+     * Buckets of a beer within {@code [from, to)}, read through the unique bucket index.
+     */
+    @Query("SELECT r FROM StockRollup r WHERE r.beerId = :beerId AND r.granularity = :granularity " +
+            "AND r.bucketStart >= :from AND r.bucketStart < :to ORDER BY r.bucketStart")
+    List<StockRollup> findSeries(@Param("beerId") Long beerId,
+                                 @Param("granularity") RollupGranularity granularity,
+                                 @Param("from") Instant from,
+                                 @Param("to") Instant to);
+
+    /**
+     * Beers with the most units decremented within {@code [from, to)}, optionally of one type.
+     */
+    @Query("SELECT new com.github.matheusmv.beerstock.dto.BeerMovementRankDTO(r.beerId, b.name, r.beerType, " +
+            "SUM(r.incremented), SUM(r.decremented)) " +
+            "FROM StockRollup r JOIN Beer b ON b.id = r.beerId " +
+            "WHERE r.granularity = :granularity AND r.bucketStart >= :from AND r.bucketStart < :to " +
+            "AND (:type IS NULL OR r.beerType = :type) " +
+            "GROUP BY r.beerId, b.name, r.beerType " +
+            "ORDER BY SUM(r.decremented) DESC, SUM(r.incremented) DESC")
+    List<BeerMovementRankDTO> findTopMoving(@Param("granularity") RollupGranularity granularity,
+                                            @Param("type") BeerType type,
+                                            @Param("from") Instant from,
+                                            @Param("to") Instant to,
+                                            Pageable pageable);
+}
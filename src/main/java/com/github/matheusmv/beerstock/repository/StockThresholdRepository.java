@@ -0,0 +1,9 @@
+package com.github.matheusmv.beerstock.repository;
+
+import com.github.matheusmv.beerstock.entity.StockThreshold;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface StockThresholdRepository extends JpaRepository<StockThreshold, Long> {
+}
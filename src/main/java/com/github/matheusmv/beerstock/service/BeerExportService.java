@@ -0,0 +1,111 @@
+package com.github.matheusmv.beerstock.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.matheusmv.beerstock.dto.BeerDTO;
+import com.github.matheusmv.beerstock.entity.Beer;
+import com.github.matheusmv.beerstock.mapper.BeerMapper;
+import com.github.matheusmv.beerstock.repository.BeerRepository;
+import jakarta.persistence.EntityManager;
+import lombok.AllArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes the whole catalog straight to an output stream, one beer at a time, so memory use
+ * does not grow with the size of the catalog. Entities are detached as soon as they are
+ * written and the output is flushed after the first row and after every fetched chunk.
+ */
+@Service
+@AllArgsConstructor(onConstructor = @__(@Autowired))
+public class BeerExportService {
+
+    public static final String CSV_HEADER = "id,name,brand,max,quantity,type";
+
+    private final BeerRepository beerRepository;
+    private final StockLedger stockLedger;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final BeerMapper beerMapper = BeerMapper.INSTANCE;
+
+    @Transactional(readOnly = true)
+    public void writeNdjson(OutputStream outputStream) throws IOException {
+        var writer = newWriter(outputStream);
+        var beerWriter = objectMapper.writerFor(BeerDTO.class);
+
+        export(writer, beerDTO -> {
+            writer.write(beerWriter.writeValueAsString(beerDTO));
+            writer.write('\n');
+        });
+    }
+
+    @Transactional(readOnly = true)
+    public void writeCsv(OutputStream outputStream) throws IOException {
+        var writer = newWriter(outputStream);
+
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+
+        export(writer, beerDTO -> {
+            writer.write(toCsvLine(beerDTO));
+            writer.write('\n');
+        });
+    }
+
+    /**
+     * Formats a beer as one CSV line, without the line break, in the {@link #CSV_HEADER} order.
+     */
+    public static String toCsvLine(BeerDTO beerDTO) {
+        return beerDTO.getId() + "," + escapeCsv(beerDTO.getName()) + "," + escapeCsv(beerDTO.getBrand()) + ","
+                + beerDTO.getMax() + "," + beerDTO.getQuantity() + "," + beerDTO.getType().name();
+    }
+
+    private void export(Writer writer, RowWriter rowWriter) throws IOException {
+        try (var beers = beerRepository.streamAll()) {
+            var rows = 0;
+            var iterator = beers.iterator();
+
+            while (iterator.hasNext()) {
+                rowWriter.write(toDTO(iterator.next()));
+
+                if (rows++ % BeerRepository.EXPORT_FETCH_SIZE == 0) {
+                    writer.flush();
+                }
+            }
+        }
+
+        writer.flush();
+    }
+
+    private BeerDTO toDTO(Beer beer) {
+        var beerDTO = beerMapper.toDTO(beer);
+        entityManager.detach(beer);
+
+        return stockLedger.isEnabled() ? stockLedger.overlay(beerDTO) : beerDTO;
+    }
+
+    private Writer newWriter(OutputStream outputStream) {
+        return new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+    }
+
+    private static String escapeCsv(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+
+        void write(BeerDTO beerDTO) throws IOException;
+    }
+}
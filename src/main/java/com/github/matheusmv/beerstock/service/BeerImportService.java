@@ -0,0 +1,303 @@
+package com.github.matheusmv.beerstock.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.github.matheusmv.beerstock.config.BeerstockProperties;
+import com.github.matheusmv.beerstock.dto.BeerDTO;
+import com.github.matheusmv.beerstock.dto.BeerImportResponseDTO;
+import com.github.matheusmv.beerstock.dto.BeerImportResultDTO;
+import com.github.matheusmv.beerstock.dto.BeerSuggestionDTO;
+import com.github.matheusmv.beerstock.dto.StockChangeEventDTO;
+import com.github.matheusmv.beerstock.entity.Beer;
+import com.github.matheusmv.beerstock.enums.BeerImportStatus;
+import com.github.matheusmv.beerstock.enums.StockChangeKind;
+import com.github.matheusmv.beerstock.mapper.BeerMapper;
+import com.github.matheusmv.beerstock.repository.BeerRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validator;
+import lombok.AllArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Imports a catalog in chunks: each chunk is validated, checked for duplicates with a single
+ * name query and inserted in one transaction, which Hibernate sends as JDBC batches thanks to
+ * the pooled id sequence. Every row gets its own outcome in the response.
+ * <p>
+ * Like a single creation, every imported beer publishes a creation event in the transaction
+ * that inserts it, so its outbox row commits along with it.
+ */
+@Service
+@AllArgsConstructor(onConstructor = @__(@Autowired))
+public class BeerImportService {
+
+    private static final String UNIQUE_VIOLATION_SQL_STATE = "23505";
+
+    private final BeerRepository beerRepository;
+    private final BeerNameIndex beerNameIndex;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final BeerstockProperties beerstockProperties;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BeerMapper beerMapper = BeerMapper.INSTANCE;
+
+    public BeerImportResponseDTO importBeers(List<BeerDTO> beers) {
+        var catalogImport = new CatalogImport();
+
+        for (int index = 0; index < beers.size(); index++) {
+            catalogImport.add(new ImportRow(index, beers.get(index), null));
+        }
+
+        return catalogImport.finish();
+    }
+
+    /**
+     * Imports newline-delimited JSON, one beer per line, without reading the whole body first.
+     * Lines that cannot be parsed are reported as invalid and do not stop the import.
+     */
+    public BeerImportResponseDTO importNdjson(InputStream inputStream) throws IOException {
+        var catalogImport = new CatalogImport();
+        var beerReader = objectMapper.readerFor(BeerDTO.class);
+
+        try (var reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+            var index = 0;
+            String line;
+
+            while ((line = reader.readLine()) != null) {
+                if (!line.isBlank()) {
+                    catalogImport.add(parse(beerReader, index, line));
+                }
+
+                index++;
+            }
+        }
+
+        return catalogImport.finish();
+    }
+
+    private ImportRow parse(ObjectReader beerReader, int index, String line) {
+        try {
+            return new ImportRow(index, beerReader.readValue(line), null);
+        } catch (JsonProcessingException exception) {
+            return new ImportRow(index, null, exception.getOriginalMessage());
+        }
+    }
+
+    private void importChunk(List<ImportRow> chunk) {
+        var candidates = new LinkedHashMap<String, ImportRow>();
+
+        for (var row : chunk) {
+            if (row.error != null) {
+                row.result = invalid(row, row.error);
+                continue;
+            }
+
+            if (row.beer == null) {
+                row.result = invalid(row, "beer must not be null");
+                continue;
+            }
+
+            var violations = validator.validate(row.beer);
+
+            if (!violations.isEmpty()) {
+                var message = violations.stream()
+                        .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining(", "));
+
+                row.result = invalid(row, message);
+            } else if (candidates.putIfAbsent(row.beer.getName(), row) != null) {
+                row.result = duplicate(row);
+            }
+        }
+
+        if (candidates.isEmpty()) {
+            return;
+        }
+
+        for (var registeredName : beerRepository.findNamesIn(candidates.keySet())) {
+            var row = candidates.remove(registeredName);
+            row.result = duplicate(row);
+        }
+
+        try {
+            insertAll(new ArrayList<>(candidates.values()));
+        } catch (DataIntegrityViolationException exception) {
+            // a concurrent create took one of the names, or a row broke another constraint:
+            // fall back to one insert per row to tell which
+            candidates.values().forEach(this::insert);
+        }
+    }
+
+    private void insertAll(List<ImportRow> rows) {
+        var savedBeers = transactionTemplate.execute(status -> {
+            var beers = rows.stream()
+                    .map(this::toModel)
+                    .collect(Collectors.toList());
+            var saved = beerRepository.saveAll(beers);
+
+            beerRepository.flush();
+            entityManager.clear();
+            saved.forEach(this::publishCreated);
+
+            return saved;
+        });
+
+        for (int i = 0; i < rows.size(); i++) {
+            rows.get(i).result = created(rows.get(i), savedBeers.get(i));
+        }
+
+        savedBeers.forEach(this::addToNameIndex);
+    }
+
+    private void insert(ImportRow row) {
+        try {
+            var savedBeer = transactionTemplate.execute(status -> {
+                var saved = beerRepository.saveAndFlush(toModel(row));
+                publishCreated(saved);
+
+                return saved;
+            });
+
+            row.result = created(row, savedBeer);
+            addToNameIndex(savedBeer);
+        } catch (DataIntegrityViolationException exception) {
+            row.result = isUniqueViolation(exception)
+                    ? duplicate(row)
+                    : invalid(row, "beer breaks a constraint of the catalog");
+        }
+    }
+
+    /**
+     * The name is the only unique column a row can collide on, the id coming from the sequence.
+     */
+    private boolean isUniqueViolation(DataIntegrityViolationException exception) {
+        return exception.getMostSpecificCause() instanceof SQLException sqlException
+                && UNIQUE_VIOLATION_SQL_STATE.equals(sqlException.getSQLState());
+    }
+
+    private void publishCreated(Beer beer) {
+        eventPublisher.publishEvent(StockChangeEventDTO.builder()
+                .kind(StockChangeKind.CREATED)
+                .id(beer.getId())
+                .name(beer.getName())
+                .type(beer.getType())
+                .max(beer.getMax())
+                .oldQuantity(0)
+                .newQuantity(beer.getQuantity())
+                .version(beer.getVersion())
+                .timestamp(Instant.now())
+                .build());
+    }
+
+    private void addToNameIndex(Beer beer) {
+        beerNameIndex.add(new BeerSuggestionDTO(beer.getId(), beer.getName(), beer.getBrand()));
+    }
+
+    private Beer toModel(ImportRow row) {
+        var beer = beerMapper.toModel(row.beer);
+        beer.setId(null);
+
+        return beer;
+    }
+
+    private BeerImportResultDTO created(ImportRow row, Beer beer) {
+        return result(row, BeerImportStatus.CREATED)
+                .id(beer.getId())
+                .build();
+    }
+
+    private BeerImportResultDTO duplicate(ImportRow row) {
+        return result(row, BeerImportStatus.DUPLICATE)
+                .message(String.format("Beer with name %s already registered in the system.", row.beer.getName()))
+                .build();
+    }
+
+    private BeerImportResultDTO invalid(ImportRow row, String message) {
+        return result(row, BeerImportStatus.INVALID)
+                .message(message)
+                .build();
+    }
+
+    private BeerImportResultDTO.BeerImportResultDTOBuilder result(ImportRow row, BeerImportStatus status) {
+        return BeerImportResultDTO.builder()
+                .index(row.index)
+                .name(row.beer != null ? row.beer.getName() : null)
+                .status(status);
+    }
+
+    private class CatalogImport {
+
+        private final int chunkSize = beerstockProperties.getCatalogImport().getChunkSize();
+        private final List<ImportRow> chunk = new ArrayList<>(chunkSize);
+        private final List<BeerImportResultDTO> results = new ArrayList<>();
+
+        private void add(ImportRow row) {
+            chunk.add(row);
+
+            if (chunk.size() >= chunkSize) {
+                flushChunk();
+            }
+        }
+
+        private BeerImportResponseDTO finish() {
+            flushChunk();
+
+            return BeerImportResponseDTO.builder()
+                    .created(count(BeerImportStatus.CREATED))
+                    .duplicates(count(BeerImportStatus.DUPLICATE))
+                    .invalid(count(BeerImportStatus.INVALID))
+                    .results(results)
+                    .build();
+        }
+
+        private void flushChunk() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+
+            importChunk(chunk);
+            chunk.forEach(row -> results.add(row.result));
+            chunk.clear();
+        }
+
+        private long count(BeerImportStatus status) {
+            return results.stream()
+                    .filter(result -> result.getStatus() == status)
+                    .count();
+        }
+    }
+
+    private static class ImportRow {
+
+        private final int index;
+        private final BeerDTO beer;
+        private final String error;
+
+        private BeerImportResultDTO result;
+
+        private ImportRow(int index, BeerDTO beer, String error) {
+            this.index = index;
+            this.beer = beer;
+            this.error = error;
+        }
+    }
+}
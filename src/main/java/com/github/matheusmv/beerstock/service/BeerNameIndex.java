@@ -0,0 +1,197 @@
+package com.github.matheusmv.beerstock.service;
+
+import com.github.matheusmv.beerstock.config.BeerstockProperties;
+import com.github.matheusmv.beerstock.dto.BeerSuggestionDTO;
+import com.github.matheusmv.beerstock.repository.BeerRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory prefix index over the words of beer names and brands, for typeahead.
+ * <p>
+ * Words are folded to lower case without accents and kept in a sorted map to the ids of the
+ * beers that contain them, so every word starting with a prefix is one contiguous range of
+ * the map. A query matches the beers having, for each of its words, a word that starts with
+ * it; the range of its longest word is walked in order until enough beers are found, so a
+ * lookup costs about the number of suggestions rather than the size of the catalog.
+ * <p>
+ * The index is built from the database on startup; the services that create and delete beers
+ * add and remove them once the change is committed. Lookups never block, changes are
+ * applied one at a time.
+ */
+@Slf4j
+@Component
+public class BeerNameIndex {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern WORD_SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final BeerRepository beerRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final BeerstockProperties.Autocomplete properties;
+
+    private final ConcurrentSkipListMap<String, NavigableSet<Long>> beersByWord = new ConcurrentSkipListMap<>();
+    private final ConcurrentMap<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final Lock writeLock = new ReentrantLock();
+
+    public BeerNameIndex(BeerRepository beerRepository,
+                         TransactionTemplate transactionTemplate,
+                         BeerstockProperties beerstockProperties) {
+        this.beerRepository = beerRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = beerstockProperties.getAutocomplete();
+    }
+
+    @PostConstruct
+    public void build() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            try (var beers = beerRepository.streamSuggestions()) {
+                beers.forEach(this::add);
+            }
+        });
+
+        log.info("Beer name index built with {} beers and {} words", entries.size(), beersByWord.size());
+    }
+
+    public void add(BeerSuggestionDTO beer) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+
+        var words = new HashSet<>(words(beer.getName()));
+        words.addAll(words(beer.getBrand()));
+
+        var entry = new Entry(beer, words.toArray(String[]::new));
+
+        writeLock.lock();
+        try {
+            var previous = entries.put(beer.getId(), entry);
+
+            if (previous != null) {
+                unlink(beer.getId(), previous);
+            }
+
+            for (var word : entry.words()) {
+                beersByWord.computeIfAbsent(word, key -> new ConcurrentSkipListSet<>()).add(beer.getId());
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        writeLock.lock();
+        try {
+            var entry = entries.remove(id);
+
+            if (entry != null) {
+                unlink(id, entry);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Beers matching every word of the query, ordered by their word that the longest query
+     * word is a prefix of, then by id. The limit is clamped to the configured max.
+     */
+    public List<BeerSuggestionDTO> suggest(String query, Integer limit) {
+        var queryWords = words(query);
+        var maxSuggestions = Math.min(Math.max(limit != null ? limit : properties.getMaxSuggestions(), 1),
+                properties.getMaxSuggestions());
+        var suggestions = new ArrayList<BeerSuggestionDTO>(maxSuggestions);
+
+        if (queryWords.isEmpty()) {
+            return suggestions;
+        }
+
+        var leadingWord = queryWords.stream()
+                .max((first, second) -> Integer.compare(first.length(), second.length()))
+                .get();
+        var seen = new HashSet<Long>();
+
+        for (var ids : beersByWord.subMap(leadingWord, true, leadingWord + Character.MAX_VALUE, false).values()) {
+            for (var id : ids) {
+                var entry = entries.get(id);
+
+                if (entry != null && seen.add(id) && entry.matches(queryWords)) {
+                    suggestions.add(entry.beer());
+
+                    if (suggestions.size() == maxSuggestions) {
+                        return suggestions;
+                    }
+                }
+            }
+        }
+
+        return suggestions;
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private void unlink(Long id, Entry entry) {
+        for (var word : entry.words()) {
+            beersByWord.computeIfPresent(word, (key, ids) -> {
+                ids.remove(id);
+
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+    }
+
+    /**
+     * Lower case words of a text, with accents removed after a canonical decomposition, so
+     * "Sao Jorge" matches the same beers as its accented spelling.
+     */
+    static List<String> words(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+
+        var folded = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD))
+                .replaceAll("")
+                .toLowerCase(Locale.ROOT);
+
+        return Arrays.stream(WORD_SEPARATORS.split(folded))
+                .filter(word -> !word.isEmpty())
+                .distinct()
+                .toList();
+    }
+
+    private record Entry(BeerSuggestionDTO beer, String[] words) {
+
+        private boolean matches(List<String> queryWords) {
+            for (var queryWord : queryWords) {
+                if (Arrays.stream(words).noneMatch(word -> word.startsWith(queryWord))) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+    }
+}
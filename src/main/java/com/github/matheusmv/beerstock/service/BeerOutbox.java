@@ -0,0 +1,260 @@
+package com.github.matheusmv.beerstock.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.matheusmv.beerstock.config.BeerstockProperties;
+import com.github.matheusmv.beerstock.dto.OutboxEventDTO;
+import com.github.matheusmv.beerstock.dto.StockChangeEventDTO;
+import com.github.matheusmv.beerstock.entity.OutboxEvent;
+import com.github.matheusmv.beerstock.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.web.reactive.context.ReactiveWebApplicationContext;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.UncheckedIOException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Transactional outbox of beer changes for the downstream consumers.
+ * <p>
+ * Every creation, deletion and stock change published by the beer service is inserted in the
+ * outbox_event table by a synchronous listener, so the row commits or rolls back along with
+ * the change and no request waits on the consumers. A background relay reads the oldest rows
+ * every poll interval, hands them to the {@link OutboxSink} and deletes them once the sink
+ * returns: delivery is at least once, a batch the sink failed on being handed over again on
+ * the next cycle.
+ * <p>
+ * Events of a beer reach the sink in the order of their ids. The stock updates of a beer lock
+ * its row until they commit, so its outbox rows are inserted and committed in that order; a
+ * row of another beer committing late is relayed in a later batch. The relay assumes a single
+ * instance drains the table.
+ * <p>
+ * The outbox cannot be enabled along with the stock ledger: the ledger applies a change in
+ * memory outside the transaction, which keeps it when the outbox row rolls back, so the
+ * consumers would miss it. Starting with both enabled fails.
+ * <p>
+ * Nor can it be enabled in a reactive web application: the listener inserts the row through
+ * a blocking JDBC call that takes no part in the R2DBC transaction of the change, so it would
+ * block an event loop thread and could keep the event of a change that rolled back. Starting
+ * with the outbox enabled under the reactive stack fails.
+ */
+@Slf4j
+@Component
+public class BeerOutbox {
+
+    private static final String INSERT_EVENT_SQL =
+            "INSERT INTO outbox_event (beer_id, kind, payload, created_at) VALUES (?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxSink outboxSink;
+    private final ObjectMapper objectMapper;
+    private final BeerstockProperties.Outbox properties;
+    private final BeerstockProperties.Ledger ledgerProperties;
+    private final boolean reactive;
+    private final Counter publishedEvents;
+    private final Counter failedBatches;
+    private final Timer deliveryLag;
+
+    private final AtomicLong pendingEvents = new AtomicLong();
+    private final Lock relayLock = new ReentrantLock();
+
+    private volatile Instant oldestPendingEvent;
+    private ScheduledExecutorService relay;
+
+    public BeerOutbox(JdbcTemplate jdbcTemplate,
+                      OutboxEventRepository outboxEventRepository,
+                      OutboxSink outboxSink,
+                      ObjectMapper objectMapper,
+                      BeerstockProperties beerstockProperties,
+                      MeterRegistry meterRegistry,
+                      ApplicationContext applicationContext) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.outboxEventRepository = outboxEventRepository;
+        this.outboxSink = outboxSink;
+        this.objectMapper = objectMapper;
+        this.properties = beerstockProperties.getOutbox();
+        this.ledgerProperties = beerstockProperties.getLedger();
+        this.reactive = applicationContext instanceof ReactiveWebApplicationContext;
+        this.publishedEvents = Counter.builder("beerstock.outbox.published")
+                .description("Outbox events accepted by the sink")
+                .register(meterRegistry);
+        this.failedBatches = Counter.builder("beerstock.outbox.failures")
+                .description("Outbox batches the sink failed on, to be retried")
+                .register(meterRegistry);
+        this.deliveryLag = Timer.builder("beerstock.outbox.delivery")
+                .description("Time from the change being written to the outbox to its acceptance by the sink")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+
+        Gauge.builder("beerstock.outbox.pending", pendingEvents, AtomicLong::get)
+                .description("Outbox events the last relay cycle left waiting, up to one batch")
+                .register(meterRegistry);
+        Gauge.builder("beerstock.outbox.lag", this, BeerOutbox::getLagSeconds)
+                .description("Age of the oldest outbox event waiting to be relayed")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+
+        if (ledgerProperties.isEnabled()) {
+            throw new IllegalStateException("beerstock.outbox.enabled cannot be combined with beerstock.ledger.enabled, "
+                    + "a change kept by the ledger could lose its outbox event on rollback");
+        }
+
+        if (reactive) {
+            throw new IllegalStateException("beerstock.outbox.enabled cannot be combined with the reactive stack, "
+                    + "the outbox writes through blocking JDBC outside the R2DBC transaction of the change");
+        }
+
+        relay = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            var thread = new Thread(runnable, "outbox-relay");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        var interval = properties.getPollInterval().toMillis();
+        relay.scheduleWithFixedDelay(this::relayQuietly, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (relay == null) {
+            return;
+        }
+
+        relay.shutdown();
+        relay.awaitTermination(properties.getShutdownTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        relayQuietly();
+    }
+
+    /**
+     * Runs in the transaction publishing the change, if any, so the row is only visible to the
+     * relay once the change commits.
+     */
+    @EventListener
+    public void onStockChange(StockChangeEventDTO event) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+
+        try {
+            jdbcTemplate.update(INSERT_EVENT_SQL,
+                    event.getId(),
+                    event.getKind().name(),
+                    objectMapper.writeValueAsString(event),
+                    Timestamp.from(event.getTimestamp()));
+        } catch (JsonProcessingException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    /**
+     * Hands every committed event to the sink, one batch at a time, stopping at the first batch
+     * the sink fails on. Returns the number of events relayed.
+     * <p>
+     * The backlog gauges are derived from the batches read, without querying the table: a cycle
+     * draining it leaves nothing pending, one stopping at a batch leaves that batch pending.
+     */
+    public int relay() {
+        relayLock.lock();
+        List<OutboxEvent> pending = null;
+        try {
+            var relayed = 0;
+            List<OutboxEvent> batch;
+
+            do {
+                pending = null;
+                batch = outboxEventRepository.findAllByOrderByIdAsc(PageRequest.of(0, properties.getBatchSize()));
+                pending = batch;
+
+                if (batch.isEmpty()) {
+                    break;
+                }
+
+                try {
+                    outboxSink.publish(batch.stream().map(this::toDTO).collect(Collectors.toList()));
+                } catch (RuntimeException exception) {
+                    failedBatches.increment();
+                    throw exception;
+                }
+
+                // deleted by id: a row with a lower id may still be about to commit
+                outboxEventRepository.deleteAllByIdInBatch(batch.stream().map(OutboxEvent::getId).collect(Collectors.toList()));
+                pending = List.of();
+
+                var acceptedAt = Instant.now();
+                batch.forEach(event -> deliveryLag.record(Duration.between(event.getCreatedAt(), acceptedAt)));
+                publishedEvents.increment(batch.size());
+                relayed += batch.size();
+            } while (batch.size() == properties.getBatchSize());
+
+            return relayed;
+        } finally {
+            // left as is when the table could not be read
+            if (pending != null) {
+                updateBacklog(pending);
+            }
+
+            relayLock.unlock();
+        }
+    }
+
+    double getLagSeconds() {
+        var oldest = oldestPendingEvent;
+
+        return oldest == null ? 0 : Math.max(Duration.between(oldest, Instant.now()).toMillis(), 0) / 1000.0;
+    }
+
+    private void relayQuietly() {
+        try {
+            relay();
+        } catch (RuntimeException exception) {
+            log.warn("Outbox relay failed, the batch will be retried on the next cycle", exception);
+        }
+    }
+
+    private void updateBacklog(List<OutboxEvent> pending) {
+        pendingEvents.set(pending.size());
+        oldestPendingEvent = pending.stream()
+                .map(OutboxEvent::getCreatedAt)
+                .min(Comparator.naturalOrder())
+                .orElse(null);
+    }
+
+    private OutboxEventDTO toDTO(OutboxEvent event) {
+        return OutboxEventDTO.builder()
+                .sequence(event.getId())
+                .beerId(event.getBeerId())
+                .kind(event.getKind())
+                .payload(event.getPayload())
+                .createdAt(event.getCreatedAt())
+                .build();
+    }
+}
@@ -1,18 +1,53 @@
 package com.github.matheusmv.beerstock.service;
 
+import com.github.matheusmv.beerstock.config.BeerstockProperties;
+import com.github.matheusmv.beerstock.config.CacheConfig;
 import com.github.matheusmv.beerstock.dto.BeerDTO;
+import com.github.matheusmv.beerstock.dto.BeerSearchCriteriaDTO;
+import com.github.matheusmv.beerstock.dto.BeerSuggestionDTO;
+import com.github.matheusmv.beerstock.dto.BeerVersionDTO;
+import com.github.matheusmv.beerstock.dto.BulkStockResponseDTO;
+import com.github.matheusmv.beerstock.dto.CursorPageDTO;
+import com.github.matheusmv.beerstock.dto.PageDTO;
+import com.github.matheusmv.beerstock.dto.StockChangeEventDTO;
+import com.github.matheusmv.beerstock.dto.StockOperationDTO;
+import com.github.matheusmv.beerstock.dto.StockOperationResultDTO;
 import com.github.matheusmv.beerstock.entity.Beer;
+import com.github.matheusmv.beerstock.enums.BeerSortField;
+import com.github.matheusmv.beerstock.enums.BulkMode;
+import com.github.matheusmv.beerstock.enums.StockChangeKind;
+import com.github.matheusmv.beerstock.enums.StockOperationStatus;
 import com.github.matheusmv.beerstock.exception.BeerAlreadyRegisteredException;
 import com.github.matheusmv.beerstock.exception.BeerNotFoundException;
 import com.github.matheusmv.beerstock.exception.BeerStockExceededException;
 import com.github.matheusmv.beerstock.exception.BeerStockInsufficientException;
+import com.github.matheusmv.beerstock.exception.BeerVersionMismatchException;
 import com.github.matheusmv.beerstock.mapper.BeerMapper;
 import com.github.matheusmv.beerstock.repository.BeerRepository;
+import com.github.matheusmv.beerstock.repository.StockThresholdRepository;
 import lombok.AllArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
@@ -20,42 +55,144 @@ import java.util.stream.Collectors;
 public class BeerService {
 
     private final BeerRepository beerRepository;
+    private final StockThresholdRepository stockThresholdRepository;
+    private final StockLedger stockLedger;
+    private final BeerNameIndex beerNameIndex;
+    private final BeerstockProperties beerstockProperties;
+    private final CacheManager cacheManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
     private final BeerMapper beerMapper = BeerMapper.INSTANCE;
 
+    /**
+     * Like every change of this service not applied by the stock ledger, runs in a transaction,
+     * which the outbox row of the change joins.
+     */
+    @Transactional
+    @CachePut(cacheNames = CacheConfig.BEERS_CACHE, key = "#result.name")
     public BeerDTO createBeer(BeerDTO beerDTO) {
-        verifyIfIsAlreadyRegistered(beerDTO.getName());
-
         var beer = beerMapper.toModel(beerDTO);
-        var savedBeer = beerRepository.save(beer);
 
-        return beerMapper.toDTO(savedBeer);
+        try {
+            var savedBeer = beerMapper.toDTO(beerRepository.saveAndFlush(beer));
+            publishStockChange(StockChangeKind.CREATED, savedBeer, 0, savedBeer.getQuantity());
+            runAfterCommit(() -> beerNameIndex.add(
+                    new BeerSuggestionDTO(savedBeer.getId(), savedBeer.getName(), savedBeer.getBrand())));
+
+            return savedBeer;
+        } catch (DataIntegrityViolationException exception) {
+            // a validated beer can only break the unique constraint on its name
+            throw new BeerAlreadyRegisteredException(beerDTO.getName());
+        }
     }
 
+    /**
+     * Like every read of this service, runs in a read-only transaction, for which Spring sets
+     * the Hibernate flush mode to MANUAL, and selects the DTO straight from the query.
+     */
+    @Cacheable(cacheNames = CacheConfig.BEERS_CACHE, key = "#name")
+    @Transactional(readOnly = true)
     public BeerDTO findByName(String name) {
-        return beerRepository.findByName(name)
-                .map(beerMapper::toDTO)
+        return beerRepository.findDTOByName(name)
+                .map(this::overlay)
                 .orElseThrow(() -> new BeerNotFoundException(name));
     }
 
+    /**
+     * Id and current version of a beer, without loading it.
+     */
+    @Transactional(readOnly = true)
+    public Optional<BeerVersionDTO> findVersion(String name) {
+        var version = beerRepository.findVersionByName(name);
+
+        if (stockLedger.isEnabled()) {
+            version.ifPresent(beer -> stockLedger.findVersion(beer.getId()).ifPresent(beer::setVersion));
+        }
+
+        return version;
+    }
+
+    @Transactional(readOnly = true)
     public List<BeerDTO> listAll() {
-        return beerRepository.findAll()
+        return beerRepository.findAllDTOs()
                 .stream()
-                .map(beerMapper::toDTO)
+                .map(this::overlay)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Returns the page of beers following the given cursor, ordered by id.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDTO<BeerDTO> listAfter(String cursor, Integer size) {
+        var pageSize = beerstockProperties.getPagination().resolveSize(size);
+        var beers = beerRepository.findDTOsAfter(PageCursors.decode(cursor), PageRequest.of(0, pageSize + 1));
+        var hasNext = beers.size() > pageSize;
+        var content = beers.stream()
+                .limit(pageSize)
+                .map(this::overlay)
+                .collect(Collectors.toList());
+
+        return CursorPageDTO.<BeerDTO>builder()
+                .content(content)
+                .size(pageSize)
+                .nextCursor(hasNext ? PageCursors.encode(content.get(pageSize - 1).getId()) : null)
+                .build();
+    }
+
+    @Transactional(readOnly = true)
+    public PageDTO<BeerDTO> listPage(int page, Integer size) {
+        var pageRequest = PageRequest.of(Math.max(page, 0), beerstockProperties.getPagination().resolveSize(size), Sort.by("id"));
+        var beers = beerRepository.findAllDTOs(pageRequest).map(this::overlay);
+
+        return PageDTO.<BeerDTO>builder()
+                .content(beers.getContent())
+                .page(beers.getNumber())
+                .size(beers.getSize())
+                .totalElements(beers.getTotalElements())
+                .totalPages(beers.getTotalPages())
+                .build();
+    }
+
+    /**
+     * Page of the beers matching the criteria, ordered by the given field and then by id. With
+     * the ledger enabled the filters see the stock as of its last flush, while the returned
+     * beers carry the current stock.
+     */
+    @Transactional(readOnly = true)
+    public PageDTO<BeerDTO> search(BeerSearchCriteriaDTO criteria, int page, Integer size,
+                                   BeerSortField sort, Sort.Direction direction) {
+        var pageRequest = PageRequest.of(Math.max(page, 0), beerstockProperties.getPagination().resolveSize(size),
+                Sort.by(direction, sort.getProperty()));
+        var beers = beerRepository.search(criteria, beerstockProperties.getMetrics().getNearMaxPercent(), pageRequest)
+                .map(this::overlay);
+
+        return PageDTO.<BeerDTO>builder()
+                .content(beers.getContent())
+                .page(beers.getNumber())
+                .size(beers.getSize())
+                .totalElements(beers.getTotalElements())
+                .totalPages(beers.getTotalPages())
+                .build();
+    }
+
+    @Transactional
     public void deleteById(Long id) {
-        verifyIfExists(id);
+        var beerToDelete = toDTO(verifyIfExists(id));
 
         beerRepository.deleteById(id);
-    }
+        stockThresholdRepository.deleteById(id);
+        publishStockChange(StockChangeKind.DELETED, beerToDelete, beerToDelete.getQuantity(), 0);
 
-    private void verifyIfIsAlreadyRegistered(String name) {
-        var beer = beerRepository.findByName(name);
+        runAfterCommit(() -> {
+            beerNameIndex.remove(id);
 
-        if (beer.isPresent()) {
-            throw new BeerAlreadyRegisteredException(name);
-        }
+            if (stockLedger.isEnabled()) {
+                stockLedger.evict(id);
+            }
+
+            withBeersCache(cache -> cache.evict(beerToDelete.getName()));
+        });
     }
 
     private Beer verifyIfExists(Long id) {
@@ -63,33 +200,226 @@ public class BeerService {
                 .orElseThrow(() -> new BeerNotFoundException(id));
     }
 
+    @CachePut(cacheNames = CacheConfig.BEERS_CACHE, key = "#result.name")
     public BeerDTO increment(Long id, int quantityToIncrement) {
-        var beerToIncrementStock = verifyIfExists(id);
-        var quantityAfterIncrement = quantityToIncrement + beerToIncrementStock.getQuantity();
+        return increment(id, quantityToIncrement, null);
+    }
+
+    /**
+     * Increments the stock only while the beer is still at the expected version, or unconditionally
+     * when no version is expected.
+     */
+    @CachePut(cacheNames = CacheConfig.BEERS_CACHE, key = "#result.name")
+    public BeerDTO increment(Long id, int quantityToIncrement, Long expectedVersion) {
+        return inStockTransaction(() -> {
+            var incrementedBeer = incrementStock(id, quantityToIncrement, expectedVersion);
+            publishStockChange(StockChangeKind.INCREMENTED, incrementedBeer,
+                    incrementedBeer.getQuantity() - quantityToIncrement, incrementedBeer.getQuantity());
+
+            return incrementedBeer;
+        });
+    }
+
+    private BeerDTO incrementStock(Long id, int quantityToIncrement, Long expectedVersion) {
+        if (stockLedger.isEnabled()) {
+            return stockLedger.increment(id, quantityToIncrement, expectedVersion);
+        }
 
-        if (quantityAfterIncrement <= beerToIncrementStock.getMax()) {
-            beerToIncrementStock.setQuantity(quantityAfterIncrement);
+        var updatedRows = expectedVersion != null
+                ? beerRepository.incrementQuantityAtVersion(id, quantityToIncrement, expectedVersion)
+                : beerRepository.incrementQuantity(id, quantityToIncrement);
 
-            var incrementedBeerStock = beerRepository.save(beerToIncrementStock);
+        if (updatedRows == 0) {
+            verifyVersion(verifyIfExists(id), expectedVersion);
 
-            return beerMapper.toDTO(incrementedBeerStock);
+            throw new BeerStockExceededException(id, quantityToIncrement);
         }
 
-        throw new BeerStockExceededException(id, quantityToIncrement);
+        return beerMapper.toDTO(verifyIfExists(id));
     }
 
+    @CachePut(cacheNames = CacheConfig.BEERS_CACHE, key = "#result.name")
     public BeerDTO decrement(Long id, int quantityToDecrement) {
-        var beerToDecrementStock = verifyIfExists(id);
-        var quantityAfterDecrement = beerToDecrementStock.getQuantity() - quantityToDecrement;
+        return decrement(id, quantityToDecrement, null);
+    }
+
+    /**
+     * Decrements the stock only while the beer is still at the expected version, or unconditionally
+     * when no version is expected.
+     */
+    @CachePut(cacheNames = CacheConfig.BEERS_CACHE, key = "#result.name")
+    public BeerDTO decrement(Long id, int quantityToDecrement, Long expectedVersion) {
+        return inStockTransaction(() -> {
+            var decrementedBeer = decrementStock(id, quantityToDecrement, expectedVersion);
+            publishStockChange(StockChangeKind.DECREMENTED, decrementedBeer,
+                    decrementedBeer.getQuantity() + quantityToDecrement, decrementedBeer.getQuantity());
 
-        if (quantityAfterDecrement >= 0) {
-            beerToDecrementStock.setQuantity(quantityAfterDecrement);
+            return decrementedBeer;
+        });
+    }
+
+    private BeerDTO decrementStock(Long id, int quantityToDecrement, Long expectedVersion) {
+        if (stockLedger.isEnabled()) {
+            return stockLedger.decrement(id, quantityToDecrement, expectedVersion);
+        }
+
+        var updatedRows = expectedVersion != null
+                ? beerRepository.decrementQuantityAtVersion(id, quantityToDecrement, expectedVersion)
+                : beerRepository.decrementQuantity(id, quantityToDecrement);
+
+        if (updatedRows == 0) {
+            verifyVersion(verifyIfExists(id), expectedVersion);
 
-            var decrementedBeerStock = beerRepository.save(beerToDecrementStock);
+            throw new BeerStockInsufficientException(id, quantityToDecrement);
+        }
+
+        return beerMapper.toDTO(verifyIfExists(id));
+    }
 
-            return beerMapper.toDTO(decrementedBeerStock);
+    private void verifyVersion(Beer beer, Long expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(beer.getVersion())) {
+            throw new BeerVersionMismatchException(beer.getId());
         }
+    }
+
+    /**
+     * Applies every operation in one transaction. The touched beers are loaded and locked with
+     * a single query and the resulting updates are sent as one JDBC batch on commit.
+     */
+    public BulkStockResponseDTO adjustStock(List<StockOperationDTO> operations, BulkMode mode) {
+        return inStockTransaction(() -> adjustStockOf(operations, mode));
+    }
+
+    private BulkStockResponseDTO adjustStockOf(List<StockOperationDTO> operations, BulkMode mode) {
+        if (stockLedger.isEnabled()) {
+            var response = stockLedger.adjustAll(operations, mode);
+            var touchedBeers = response.getResults()
+                    .stream()
+                    .filter(result -> result.getStatus() == StockOperationStatus.APPLIED)
+                    .map(StockOperationResultDTO::getId)
+                    .distinct()
+                    .map(stockLedger::find)
+                    .flatMap(Optional::stream)
+                    .collect(Collectors.toMap(BeerDTO::getId, Function.identity()));
+
+            cacheAfterCommit(List.copyOf(touchedBeers.values()));
+            publishStockChanges(response, touchedBeers);
+
+            return response;
+        }
+
+        var ids = operations.stream()
+                .map(StockOperationDTO::getId)
+                .collect(Collectors.toSet());
+        var beers = beerRepository.findAllByIdForUpdate(ids)
+                .stream()
+                .collect(Collectors.toMap(Beer::getId, Function.identity()));
+
+        var adjustment = new BulkStockAdjustment(mode);
+        beers.values().forEach(beer -> adjustment.track(beer.getId(), beer.getQuantity(), beer.getMax()));
+        adjustment.apply(operations);
+
+        var updatedBeers = adjustment.changedQuantities()
+                .entrySet()
+                .stream()
+                .map(changedQuantity -> {
+                    var beer = beers.get(changedQuantity.getKey());
+                    beer.setQuantity(changedQuantity.getValue());
+
+                    // Hibernate increments the version when it flushes the change
+                    var beerDTO = beerMapper.toDTO(beer);
+                    beerDTO.setVersion(beer.getVersion() + 1);
+
+                    return beerDTO;
+                })
+                .collect(Collectors.toList());
+
+        var response = adjustment.toResponse();
+
+        // beers whose operations cancel out are not written and keep their version
+        var touchedBeers = beers.values()
+                .stream()
+                .map(beerMapper::toDTO)
+                .collect(Collectors.toMap(BeerDTO::getId, Function.identity()));
+        updatedBeers.forEach(beer -> touchedBeers.put(beer.getId(), beer));
+
+        cacheAfterCommit(updatedBeers);
+        publishStockChanges(response, touchedBeers);
+
+        return response;
+    }
+
+    /**
+     * Publishes one event per applied operation. Listeners bound to the transaction only see
+     * them once it commits.
+     */
+    private void publishStockChanges(BulkStockResponseDTO response, Map<Long, BeerDTO> beersById) {
+        response.getResults()
+                .stream()
+                .filter(result -> result.getStatus() == StockOperationStatus.APPLIED)
+                .forEach(result -> publishStockChange(
+                        result.getDelta() >= 0 ? StockChangeKind.INCREMENTED : StockChangeKind.DECREMENTED,
+                        beersById.get(result.getId()),
+                        result.getQuantity() - result.getDelta(),
+                        result.getQuantity()));
+    }
+
+    private void publishStockChange(StockChangeKind kind, BeerDTO beer, int oldQuantity, int newQuantity) {
+        eventPublisher.publishEvent(StockChangeEventDTO.builder()
+                .kind(kind)
+                .id(beer.getId())
+                .name(beer.getName())
+                .type(beer.getType())
+                .max(beer.getMax())
+                .oldQuantity(oldQuantity)
+                .newQuantity(newQuantity)
+                .version(beer.getVersion())
+                .timestamp(Instant.now())
+                .build());
+    }
+
+    /**
+     * Runs a stock change in a transaction, which its outbox row joins. With the stock ledger
+     * enabled the change is applied in memory and there is no transaction to hold open.
+     */
+    private <T> T inStockTransaction(Supplier<T> change) {
+        return stockLedger.isEnabled() ? change.get() : transactionTemplate.execute(status -> change.get());
+    }
+
+    private void cacheAfterCommit(List<BeerDTO> updatedBeers) {
+        if (updatedBeers.isEmpty()) {
+            return;
+        }
+
+        runAfterCommit(() -> withBeersCache(cache -> updatedBeers.forEach(beer -> cache.put(beer.getName(), beer))));
+    }
+
+    private void runAfterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private void withBeersCache(Consumer<Cache> action) {
+        var cache = cacheManager.getCache(CacheConfig.BEERS_CACHE);
+
+        if (cache != null) {
+            action.accept(cache);
+        }
+    }
+
+    private BeerDTO toDTO(Beer beer) {
+        return overlay(beerMapper.toDTO(beer));
+    }
 
-        throw new BeerStockInsufficientException(id, quantityToDecrement);
+    private BeerDTO overlay(BeerDTO beerDTO) {
+        return stockLedger.isEnabled() ? stockLedger.overlay(beerDTO) : beerDTO;
     }
 }
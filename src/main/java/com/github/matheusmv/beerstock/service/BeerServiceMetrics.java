@@ -0,0 +1,86 @@
+package com.github.matheusmv.beerstock.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.AllArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Times every public {@link BeerService} operation, tagged by operation and outcome, and counts
+ * the exceptions they throw. It wraps the caching advice, so the timers see what callers see,
+ * cache hits included.
+ * <p>
+ * The meters are looked up in local maps, keyed by their tags, so an operation only goes
+ * through the registry the first time it completes with a given outcome.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@AllArgsConstructor(onConstructor = @__(@Autowired))
+public class BeerServiceMetrics {
+
+    static final String SERVICE_TIMER = "beerstock.service";
+    static final String EXCEPTIONS_COUNTER = "beerstock.service.exceptions";
+
+    private static final String SUCCESS = "success";
+    private static final String ERROR = "error";
+    private static final String NONE = "none";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<TimerKey, Timer> timers = new ConcurrentHashMap<>();
+    private final Map<CounterKey, Counter> exceptionCounters = new ConcurrentHashMap<>();
+
+    @Around("execution(public * com.github.matheusmv.beerstock.service.BeerService.*(..))")
+    public Object timeOperation(ProceedingJoinPoint joinPoint) throws Throwable {
+        var operation = joinPoint.getSignature().getName();
+        var sample = Timer.start(meterRegistry);
+
+        try {
+            var result = joinPoint.proceed();
+            sample.stop(timer(operation, SUCCESS, NONE));
+
+            return result;
+        } catch (Throwable throwable) {
+            var exception = throwable.getClass().getSimpleName();
+
+            sample.stop(timer(operation, ERROR, exception));
+            exceptionCounter(operation, exception).increment();
+
+            throw throwable;
+        }
+    }
+
+    private Timer timer(String operation, String outcome, String exception) {
+        return timers.computeIfAbsent(new TimerKey(operation, outcome, exception), key -> Timer.builder(SERVICE_TIMER)
+                .description("Time spent in beer service operations")
+                .tag("operation", key.operation())
+                .tag("outcome", key.outcome())
+                .tag("exception", key.exception())
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+
+    private Counter exceptionCounter(String operation, String exception) {
+        return exceptionCounters.computeIfAbsent(new CounterKey(operation, exception), key -> Counter.builder(EXCEPTIONS_COUNTER)
+                .description("Exceptions thrown by beer service operations")
+                .tag("operation", key.operation())
+                .tag("exception", key.exception())
+                .register(meterRegistry));
+    }
+
+    private record TimerKey(String operation, String outcome, String exception) {
+    }
+
+    private record CounterKey(String operation, String exception) {
+    }
+}
@@ -0,0 +1,140 @@
+package com.github.matheusmv.beerstock.service;
+
+import com.github.matheusmv.beerstock.dto.BulkStockResponseDTO;
+import com.github.matheusmv.beerstock.dto.StockOperationDTO;
+import com.github.matheusmv.beerstock.dto.StockOperationResultDTO;
+import com.github.matheusmv.beerstock.enums.BulkMode;
+import com.github.matheusmv.beerstock.enums.StockOperationStatus;
+import com.github.matheusmv.beerstock.exception.BeerNotFoundException;
+import com.github.matheusmv.beerstock.exception.BeerStockExceededException;
+import com.github.matheusmv.beerstock.exception.BeerStockInsufficientException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Applies a list of stock operations to the quantities of the beers they touch, in order,
+ * so that several operations on the same beer see each other's result.
+ * <p>
+ * Nothing is written here: callers register the current stock of every beer involved, run
+ * {@link #apply} and, when {@link #isCommitted()}, persist {@link #changedQuantities()}.
+ * A beer whose operations cancel out, or only carry a zero delta, is left out of them: it is
+ * not written, so its version does not move.
+ */
+class BulkStockAdjustment {
+
+    private final BulkMode mode;
+    private final Map<Long, Integer> initialQuantities = new HashMap<>();
+    private final Map<Long, Integer> quantities = new HashMap<>();
+    private final Map<Long, Integer> maxStock = new HashMap<>();
+    private final Map<Long, Integer> changedQuantities = new HashMap<>();
+
+    private List<StockOperationResultDTO> results = List.of();
+    private boolean committed;
+
+    BulkStockAdjustment(BulkMode mode) {
+        this.mode = mode;
+    }
+
+    void track(Long id, int quantity, int max) {
+        initialQuantities.put(id, quantity);
+        quantities.put(id, quantity);
+        maxStock.put(id, max);
+    }
+
+    BulkStockAdjustment apply(List<StockOperationDTO> operations) {
+        var appliedResults = new ArrayList<StockOperationResultDTO>(operations.size());
+
+        for (var operation : operations) {
+            appliedResults.add(apply(operation));
+        }
+
+        var hasRejections = appliedResults.stream()
+                .anyMatch(result -> result.getStatus() == StockOperationStatus.REJECTED);
+
+        committed = !(mode == BulkMode.ALL_OR_NOTHING && hasRejections);
+        results = committed ? appliedResults : rollBack(appliedResults);
+
+        return this;
+    }
+
+    boolean isCommitted() {
+        return committed;
+    }
+
+    Map<Long, Integer> changedQuantities() {
+        return committed ? changedQuantities : Map.of();
+    }
+
+    BulkStockResponseDTO toResponse() {
+        var applied = results.stream()
+                .filter(result -> result.getStatus() == StockOperationStatus.APPLIED)
+                .count();
+        var rejected = results.stream()
+                .filter(result -> result.getStatus() == StockOperationStatus.REJECTED)
+                .count();
+
+        return BulkStockResponseDTO.builder()
+                .mode(mode)
+                .applied(applied)
+                .rejected(rejected)
+                .results(results)
+                .build();
+    }
+
+    private StockOperationResultDTO apply(StockOperationDTO operation) {
+        var id = operation.getId();
+        int delta = operation.getDelta();
+        var currentQuantity = quantities.get(id);
+
+        if (currentQuantity == null) {
+            return rejected(operation, new BeerNotFoundException(id));
+        }
+
+        var newQuantity = currentQuantity + delta;
+
+        if (newQuantity > maxStock.get(id)) {
+            return rejected(operation, new BeerStockExceededException(id, delta));
+        }
+
+        if (newQuantity < 0) {
+            return rejected(operation, new BeerStockInsufficientException(id, -delta));
+        }
+
+        quantities.put(id, newQuantity);
+
+        if (newQuantity == initialQuantities.get(id)) {
+            changedQuantities.remove(id);
+        } else {
+            changedQuantities.put(id, newQuantity);
+        }
+
+        return StockOperationResultDTO.builder()
+                .id(id)
+                .delta(delta)
+                .status(StockOperationStatus.APPLIED)
+                .quantity(newQuantity)
+                .build();
+    }
+
+    private StockOperationResultDTO rejected(StockOperationDTO operation, RuntimeException exception) {
+        return StockOperationResultDTO.builder()
+                .id(operation.getId())
+                .delta(operation.getDelta())
+                .status(StockOperationStatus.REJECTED)
+                .error(exception.getClass().getSimpleName())
+                .message(exception.getMessage())
+                .build();
+    }
+
+    private List<StockOperationResultDTO> rollBack(List<StockOperationResultDTO> appliedResults) {
+        return appliedResults.stream()
+                .map(result -> result.getStatus() == StockOperationStatus.APPLIED
+                        ? result.toBuilder().status(StockOperationStatus.ROLLED_BACK).quantity(null).build()
+                        : result)
+                .collect(Collectors.toList());
+    }
+}
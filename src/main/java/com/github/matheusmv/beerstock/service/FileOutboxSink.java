@@ -0,0 +1,79 @@
+package com.github.matheusmv.beerstock.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.github.matheusmv.beerstock.config.BeerstockProperties;
+import com.github.matheusmv.beerstock.dto.OutboxEventDTO;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Appends the relayed events to {@code beerstock.outbox.file}, one JSON document per line, and
+ * forces each batch to disk before acknowledging it.
+ */
+@Component
+@ConditionalOnProperty(prefix = "beerstock.outbox", name = "sink", havingValue = "file")
+public class FileOutboxSink implements OutboxSink {
+
+    private static final byte NEW_LINE = '\n';
+
+    private final ObjectWriter objectWriter;
+    private final BeerstockProperties.Outbox properties;
+
+    private FileChannel channel;
+
+    public FileOutboxSink(ObjectMapper objectMapper, BeerstockProperties beerstockProperties) {
+        this.objectWriter = objectMapper.writerFor(OutboxEventDTO.class);
+        this.properties = beerstockProperties.getOutbox();
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        var file = Paths.get(properties.getFile());
+
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    @PreDestroy
+    public synchronized void stop() throws IOException {
+        channel.close();
+    }
+
+    @Override
+    public synchronized void publish(List<OutboxEventDTO> events) {
+        try {
+            var lines = new ByteArrayOutputStream();
+
+            for (var event : events) {
+                lines.write(objectWriter.writeValueAsBytes(event));
+                lines.write(NEW_LINE);
+            }
+
+            var buffer = ByteBuffer.wrap(lines.toByteArray());
+
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+
+            channel.force(false);
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.github.matheusmv.beerstock.service;
+
+import com.github.matheusmv.beerstock.dto.BeerDTO;
+import com.github.matheusmv.beerstock.exception.IdempotencyKeyReusedException;
+import com.github.matheusmv.beerstock.exception.InvalidIdempotencyKeyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Runs a stock operation at most once per idempotency key.
+ * <p>
+ * A retry of a completed operation gets the stored response without touching the database.
+ * A duplicate that arrives while the first request is still running waits for it and gets
+ * the same response, or the same error. Only successful responses are stored, so a request
+ * that failed can be retried with its key. Reusing a key for a different request is rejected.
+ */
+@Service
+public class IdempotencyService {
+
+    /**
+     * Length of the key column of the JDBC store.
+     */
+    static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyStore idempotencyStore;
+    private final Counter replayedResponses;
+
+    private final ConcurrentMap<String, InFlight> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotencyService(IdempotencyStore idempotencyStore, MeterRegistry meterRegistry) {
+        this.idempotencyStore = idempotencyStore;
+        this.replayedResponses = Counter.builder("beerstock.idempotency.replayed")
+                .description("Requests answered with the response of an earlier request with the same idempotency key")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs the operation, or returns the response of the earlier request with the same key.
+     * Without a key the operation always runs; a key longer than {@value #MAX_KEY_LENGTH}
+     * characters is rejected.
+     *
+     * @param fingerprint identifies the request, a key sent with another fingerprint is rejected
+     */
+    public BeerDTO execute(String idempotencyKey, String fingerprint, Supplier<BeerDTO> operation) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return operation.get();
+        }
+
+        if (idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new InvalidIdempotencyKeyException(MAX_KEY_LENGTH);
+        }
+
+        var stored = idempotencyStore.find(idempotencyKey);
+
+        if (stored.isPresent()) {
+            return replay(idempotencyKey, fingerprint, stored.get().fingerprint(), stored.get().body());
+        }
+
+        var call = new InFlight(fingerprint, new CompletableFuture<>());
+        var running = inFlight.putIfAbsent(idempotencyKey, call);
+
+        if (running != null) {
+            return await(idempotencyKey, fingerprint, running);
+        }
+
+        try {
+            // the first request may have completed between the lookup and the registration
+            stored = idempotencyStore.find(idempotencyKey);
+
+            if (stored.isPresent()) {
+                var response = replay(idempotencyKey, fingerprint, stored.get().fingerprint(), stored.get().body());
+                call.response().complete(response);
+                return response;
+            }
+
+            var response = operation.get();
+            idempotencyStore.save(idempotencyKey, new IdempotencyStore.StoredResponse(fingerprint, response));
+            call.response().complete(response);
+
+            return response;
+        } catch (RuntimeException exception) {
+            call.response().completeExceptionally(exception);
+            throw exception;
+        } finally {
+            inFlight.remove(idempotencyKey, call);
+        }
+    }
+
+    private BeerDTO await(String idempotencyKey, String fingerprint, InFlight running) {
+        if (!running.fingerprint().equals(fingerprint)) {
+            throw new IdempotencyKeyReusedException(idempotencyKey);
+        }
+
+        try {
+            var response = running.response().join();
+            replayedResponses.increment();
+
+            return response;
+        } catch (CompletionException exception) {
+            if (exception.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+
+            throw exception;
+        }
+    }
+
+    private BeerDTO replay(String idempotencyKey, String fingerprint, String storedFingerprint, BeerDTO response) {
+        if (!storedFingerprint.equals(fingerprint)) {
+            throw new IdempotencyKeyReusedException(idempotencyKey);
+        }
+
+        replayedResponses.increment();
+
+        return response;
+    }
+
+    private record InFlight(String fingerprint, CompletableFuture<BeerDTO> response) {
+    }
+}
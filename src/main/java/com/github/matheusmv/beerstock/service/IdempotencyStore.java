@@ -0,0 +1,25 @@
+package com.github.matheusmv.beerstock.service;
+
+import com.github.matheusmv.beerstock.dto.BeerDTO;
+
+import java.util.Optional;
+
+/**
+ * Responses of completed requests, by idempotency key, kept for the configured retention time.
+ */
+public interface IdempotencyStore {
+
+    Optional<StoredResponse> find(String idempotencyKey);
+
+    /**
+     * Stores the response of a key, keeping the first one when the key is already stored.
+     */
+    void save(String idempotencyKey, StoredResponse response);
+
+    /**
+     * Response of a request along with the fingerprint of the request, which tells a retry
+     * apart from a different request sent with the same key.
+     */
+    record StoredResponse(String fingerprint, BeerDTO body) {
+    }
+}
@@ -0,0 +1,40 @@
+package com.github.matheusmv.beerstock.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.matheusmv.beerstock.config.BeerstockProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ * Default store: a Caffeine cache bounded by {@code beerstock.idempotency.max-entries}, whose
+ * entries expire the retention time after being written. Retries have to reach the instance
+ * that served the first request.
+ */
+@Component
+@ConditionalOnProperty(prefix = "beerstock.idempotency", name = "store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryIdempotencyStore implements IdempotencyStore {
+
+    private final Cache<String, StoredResponse> responses;
+
+    public InMemoryIdempotencyStore(BeerstockProperties beerstockProperties) {
+        var properties = beerstockProperties.getIdempotency();
+
+        this.responses = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxEntries())
+                .expireAfterWrite(properties.getTtl())
+                .build();
+    }
+
+    @Override
+    public Optional<StoredResponse> find(String idempotencyKey) {
+        return Optional.ofNullable(responses.getIfPresent(idempotencyKey));
+    }
+
+    @Override
+    public void save(String idempotencyKey, StoredResponse response) {
+        responses.asMap().putIfAbsent(idempotencyKey, response);
+    }
+}
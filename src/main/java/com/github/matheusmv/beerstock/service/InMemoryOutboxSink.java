@@ -0,0 +1,44 @@
+package com.github.matheusmv.beerstock.service;
+
+import com.github.matheusmv.beerstock.config.BeerstockProperties;
+import com.github.matheusmv.beerstock.dto.OutboxEventDTO;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Default sink: keeps the last relayed events in memory, up to
+ * {@code beerstock.outbox.memory-capacity}, for tests and local runs.
+ */
+@Component
+@ConditionalOnProperty(prefix = "beerstock.outbox", name = "sink", havingValue = "memory", matchIfMissing = true)
+public class InMemoryOutboxSink implements OutboxSink {
+
+    private final int capacity;
+    private final Deque<OutboxEventDTO> events = new ArrayDeque<>();
+
+    public InMemoryOutboxSink(BeerstockProperties beerstockProperties) {
+        this.capacity = beerstockProperties.getOutbox().getMemoryCapacity();
+    }
+
+    @Override
+    public synchronized void publish(List<OutboxEventDTO> batch) {
+        for (var event : batch) {
+            if (events.size() == capacity) {
+                events.removeFirst();
+            }
+
+            events.addLast(event);
+        }
+    }
+
+    /**
+     * Relayed events still kept, oldest first.
+     */
+    public synchronized List<OutboxEventDTO> getEvents() {
+        return List.copyOf(events);
+    }
+}
@@ -0,0 +1,121 @@
+package com.github.matheusmv.beerstock.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.matheusmv.beerstock.config.BeerstockProperties;
+import com.github.matheusmv.beerstock.dto.BeerDTO;
+import com.github.matheusmv.beerstock.entity.IdempotencyRecord;
+import com.github.matheusmv.beerstock.repository.IdempotencyRecordRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.UncheckedIOException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Store backed by the idempotency_record table, so retries are recognized by every instance
+ * sharing the database and survive a restart when the database does. Records older than the
+ * retention time are ignored on lookup and deleted every purge interval.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "beerstock.idempotency", name = "store", havingValue = "jdbc")
+public class JdbcIdempotencyStore implements IdempotencyStore {
+
+    private static final String INSERT_RECORD_SQL = "INSERT INTO idempotency_record " +
+            "(idempotency_key, fingerprint, response, created_at) VALUES (?, ?, ?, ?)";
+    private static final String DELETE_EXPIRED_SQL = "DELETE FROM idempotency_record WHERE created_at < ?";
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final BeerstockProperties.Idempotency properties;
+
+    private ScheduledExecutorService purger;
+
+    public JdbcIdempotencyStore(IdempotencyRecordRepository idempotencyRecordRepository,
+                                JdbcTemplate jdbcTemplate,
+                                ObjectMapper objectMapper,
+                                BeerstockProperties beerstockProperties) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.properties = beerstockProperties.getIdempotency();
+    }
+
+    @PostConstruct
+    public void start() {
+        purger = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            var thread = new Thread(runnable, "idempotency-purger");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        var interval = properties.getPurgeInterval().toMillis();
+        purger.scheduleWithFixedDelay(this::purgeQuietly, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        purger.shutdownNow();
+    }
+
+    @Override
+    public Optional<StoredResponse> find(String idempotencyKey) {
+        return idempotencyRecordRepository.findById(idempotencyKey)
+                .filter(record -> record.getCreatedAt().isAfter(expiredBefore()))
+                .map(this::toStoredResponse);
+    }
+
+    @Override
+    public void save(String idempotencyKey, StoredResponse response) {
+        try {
+            jdbcTemplate.update(INSERT_RECORD_SQL,
+                    idempotencyKey,
+                    response.fingerprint(),
+                    objectMapper.writeValueAsString(response.body()),
+                    Timestamp.from(Instant.now()));
+        } catch (DuplicateKeyException exception) {
+            // another instance completed the same key first, its response is kept
+        } catch (JsonProcessingException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    /**
+     * Deletes the records older than the retention time.
+     */
+    public int purge() {
+        return jdbcTemplate.update(DELETE_EXPIRED_SQL, Timestamp.from(expiredBefore()));
+    }
+
+    private void purgeQuietly() {
+        try {
+            purge();
+        } catch (RuntimeException exception) {
+            log.warn("Idempotency record purge failed, it will be retried on the next cycle", exception);
+        }
+    }
+
+    private Instant expiredBefore() {
+        return Instant.now().minus(properties.getTtl());
+    }
+
+    private StoredResponse toStoredResponse(IdempotencyRecord record) {
+        try {
+            return new StoredResponse(record.getFingerprint(), objectMapper.readValue(record.getResponse(), BeerDTO.class));
+        } catch (JsonProcessingException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+}
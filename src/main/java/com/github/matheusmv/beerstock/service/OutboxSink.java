@@ -0,0 +1,18 @@
+package com.github.matheusmv.beerstock.service;
+
+import com.github.matheusmv.beerstock.dto.OutboxEventDTO;
+
+import java.util.List;
+
+/**
+ * Destination of the events relayed from the outbox, such as a message broker.
+ * <p>
+ * Events are handed over in the order they were written, one batch at a time. A batch is only
+ * removed from the outbox once {@link #publish(List)} returns; when it throws, the same batch
+ * is handed over again on the next attempt, so a sink may see an event more than once and
+ * should deliver the batch in order.
+ */
+public interface OutboxSink {
+
+    void publish(List<OutboxEventDTO> events);
+}
@@ -0,0 +1,33 @@
+package com.github.matheusmv.beerstock.service;
+
+import com.github.matheusmv.beerstock.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursors: the last id of a page, base64url encoded.
+ */
+final class PageCursors {
+
+    private PageCursors() {
+    }
+
+    static String encode(Long id) {
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString(id.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    static Long decode(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return 0L;
+        }
+
+        try {
+            return Long.valueOf(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException exception) {
+            throw new InvalidCursorException(cursor);
+        }
+    }
+}
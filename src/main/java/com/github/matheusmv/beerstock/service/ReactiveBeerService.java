@@ -0,0 +1,206 @@
+package com.github.matheusmv.beerstock.service;
+
+import com.github.matheusmv.beerstock.config.BeerstockProperties;
+import com.github.matheusmv.beerstock.dto.BeerDTO;
+import com.github.matheusmv.beerstock.dto.BeerSuggestionDTO;
+import com.github.matheusmv.beerstock.dto.CursorPageDTO;
+import com.github.matheusmv.beerstock.dto.PageDTO;
+import com.github.matheusmv.beerstock.dto.StockChangeEventDTO;
+import com.github.matheusmv.beerstock.entity.Beer;
+import com.github.matheusmv.beerstock.enums.BeerType;
+import com.github.matheusmv.beerstock.enums.StockChangeKind;
+import com.github.matheusmv.beerstock.exception.BeerAlreadyRegisteredException;
+import com.github.matheusmv.beerstock.exception.BeerNotFoundException;
+import com.github.matheusmv.beerstock.exception.BeerStockExceededException;
+import com.github.matheusmv.beerstock.exception.BeerStockInsufficientException;
+import com.github.matheusmv.beerstock.mapper.BeerMapper;
+import com.github.matheusmv.beerstock.repository.ReactiveBeerRepository;
+import lombok.AllArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+
+/**
+ * Non-blocking counterpart of {@link BeerService} over R2DBC. Stock updates use the same
+ * guarded single-statement UPDATEs, run in one transaction with the read of their result, so
+ * the published change describes exactly that update. The in-memory stock ledger is not
+ * consulted here, so it must stay disabled when the reactive stack runs.
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@AllArgsConstructor(onConstructor = @__(@Autowired))
+public class ReactiveBeerService {
+
+    private static final String DELETE_THRESHOLD_SQL = "DELETE FROM stock_threshold WHERE beer_id = :id";
+
+    private final ReactiveBeerRepository reactiveBeerRepository;
+    private final R2dbcEntityTemplate r2dbcEntityTemplate;
+    private final TransactionalOperator transactionalOperator;
+    private final BeerNameIndex beerNameIndex;
+    private final BeerstockProperties beerstockProperties;
+    private final ApplicationEventPublisher eventPublisher;
+    private final StockEventBroadcaster stockEventBroadcaster;
+    private final BeerMapper beerMapper = BeerMapper.INSTANCE;
+
+    /**
+     * Takes one value of the id sequence per beer. Hibernate's pooled optimizer uses the block
+     * of ids ending at each value it takes, so ids drawn here never collide with JPA inserts.
+     */
+    public Mono<BeerDTO> createBeer(BeerDTO beerDTO) {
+        var beer = beerMapper.toModel(beerDTO);
+
+        return reactiveBeerRepository.nextId()
+                .flatMap(id -> {
+                    beer.setId(id);
+                    beer.setVersion(0L);
+
+                    return r2dbcEntityTemplate.insert(beer);
+                })
+                .map(beerMapper::toDTO)
+                .doOnNext(savedBeer -> {
+                    beerNameIndex.add(new BeerSuggestionDTO(savedBeer.getId(), savedBeer.getName(), savedBeer.getBrand()));
+                    publishStockChange(StockChangeKind.CREATED, savedBeer, 0, savedBeer.getQuantity());
+                })
+                .onErrorMap(DataIntegrityViolationException.class,
+                        exception -> new BeerAlreadyRegisteredException(beerDTO.getName()));
+    }
+
+    public Mono<BeerDTO> findByName(String name) {
+        return reactiveBeerRepository.findByName(name)
+                .map(beerMapper::toDTO)
+                .switchIfEmpty(Mono.error(() -> new BeerNotFoundException(name)));
+    }
+
+    /**
+     * Streams the whole catalog in id order. Rows are pulled from the database as the
+     * subscriber requests them.
+     */
+    public Flux<BeerDTO> streamAll() {
+        return reactiveBeerRepository.findAllByOrderByIdAsc()
+                .map(beerMapper::toDTO);
+    }
+
+    public Mono<CursorPageDTO<BeerDTO>> listAfter(String cursor, Integer size) {
+        var pageSize = beerstockProperties.getPagination().resolveSize(size);
+
+        return Mono.fromCallable(() -> PageCursors.decode(cursor))
+                .flatMapMany(id -> reactiveBeerRepository.findByIdGreaterThanOrderByIdAsc(id, PageRequest.of(0, pageSize + 1)))
+                .map(beerMapper::toDTO)
+                .collectList()
+                .map(beers -> {
+                    var hasNext = beers.size() > pageSize;
+                    var content = hasNext ? beers.subList(0, pageSize) : beers;
+
+                    return CursorPageDTO.<BeerDTO>builder()
+                            .content(content)
+                            .size(pageSize)
+                            .nextCursor(hasNext ? PageCursors.encode(content.get(pageSize - 1).getId()) : null)
+                            .build();
+                });
+    }
+
+    public Mono<PageDTO<BeerDTO>> listPage(int page, Integer size) {
+        var pageRequest = PageRequest.of(Math.max(page, 0), beerstockProperties.getPagination().resolveSize(size), Sort.by("id"));
+        var content = reactiveBeerRepository.findAllBy(pageRequest)
+                .map(beerMapper::toDTO)
+                .collectList();
+
+        return Mono.zip(content, reactiveBeerRepository.count())
+                .map(pageAndTotal -> {
+                    var totalElements = pageAndTotal.getT2();
+
+                    return PageDTO.<BeerDTO>builder()
+                            .content(pageAndTotal.getT1())
+                            .page(pageRequest.getPageNumber())
+                            .size(pageRequest.getPageSize())
+                            .totalElements(totalElements)
+                            .totalPages((int) ((totalElements + pageRequest.getPageSize() - 1) / pageRequest.getPageSize()))
+                            .build();
+                });
+    }
+
+    /**
+     * Deletes the beer along with its alert thresholds in one transaction.
+     */
+    public Mono<Void> deleteById(Long id) {
+        return verifyIfExists(id)
+                .flatMap(beer -> reactiveBeerRepository.delete(beer)
+                        .then(r2dbcEntityTemplate.getDatabaseClient()
+                                .sql(DELETE_THRESHOLD_SQL)
+                                .bind("id", id)
+                                .fetch()
+                                .rowsUpdated())
+                        .thenReturn(beer))
+                .as(transactionalOperator::transactional)
+                .doOnNext(beer -> {
+                    beerNameIndex.remove(id);
+                    publishStockChange(StockChangeKind.DELETED, beerMapper.toDTO(beer), beer.getQuantity(), 0);
+                })
+                .then();
+    }
+
+    public Mono<BeerDTO> increment(Long id, int quantityToIncrement) {
+        return reactiveBeerRepository.incrementQuantity(id, quantityToIncrement)
+                .flatMap(updatedRows -> updatedRows == 0
+                        ? verifyIfExists(id).then(Mono.<BeerDTO>error(new BeerStockExceededException(id, quantityToIncrement)))
+                        : verifyIfExists(id).map(beerMapper::toDTO))
+                .as(transactionalOperator::transactional)
+                .doOnNext(beer -> publishStockChange(StockChangeKind.INCREMENTED, beer,
+                        beer.getQuantity() - quantityToIncrement, beer.getQuantity()));
+    }
+
+    public Mono<BeerDTO> decrement(Long id, int quantityToDecrement) {
+        return reactiveBeerRepository.decrementQuantity(id, quantityToDecrement)
+                .flatMap(updatedRows -> updatedRows == 0
+                        ? verifyIfExists(id).then(Mono.<BeerDTO>error(new BeerStockInsufficientException(id, quantityToDecrement)))
+                        : verifyIfExists(id).map(beerMapper::toDTO))
+                .as(transactionalOperator::transactional)
+                .doOnNext(beer -> publishStockChange(StockChangeKind.DECREMENTED, beer,
+                        beer.getQuantity() + quantityToDecrement, beer.getQuantity()));
+    }
+
+    /**
+     * Streams the stock changes of the given type and/or beer id until the configured timeout.
+     * A subscriber that does not keep up loses its oldest events instead of buffering them.
+     */
+    public Flux<StockChangeEventDTO> streamStockChanges(BeerType type, Long id) {
+        var events = beerstockProperties.getEvents();
+
+        return Flux.<StockChangeEventDTO>create(sink -> {
+                    var subscription = stockEventBroadcaster.subscribe(type, id, sink::next);
+                    sink.onDispose(subscription::cancel);
+                })
+                .onBackpressureBuffer(events.getBufferSize(), dropped -> { }, BufferOverflowStrategy.DROP_OLDEST)
+                .take(events.getTimeout());
+    }
+
+    private void publishStockChange(StockChangeKind kind, BeerDTO beer, int oldQuantity, int newQuantity) {
+        eventPublisher.publishEvent(StockChangeEventDTO.builder()
+                .kind(kind)
+                .id(beer.getId())
+                .name(beer.getName())
+                .type(beer.getType())
+                .max(beer.getMax())
+                .oldQuantity(oldQuantity)
+                .newQuantity(newQuantity)
+                .version(beer.getVersion())
+                .timestamp(Instant.now())
+                .build());
+    }
+
+    private Mono<Beer> verifyIfExists(Long id) {
+        return reactiveBeerRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new BeerNotFoundException(id)));
+    }
+}
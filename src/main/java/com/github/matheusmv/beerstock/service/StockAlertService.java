@@ -0,0 +1,307 @@
+package com.github.matheusmv.beerstock.service;
+
+import com.github.matheusmv.beerstock.config.BeerstockProperties;
+import com.github.matheusmv.beerstock.dto.StockAlertDTO;
+import com.github.matheusmv.beerstock.dto.StockAlertEventDTO;
+import com.github.matheusmv.beerstock.dto.StockChangeEventDTO;
+import com.github.matheusmv.beerstock.dto.StockThresholdsDTO;
+import com.github.matheusmv.beerstock.entity.Beer;
+import com.github.matheusmv.beerstock.entity.StockThreshold;
+import com.github.matheusmv.beerstock.enums.BeerType;
+import com.github.matheusmv.beerstock.enums.StockAlertKind;
+import com.github.matheusmv.beerstock.enums.StockAlertState;
+import com.github.matheusmv.beerstock.enums.StockChangeKind;
+import com.github.matheusmv.beerstock.exception.BeerNotFoundException;
+import com.github.matheusmv.beerstock.mapper.BeerMapper;
+import com.github.matheusmv.beerstock.repository.BeerRepository;
+import com.github.matheusmv.beerstock.repository.StockThresholdRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Keeps the set of beers whose stock is below their reorder point or close to their max.
+ * <p>
+ * The set is loaded with one query on startup and then maintained from the stock-change
+ * events: each change is checked against the thresholds of its beer only, and a beer
+ * entering or leaving an alert publishes a {@link StockAlertEventDTO}. The thresholds of
+ * every beer that has its own are kept in memory, so no change needs a database read.
+ * <p>
+ * Events are delivered after their transactions commit, which is not necessarily in the
+ * order the changes were made. The last level applied to each beer is kept along with its
+ * version: a change older than it is ignored, and every evaluation of a beer, including the
+ * one following an update of its thresholds, runs under the lock of its entry, so they never
+ * interleave. The level of a deleted beer is kept, so a late change of it cannot bring back
+ * its alerts.
+ */
+@Slf4j
+@Service
+@AllArgsConstructor(onConstructor = @__(@Autowired))
+public class StockAlertService implements MeterBinder {
+
+    private final BeerRepository beerRepository;
+    private final StockThresholdRepository stockThresholdRepository;
+    private final StockLedger stockLedger;
+    private final BeerstockProperties beerstockProperties;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BeerMapper beerMapper = BeerMapper.INSTANCE;
+
+    private final ConcurrentMap<Long, StockThreshold> thresholds = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Long, StockLevel> appliedLevels = new ConcurrentHashMap<>();
+    private final Map<StockAlertKind, ConcurrentMap<Long, StockAlertDTO>> activeAlerts = newActiveAlerts();
+
+    @PostConstruct
+    public void start() {
+        stockThresholdRepository.findAll()
+                .forEach(threshold -> thresholds.put(threshold.getBeerId(), threshold));
+
+        var inAlert = beerRepository.findInStockAlert(
+                beerstockProperties.getAlerts().getDefaultReorderPercent(),
+                beerstockProperties.getMetrics().getNearMaxPercent());
+
+        inAlert.forEach(beer -> apply(StockLevel.of(beer)));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        activeAlerts.forEach((kind, alerts) -> Gauge.builder("beerstock.alerts.active", alerts, Map::size)
+                .description("Beers currently in alert")
+                .tag("kind", kind.name())
+                .register(registry));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockChange(StockChangeEventDTO event) {
+        if (event.getKind() == StockChangeKind.DELETED) {
+            publish(delete(StockLevel.of(event)));
+
+            return;
+        }
+
+        publish(apply(StockLevel.of(event)));
+    }
+
+    /**
+     * Alerts of the given kind, ordered by beer id.
+     */
+    public List<StockAlertDTO> findActive(StockAlertKind kind) {
+        return activeAlerts.get(kind)
+                .values()
+                .stream()
+                .sorted(Comparator.comparing(StockAlertDTO::getId))
+                .toList();
+    }
+
+    /**
+     * Replaces the thresholds of a beer and re-evaluates its alerts right away, from the stored
+     * level of the beer unless the one just read is newer.
+     */
+    public StockThresholdsDTO updateThresholds(Long id, StockThresholdsDTO thresholdsDTO) {
+        var beer = beerMapper.toDTO(beerRepository.findById(id)
+                .orElseThrow(() -> new BeerNotFoundException(id)));
+
+        if (stockLedger.isEnabled()) {
+            beer = stockLedger.overlay(beer);
+        }
+
+        var threshold = stockThresholdRepository.save(
+                new StockThreshold(id, thresholdsDTO.getReorderPoint(), thresholdsDTO.getNearMaxPercent()));
+        var level = new StockLevel(beer.getId(), beer.getName(), beer.getType(), beer.getMax(), beer.getQuantity(),
+                beer.getVersion());
+        var events = new ArrayList<StockAlertEventDTO>(2);
+
+        appliedLevels.compute(id, (key, applied) -> {
+            var current = applied != null && !level.isNewerThan(applied) ? applied : level;
+
+            thresholds.put(id, threshold);
+            events.addAll(evaluate(current));
+
+            return current;
+        });
+
+        publish(events);
+
+        return StockThresholdsDTO.builder()
+                .reorderPoint(threshold.getReorderPoint())
+                .nearMaxPercent(threshold.getNearMaxPercent())
+                .build();
+    }
+
+    /**
+     * Evaluates the level unless a newer one was already applied to its beer.
+     */
+    private List<StockAlertEventDTO> apply(StockLevel level) {
+        var events = new ArrayList<StockAlertEventDTO>(2);
+
+        appliedLevels.compute(level.id(), (id, applied) -> {
+            if (applied != null && !level.isNewerThan(applied)) {
+                return applied;
+            }
+
+            events.addAll(evaluate(level));
+
+            return level;
+        });
+
+        return events;
+    }
+
+    private List<StockAlertEventDTO> delete(StockLevel level) {
+        var events = new ArrayList<StockAlertEventDTO>(2);
+
+        appliedLevels.compute(level.id(), (id, applied) -> {
+            thresholds.remove(id);
+            activeAlerts.values().forEach(alerts -> {
+                var alert = alerts.remove(id);
+
+                if (alert != null) {
+                    events.add(alertEvent(StockAlertState.CLEARED, alert));
+                }
+            });
+
+            return level.deleted();
+        });
+
+        return events;
+    }
+
+    private List<StockAlertEventDTO> evaluate(StockLevel level) {
+        var threshold = thresholds.get(level.id());
+        var reorderPoint = reorderPoint(threshold, level.max());
+        var nearMaxQuantity = nearMaxQuantity(threshold, level.max());
+        var events = new ArrayList<StockAlertEventDTO>(2);
+
+        update(StockAlertKind.LOW_STOCK, level, reorderPoint, level.quantity() < reorderPoint, events);
+        update(StockAlertKind.NEAR_MAX, level, nearMaxQuantity, level.quantity() >= nearMaxQuantity, events);
+
+        return events;
+    }
+
+    private void update(StockAlertKind kind, StockLevel level, int threshold, boolean inAlert,
+                        List<StockAlertEventDTO> events) {
+        var transition = new AtomicReference<StockAlertEventDTO>();
+
+        activeAlerts.get(kind).compute(level.id(), (id, current) -> {
+            if (!inAlert) {
+                if (current != null) {
+                    transition.set(alertEvent(StockAlertState.CLEARED, current.toBuilder().quantity(level.quantity()).build()));
+                }
+
+                return null;
+            }
+
+            var alert = StockAlertDTO.builder()
+                    .kind(kind)
+                    .id(level.id())
+                    .name(level.name())
+                    .type(level.type())
+                    .quantity(level.quantity())
+                    .max(level.max())
+                    .threshold(threshold)
+                    .since(current != null ? current.getSince() : Instant.now())
+                    .build();
+
+            if (current == null) {
+                transition.set(alertEvent(StockAlertState.RAISED, alert));
+            }
+
+            return alert;
+        });
+
+        if (transition.get() != null) {
+            events.add(transition.get());
+        }
+    }
+
+    private int reorderPoint(StockThreshold threshold, int max) {
+        if (threshold != null && threshold.getReorderPoint() != null) {
+            return threshold.getReorderPoint();
+        }
+
+        return max * beerstockProperties.getAlerts().getDefaultReorderPercent() / 100;
+    }
+
+    /**
+     * Smallest quantity at or above the near max percentage of max.
+     */
+    private int nearMaxQuantity(StockThreshold threshold, int max) {
+        var percent = threshold != null && threshold.getNearMaxPercent() != null
+                ? threshold.getNearMaxPercent()
+                : beerstockProperties.getMetrics().getNearMaxPercent();
+
+        return (max * percent + 99) / 100;
+    }
+
+    private void publish(List<StockAlertEventDTO> events) {
+        events.forEach(event -> {
+            var alert = event.getAlert();
+            log.info("{} alert {} for beer {} at quantity {}", alert.getKind(), event.getState(), alert.getName(), alert.getQuantity());
+
+            eventPublisher.publishEvent(event);
+        });
+    }
+
+    private StockAlertEventDTO alertEvent(StockAlertState state, StockAlertDTO alert) {
+        return StockAlertEventDTO.builder()
+                .state(state)
+                .alert(alert)
+                .timestamp(Instant.now())
+                .build();
+    }
+
+    private static Map<StockAlertKind, ConcurrentMap<Long, StockAlertDTO>> newActiveAlerts() {
+        var alerts = new EnumMap<StockAlertKind, ConcurrentMap<Long, StockAlertDTO>>(StockAlertKind.class);
+
+        for (var kind : StockAlertKind.values()) {
+            alerts.put(kind, new ConcurrentHashMap<>());
+        }
+
+        return alerts;
+    }
+
+    private record StockLevel(Long id, String name, BeerType type, int max, int quantity, Long version) {
+
+        private static StockLevel of(Beer beer) {
+            return new StockLevel(beer.getId(), beer.getName(), beer.getType(), beer.getMax(), beer.getQuantity(),
+                    beer.getVersion());
+        }
+
+        private static StockLevel of(StockChangeEventDTO event) {
+            return new StockLevel(event.getId(), event.getName(), event.getType(), event.getMax(), event.getNewQuantity(),
+                    event.getVersion());
+        }
+
+        /**
+         * Same level with the highest version, so no later change of the deleted beer applies.
+         */
+        private StockLevel deleted() {
+            return new StockLevel(id, name, type, max, quantity, Long.MAX_VALUE);
+        }
+
+        /**
+         * A level without a version cannot be ordered and is always applied. Several changes
+         * of one bulk adjustment share the version of its result and arrive in order, so a
+         * level at the same version applies too.
+         */
+        private boolean isNewerThan(StockLevel other) {
+            return version == null || other.version == null || version >= other.version;
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.github.matheusmv.beerstock.service;
+
+import com.github.matheusmv.beerstock.config.BeerstockProperties;
+import com.github.matheusmv.beerstock.dto.StockChangeEventDTO;
+import com.github.matheusmv.beerstock.enums.BeerType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+/**
+ * Fans stock-change events out to the subscribers of the event stream.
+ * <p>
+ * Events are received once the transaction that produced them commits. Each subscriber owns
+ * a bounded buffer keyed by beer id: a second change to a beer that has not been sent yet
+ * replaces the pending one, keeping the first old quantity, and when the buffer is full the
+ * oldest pending beer is dropped. Buffers are drained on virtual threads, so a slow client
+ * only delays its own stream and never the request that changed the stock.
+ */
+@Slf4j
+@Component
+public class StockEventBroadcaster {
+
+    private final BeerstockProperties.Events properties;
+    private final Executor executor;
+    private final Counter droppedEvents;
+    private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public StockEventBroadcaster(BeerstockProperties beerstockProperties, MeterRegistry meterRegistry) {
+        this(beerstockProperties, meterRegistry, Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    StockEventBroadcaster(BeerstockProperties beerstockProperties, MeterRegistry meterRegistry, Executor executor) {
+        this.properties = beerstockProperties.getEvents();
+        this.executor = executor;
+        this.droppedEvents = Counter.builder("beerstock.events.dropped")
+                .description("Stock-change events dropped because a subscriber fell behind")
+                .register(meterRegistry);
+
+        Gauge.builder("beerstock.events.subscribers", subscriptions, Set::size)
+                .description("Open stock-change event streams")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void stop() {
+        subscriptions.clear();
+
+        if (executor instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        }
+    }
+
+    /**
+     * Registers a subscriber for the changes of the given type and/or beer id; a null filter
+     * matches every beer. A sender that throws is treated as a closed stream and unsubscribed.
+     */
+    public Subscription subscribe(BeerType type, Long id, EventSender sender) {
+        Predicate<StockChangeEventDTO> filter = event -> (type == null || type == event.getType())
+                && (id == null || id.equals(event.getId()));
+        var subscription = new Subscription(filter, sender);
+
+        subscriptions.add(subscription);
+
+        return subscription;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockChange(StockChangeEventDTO event) {
+        subscriptions.forEach(subscription -> subscription.offer(event));
+    }
+
+    public int getSubscriberCount() {
+        return subscriptions.size();
+    }
+
+    public Duration getTimeout() {
+        return properties.getTimeout();
+    }
+
+    @FunctionalInterface
+    public interface EventSender {
+
+        void send(StockChangeEventDTO event) throws Exception;
+    }
+
+    public class Subscription {
+
+        private final Predicate<StockChangeEventDTO> filter;
+        private final EventSender sender;
+        private final Map<Long, StockChangeEventDTO> pending = new LinkedHashMap<>();
+        private final Lock lock = new ReentrantLock();
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private Subscription(Predicate<StockChangeEventDTO> filter, EventSender sender) {
+            this.filter = filter;
+            this.sender = sender;
+        }
+
+        public void cancel() {
+            subscriptions.remove(this);
+        }
+
+        private void offer(StockChangeEventDTO event) {
+            if (!filter.test(event)) {
+                return;
+            }
+
+            lock.lock();
+
+            try {
+                pending.merge(event.getId(), event, (previous, latest) -> latest.toBuilder()
+                        .oldQuantity(previous.getOldQuantity())
+                        .build());
+
+                if (pending.size() > properties.getBufferSize()) {
+                    var eldest = pending.keySet().iterator();
+                    eldest.next();
+                    eldest.remove();
+                    droppedEvents.increment();
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            if (draining.compareAndSet(false, true)) {
+                executor.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                var batch = takePending();
+
+                if (batch.isEmpty()) {
+                    draining.set(false);
+
+                    // an event may have been offered after the buffer was found empty
+                    if (hasPending() && draining.compareAndSet(false, true)) {
+                        continue;
+                    }
+
+                    return;
+                }
+
+                for (var event : batch) {
+                    try {
+                        sender.send(event);
+                    } catch (Exception exception) {
+                        log.debug("Closing stock event subscription: {}", exception.getMessage());
+                        cancel();
+                        return;
+                    }
+                }
+            }
+        }
+
+        private List<StockChangeEventDTO> takePending() {
+            lock.lock();
+
+            try {
+                var batch = new ArrayList<>(pending.values());
+                pending.clear();
+
+                return batch;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private boolean hasPending() {
+            lock.lock();
+
+            try {
+                return !pending.isEmpty();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
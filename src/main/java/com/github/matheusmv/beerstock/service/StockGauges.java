@@ -0,0 +1,56 @@
+package com.github.matheusmv.beerstock.service;
+
+import com.github.matheusmv.beerstock.config.BeerstockProperties;
+import com.github.matheusmv.beerstock.dto.StockLevelsDTO;
+import com.github.matheusmv.beerstock.repository.BeerRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Stock level gauges, read from the database in one query and reused for the refresh interval,
+ * so a scrape reading the three gauges runs the query once. With the stock ledger enabled they
+ * trail the in-memory quantities by at most one flush interval on top of it.
+ */
+@Component
+public class StockGauges implements MeterBinder {
+
+    private final BeerRepository beerRepository;
+    private final BeerstockProperties.Metrics properties;
+
+    private StockLevelsDTO stockLevels;
+    private long readAt;
+
+    public StockGauges(BeerRepository beerRepository, BeerstockProperties beerstockProperties) {
+        this.beerRepository = beerRepository;
+        this.properties = beerstockProperties.getMetrics();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("beerstock.stock.units", this, gauges -> gauges.stockLevels().getUnits())
+                .description("Total stock units across all beers")
+                .register(registry);
+
+        Gauge.builder("beerstock.beers.at.max", this, gauges -> gauges.stockLevels().getBeersAtMax())
+                .description("Beers whose stock reached their max")
+                .register(registry);
+
+        Gauge.builder("beerstock.beers.near.max", this, gauges -> gauges.stockLevels().getBeersNearMax())
+                .description("Beers whose stock is at or above the near max percentage")
+                .tag("percent", String.valueOf(properties.getNearMaxPercent()))
+                .register(registry);
+    }
+
+    synchronized StockLevelsDTO stockLevels() {
+        var now = System.nanoTime();
+
+        if (stockLevels == null || now - readAt >= properties.getStockLevelsRefresh().toNanos()) {
+            stockLevels = beerRepository.findStockLevels(properties.getNearMaxPercent());
+            readAt = now;
+        }
+
+        return stockLevels;
+    }
+}
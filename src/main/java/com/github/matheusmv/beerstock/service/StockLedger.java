@@ -0,0 +1,521 @@
+package com.github.matheusmv.beerstock.service;
+
+import com.github.matheusmv.beerstock.config.BeerstockProperties;
+import com.github.matheusmv.beerstock.dto.BeerDTO;
+import com.github.matheusmv.beerstock.dto.BulkStockResponseDTO;
+import com.github.matheusmv.beerstock.dto.StockOperationDTO;
+import com.github.matheusmv.beerstock.enums.BulkMode;
+import com.github.matheusmv.beerstock.exception.BeerNotFoundException;
+import com.github.matheusmv.beerstock.exception.BeerStockExceededException;
+import com.github.matheusmv.beerstock.exception.BeerStockInsufficientException;
+import com.github.matheusmv.beerstock.exception.BeerVersionMismatchException;
+import com.github.matheusmv.beerstock.mapper.BeerMapper;
+import com.github.matheusmv.beerstock.repository.BeerRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Write-behind stock ledger used when {@code beerstock.ledger.enabled} is set.
+ * <p>
+ * The quantity of every adjusted beer lives in a per-id atomic reference that enforces the
+ * {@code max} and zero bounds. Each adjustment is appended to a local log under the lock of
+ * its entry and only then made visible and acknowledged from memory, so no one can read a
+ * quantity the log lost; dirty quantities are coalesced and written to the database in one JDBC batch
+ * per flush. Log segments are deleted once their flush is committed, so whatever is left on
+ * disk at startup is replayed before the application accepts requests.
+ * <p>
+ * Each entry carries the version of its beer, starting from the one loaded from the database,
+ * incremented by every adjustment and written along with the quantity.
+ * <p>
+ * The ledger assumes it is the only writer of the stock of the beers it holds.
+ */
+@Slf4j
+@Component
+public class StockLedger {
+
+    private static final String UPDATE_QUANTITY_SQL = "UPDATE beer SET quantity = ?, version = ? WHERE id = ?";
+    private static final int RECORD_SIZE = Long.BYTES + Long.BYTES + Integer.BYTES;
+
+    private final BeerRepository beerRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final BeerstockProperties.Ledger properties;
+    private final BeerMapper beerMapper = BeerMapper.INSTANCE;
+
+    private final ConcurrentMap<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final Set<Long> dirtyIds = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger pendingAdjustments = new AtomicInteger();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final ReadWriteLock rotationLock = new ReentrantReadWriteLock();
+    private final Lock flushLock = new ReentrantLock();
+    private final List<Path> unflushedSegments = new ArrayList<>();
+
+    private ScheduledExecutorService flusher;
+    private FileChannel logChannel;
+    private long segmentSequence;
+
+    public StockLedger(BeerRepository beerRepository,
+                       JdbcTemplate jdbcTemplate,
+                       BeerstockProperties beerstockProperties) {
+        this.beerRepository = beerRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = beerstockProperties.getLedger();
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        if (!isEnabled()) {
+            return;
+        }
+
+        replay();
+
+        logChannel = openLog();
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            var thread = new Thread(runnable, "stock-ledger-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        var interval = properties.getFlushInterval().toMillis();
+        flusher.scheduleWithFixedDelay(this::flushQuietly, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() throws IOException, InterruptedException {
+        if (flusher == null) {
+            return;
+        }
+
+        flusher.shutdown();
+        flusher.awaitTermination(properties.getFlushInterval().toMillis() * 2, TimeUnit.MILLISECONDS);
+
+        flush();
+
+        logChannel.close();
+    }
+
+    public BeerDTO increment(Long id, int quantityToIncrement) {
+        return adjust(id, quantityToIncrement, null);
+    }
+
+    /**
+     * Increments the stock only while the beer is still at the expected version, if any.
+     */
+    public BeerDTO increment(Long id, int quantityToIncrement, Long expectedVersion) {
+        return adjust(id, quantityToIncrement, expectedVersion);
+    }
+
+    public BeerDTO decrement(Long id, int quantityToDecrement) {
+        return adjust(id, -quantityToDecrement, null);
+    }
+
+    /**
+     * Decrements the stock only while the beer is still at the expected version, if any.
+     */
+    public BeerDTO decrement(Long id, int quantityToDecrement, Long expectedVersion) {
+        return adjust(id, -quantityToDecrement, expectedVersion);
+    }
+
+    /**
+     * Applies a list of operations while holding the rotation lock exclusively, so that no
+     * single adjustment interleaves with them and all-or-nothing requests stay atomic.
+     */
+    public BulkStockResponseDTO adjustAll(List<StockOperationDTO> operations, BulkMode mode) {
+        var adjustment = new BulkStockAdjustment(mode);
+        var touchedEntries = new LinkedHashMap<Long, Entry>();
+
+        // loaded before taking the lock, so a cache miss does not stall every other adjustment
+        for (var operation : operations) {
+            var id = operation.getId();
+
+            if (!touchedEntries.containsKey(id)) {
+                findEntry(id).ifPresent(entry -> touchedEntries.put(id, entry));
+            }
+        }
+
+        rotationLock.writeLock().lock();
+        try {
+            touchedEntries.forEach((id, entry) -> adjustment.track(id, entry.state.get().quantity, entry.beer.getMax()));
+
+            adjustment.apply(operations).changedQuantities().forEach((id, quantity) -> {
+                var entry = touchedEntries.get(id);
+                var next = new State(entry.state.get().version + 1, quantity);
+
+                append(id, next);
+                entry.state.set(next);
+                dirtyIds.add(id);
+                pendingAdjustments.incrementAndGet();
+            });
+        } finally {
+            rotationLock.writeLock().unlock();
+        }
+
+        return adjustment.toResponse();
+    }
+
+    /**
+     * Returns the beer with its in-memory quantity and version, if the ledger holds it.
+     */
+    public Optional<BeerDTO> find(Long id) {
+        return Optional.ofNullable(entries.get(id))
+                .map(entry -> entry.toDTO(entry.state.get()));
+    }
+
+    /**
+     * Returns the in-memory version of the beer, if the ledger holds it.
+     */
+    public Optional<Long> findVersion(Long id) {
+        return Optional.ofNullable(entries.get(id))
+                .map(entry -> entry.state.get().version);
+    }
+
+    /**
+     * Replaces the quantity and version of the given beer with the ones held in memory, if any.
+     */
+    public BeerDTO overlay(BeerDTO beerDTO) {
+        var entry = entries.get(beerDTO.getId());
+
+        if (entry != null) {
+            var state = entry.state.get();
+
+            beerDTO.setQuantity(state.quantity);
+            beerDTO.setVersion(state.version);
+        }
+
+        return beerDTO;
+    }
+
+    public void evict(Long id) {
+        rotationLock.readLock().lock();
+        try {
+            entries.remove(id);
+            dirtyIds.remove(id);
+        } finally {
+            rotationLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Writes every dirty quantity to the database in a single JDBC batch.
+     */
+    public void flush() {
+        flushLock.lock();
+        try {
+            var states = takeDirtyStates();
+
+            if (states.isEmpty()) {
+                return;
+            }
+
+            try {
+                writeStates(states);
+            } catch (RuntimeException exception) {
+                dirtyIds.addAll(states.keySet());
+
+                throw exception;
+            }
+
+            deleteSegments(unflushedSegments);
+            unflushedSegments.clear();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private BeerDTO adjust(Long id, int delta, Long expectedVersion) {
+        // loaded before taking the lock, so a cache miss does not hold back a rotation
+        var entry = entryFor(id);
+        State next;
+
+        rotationLock.readLock().lock();
+        try {
+            entry.lock.lock();
+            try {
+                var current = entry.state.get();
+                var quantity = current.quantity + delta;
+
+                if (expectedVersion != null && current.version != expectedVersion) {
+                    throw new BeerVersionMismatchException(id);
+                }
+
+                if (quantity > entry.beer.getMax()) {
+                    throw new BeerStockExceededException(id, delta);
+                }
+
+                if (quantity < 0) {
+                    throw new BeerStockInsufficientException(id, -delta);
+                }
+
+                next = new State(current.version + 1, quantity);
+
+                // a failed append leaves the previous state in place
+                append(id, next);
+                entry.state.set(next);
+            } finally {
+                entry.lock.unlock();
+            }
+
+            dirtyIds.add(id);
+        } finally {
+            rotationLock.readLock().unlock();
+        }
+
+        if (pendingAdjustments.incrementAndGet() >= properties.getFlushThreshold()
+                && flushRequested.compareAndSet(false, true)) {
+            requestFlush();
+        }
+
+        return entry.toDTO(next);
+    }
+
+    /**
+     * Hands a flush to the flusher. Once it is shut down the request is dropped, the final flush
+     * of {@link #stop()} writing whatever is left.
+     */
+    private void requestFlush() {
+        try {
+            flusher.execute(() -> {
+                flushRequested.set(false);
+                flushQuietly();
+            });
+        } catch (RejectedExecutionException exception) {
+            flushRequested.set(false);
+        }
+    }
+
+    private Map<Long, State> takeDirtyStates() {
+        rotationLock.writeLock().lock();
+        try {
+            if (dirtyIds.isEmpty()) {
+                return Map.of();
+            }
+
+            var states = new HashMap<Long, State>();
+
+            for (var id : dirtyIds) {
+                var entry = entries.get(id);
+
+                if (entry != null) {
+                    states.put(id, entry.state.get());
+                }
+            }
+
+            dirtyIds.clear();
+            pendingAdjustments.set(0);
+            unflushedSegments.add(rotateLog());
+
+            return states;
+        } finally {
+            rotationLock.writeLock().unlock();
+        }
+    }
+
+    private Entry entryFor(Long id) {
+        return findEntry(id).orElseThrow(() -> new BeerNotFoundException(id));
+    }
+
+    private Optional<Entry> findEntry(Long id) {
+        var entry = entries.get(id);
+
+        if (entry != null) {
+            return Optional.of(entry);
+        }
+
+        return beerRepository.findById(id)
+                .map(beer -> {
+                    var loaded = new Entry(beerMapper.toDTO(beer));
+                    var existing = entries.putIfAbsent(id, loaded);
+
+                    return existing != null ? existing : loaded;
+                });
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException exception) {
+            log.warn("Stock ledger flush failed, it will be retried on the next cycle", exception);
+        }
+    }
+
+    private void writeStates(Map<Long, State> states) {
+        var batchArgs = states.entrySet()
+                .stream()
+                .map(state -> new Object[]{state.getValue().quantity, state.getValue().version, state.getKey()})
+                .collect(Collectors.toList());
+
+        jdbcTemplate.batchUpdate(UPDATE_QUANTITY_SQL, batchArgs);
+    }
+
+    private void append(Long id, State state) {
+        var record = ByteBuffer.allocate(RECORD_SIZE)
+                .putLong(id)
+                .putLong(state.version)
+                .putInt(state.quantity)
+                .flip();
+
+        try {
+            while (record.hasRemaining()) {
+                logChannel.write(record);
+            }
+
+            if (properties.isSyncWrites()) {
+                logChannel.force(false);
+            }
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    private FileChannel openLog() throws IOException {
+        var logFile = logFile();
+
+        if (logFile.getParent() != null) {
+            Files.createDirectories(logFile.getParent());
+        }
+
+        return FileChannel.open(logFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private Path rotateLog() {
+        try {
+            logChannel.close();
+
+            var segment = Paths.get(logFile() + "." + (++segmentSequence));
+            Files.move(logFile(), segment);
+            logChannel = openLog();
+
+            return segment;
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    private void replay() throws IOException {
+        var segments = findSegments();
+
+        if (segments.isEmpty()) {
+            return;
+        }
+
+        var latest = new HashMap<Long, State>();
+
+        for (var segment : segments) {
+            var buffer = ByteBuffer.wrap(Files.readAllBytes(segment));
+
+            while (buffer.remaining() >= RECORD_SIZE) {
+                var id = buffer.getLong();
+                var state = new State(buffer.getLong(), buffer.getInt());
+
+                latest.merge(id, state, (previous, current) -> current.version > previous.version ? current : previous);
+            }
+        }
+
+        writeStates(latest);
+        deleteSegments(segments);
+
+        log.info("Replayed {} stock ledger adjustments from {} log segments", latest.size(), segments.size());
+    }
+
+    private List<Path> findSegments() throws IOException {
+        var logFile = logFile().toAbsolutePath();
+        var directory = logFile.getParent();
+
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+
+        var prefix = logFile.getFileName().toString();
+
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().startsWith(prefix))
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private void deleteSegments(List<Path> segments) {
+        for (var segment : segments) {
+            try {
+                Files.deleteIfExists(segment);
+            } catch (IOException exception) {
+                log.warn("Could not delete flushed stock ledger segment {}", segment, exception);
+            }
+        }
+    }
+
+    private Path logFile() {
+        return Paths.get(properties.getLogFile());
+    }
+
+    private static final class Entry {
+
+        private final BeerDTO beer;
+        private final AtomicReference<State> state;
+        private final Lock lock = new ReentrantLock();
+
+        private Entry(BeerDTO beer) {
+            this.beer = beer;
+            this.state = new AtomicReference<>(new State(Objects.requireNonNullElse(beer.getVersion(), 0L), beer.getQuantity()));
+        }
+
+        private BeerDTO toDTO(State state) {
+            return new BeerDTO(beer.getId(),
+                    beer.getName(),
+                    beer.getBrand(),
+                    beer.getMax(),
+                    state.quantity,
+                    beer.getType(),
+                    state.version);
+        }
+    }
+
+    private static final class State {
+
+        private final long version;
+        private final int quantity;
+
+        private State(long version, int quantity) {
+            this.version = version;
+            this.quantity = quantity;
+        }
+    }
+}
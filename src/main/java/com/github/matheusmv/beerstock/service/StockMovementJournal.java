@@ -0,0 +1,308 @@
+package com.github.matheusmv.beerstock.service;
+
+import com.github.matheusmv.beerstock.config.BeerstockProperties;
+import com.github.matheusmv.beerstock.dto.PageDTO;
+import com.github.matheusmv.beerstock.dto.StockChangeEventDTO;
+import com.github.matheusmv.beerstock.dto.StockMovementDTO;
+import com.github.matheusmv.beerstock.entity.StockMovement;
+import com.github.matheusmv.beerstock.enums.StockChangeKind;
+import com.github.matheusmv.beerstock.repository.StockMovementRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Append-only journal of stock movements.
+ * <p>
+ * Every committed increment and decrement, including the ones of a bulk adjustment, is put on
+ * a bounded lock-free queue; a background writer drains it in JDBC batches every flush
+ * interval, or as soon as a batch is full. When the queue is full the configured
+ * backpressure policy applies. On shutdown the queue stops accepting movements and is
+ * drained before the data source closes. Movements still in the queue are not visible to
+ * the history query yet.
+ */
+@Slf4j
+@Component
+public class StockMovementJournal {
+
+    public static final String ACTOR_HEADER = "X-User";
+    public static final String SYSTEM_ACTOR = "system";
+
+    private static final String INSERT_MOVEMENT_SQL =
+            "INSERT INTO stock_movement (beer_id, delta, quantity, actor, moved_at) VALUES (?, ?, ?, ?, ?)";
+    private static final int MAX_ACTOR_LENGTH = 255;
+    private static final long BLOCK_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final StockMovementRepository stockMovementRepository;
+    private final BeerstockProperties beerstockProperties;
+    private final BeerstockProperties.Journal properties;
+    private final Counter droppedMovements;
+
+    private final Queue<StockMovement> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queuedMovements = new AtomicInteger();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final Lock flushLock = new ReentrantLock();
+
+    private volatile boolean accepting = true;
+    private ScheduledExecutorService writer;
+
+    public StockMovementJournal(JdbcTemplate jdbcTemplate,
+                                StockMovementRepository stockMovementRepository,
+                                BeerstockProperties beerstockProperties,
+                                MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.stockMovementRepository = stockMovementRepository;
+        this.beerstockProperties = beerstockProperties;
+        this.properties = beerstockProperties.getJournal();
+        this.droppedMovements = Counter.builder("beerstock.journal.dropped")
+                .description("Stock movements discarded because the journal queue was full")
+                .register(meterRegistry);
+
+        Gauge.builder("beerstock.journal.pending", queuedMovements, AtomicInteger::get)
+                .description("Stock movements waiting to be written")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+
+        writer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            var thread = new Thread(runnable, "stock-movement-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        var interval = properties.getFlushInterval().toMillis();
+        writer.scheduleWithFixedDelay(this::flushQuietly, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        accepting = false;
+
+        if (writer != null) {
+            writer.shutdown();
+            writer.awaitTermination(properties.getShutdownTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        flush();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockChange(StockChangeEventDTO event) {
+        if (!properties.isEnabled()
+                || (event.getKind() != StockChangeKind.INCREMENTED && event.getKind() != StockChangeKind.DECREMENTED)) {
+            return;
+        }
+
+        record(new StockMovement(null,
+                event.getId(),
+                event.getNewQuantity() - event.getOldQuantity(),
+                event.getNewQuantity(),
+                currentActor(),
+                event.getTimestamp()));
+    }
+
+    public PageDTO<StockMovementDTO> findByBeer(Long beerId, int page, Integer size) {
+        var pageRequest = PageRequest.of(Math.max(page, 0), beerstockProperties.getPagination().resolveSize(size));
+        var movements = stockMovementRepository.findByBeerIdOrderByMovedAtDescIdDesc(beerId, pageRequest)
+                .map(this::toDTO);
+
+        return PageDTO.<StockMovementDTO>builder()
+                .content(movements.getContent())
+                .page(movements.getNumber())
+                .size(movements.getSize())
+                .totalElements(movements.getTotalElements())
+                .totalPages(movements.getTotalPages())
+                .build();
+    }
+
+    /**
+     * Writes every queued movement, one batch at a time.
+     */
+    public void flush() {
+        flushLock.lock();
+        try {
+            List<StockMovement> batch;
+
+            while (!(batch = takeBatch()).isEmpty()) {
+                try {
+                    write(batch);
+                } catch (RuntimeException exception) {
+                    batch.forEach(this::requeue);
+                    throw exception;
+                }
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    void record(StockMovement movement) {
+        if (!accepting) {
+            write(List.of(movement));
+            return;
+        }
+
+        if (!reserve()) {
+            switch (properties.getBackpressure()) {
+                case DROP -> {
+                    droppedMovements.increment();
+                    return;
+                }
+                case CALLER_RUNS -> {
+                    write(List.of(movement));
+                    return;
+                }
+                case BLOCK -> {
+                    var deadline = System.nanoTime() + properties.getBlockTimeout().toNanos();
+
+                    while (!reserve()) {
+                        if (!accepting) {
+                            write(List.of(movement));
+                            return;
+                        }
+
+                        // the stock change already committed, so the caller is never held past the timeout
+                        if (System.nanoTime() - deadline >= 0) {
+                            droppedMovements.increment();
+                            return;
+                        }
+
+                        requestFlush();
+                        LockSupport.parkNanos(BLOCK_PARK_NANOS);
+                    }
+                }
+            }
+        }
+
+        queue.offer(movement);
+
+        if (queuedMovements.get() >= properties.getBatchSize()) {
+            requestFlush();
+        }
+    }
+
+    int getQueuedMovements() {
+        return queuedMovements.get();
+    }
+
+    /**
+     * Takes a slot in the queue, failing when it is at capacity.
+     */
+    private boolean reserve() {
+        int queued;
+
+        do {
+            queued = queuedMovements.get();
+
+            if (queued >= properties.getCapacity()) {
+                return false;
+            }
+        } while (!queuedMovements.compareAndSet(queued, queued + 1));
+
+        return true;
+    }
+
+    private void requeue(StockMovement movement) {
+        queuedMovements.incrementAndGet();
+        queue.offer(movement);
+    }
+
+    private void requestFlush() {
+        if (writer != null && flushRequested.compareAndSet(false, true)) {
+            writer.execute(() -> {
+                flushRequested.set(false);
+                flushQuietly();
+            });
+        }
+    }
+
+    private List<StockMovement> takeBatch() {
+        var batch = new ArrayList<StockMovement>(Math.min(queuedMovements.get(), properties.getBatchSize()));
+        StockMovement movement;
+
+        while (batch.size() < properties.getBatchSize() && (movement = queue.poll()) != null) {
+            queuedMovements.decrementAndGet();
+            batch.add(movement);
+        }
+
+        return batch;
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException exception) {
+            log.warn("Stock movement journal flush failed, it will be retried on the next cycle", exception);
+        }
+    }
+
+    private void write(List<StockMovement> movements) {
+        var batchArgs = movements.stream()
+                .map(movement -> new Object[]{
+                        movement.getBeerId(),
+                        movement.getDelta(),
+                        movement.getQuantity(),
+                        movement.getActor(),
+                        Timestamp.from(movement.getMovedAt())})
+                .collect(Collectors.toList());
+
+        jdbcTemplate.batchUpdate(INSERT_MOVEMENT_SQL, batchArgs);
+    }
+
+    /**
+     * User named by the {@value #ACTOR_HEADER} header of the current request, or
+     * {@value #SYSTEM_ACTOR} outside of a servlet request.
+     */
+    private String currentActor() {
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+            var actor = attributes.getRequest().getHeader(ACTOR_HEADER);
+
+            if (actor != null && !actor.isBlank()) {
+                return actor.length() > MAX_ACTOR_LENGTH ? actor.substring(0, MAX_ACTOR_LENGTH) : actor;
+            }
+        }
+
+        return SYSTEM_ACTOR;
+    }
+
+    private StockMovementDTO toDTO(StockMovement movement) {
+        return StockMovementDTO.builder()
+                .id(movement.getId())
+                .beerId(movement.getBeerId())
+                .delta(movement.getDelta())
+                .quantity(movement.getQuantity())
+                .actor(movement.getActor())
+                .movedAt(movement.getMovedAt())
+                .build();
+    }
+}
@@ -0,0 +1,242 @@
+package com.github.matheusmv.beerstock.service;
+
+import com.github.matheusmv.beerstock.config.BeerstockProperties;
+import com.github.matheusmv.beerstock.dto.BeerMovementRankDTO;
+import com.github.matheusmv.beerstock.dto.StockChangeEventDTO;
+import com.github.matheusmv.beerstock.dto.StockRollupDTO;
+import com.github.matheusmv.beerstock.enums.BeerType;
+import com.github.matheusmv.beerstock.enums.RollupGranularity;
+import com.github.matheusmv.beerstock.enums.StockChangeKind;
+import com.github.matheusmv.beerstock.repository.StockRollupRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Pre-aggregated stock history: hourly and daily totals of the units incremented and
+ * decremented per beer.
+ * <p>
+ * Committed stock changes are added to in-memory totals keyed by beer, granularity and
+ * bucket, so a burst of changes to the same beer costs one row update per bucket. The totals
+ * are added to the stock_rollup table every flush interval, which is how far behind the
+ * queries can be. Series and rankings then read a handful of buckets instead of every
+ * movement.
+ */
+@Slf4j
+@Service
+public class StockRollupService {
+
+    private static final String ADD_TO_BUCKET_SQL = "UPDATE stock_rollup " +
+            "SET incremented = incremented + ?, decremented = decremented + ? " +
+            "WHERE beer_id = ? AND granularity = ? AND bucket_start = ?";
+    private static final String INSERT_BUCKET_SQL = "INSERT INTO stock_rollup " +
+            "(beer_id, beer_type, granularity, bucket_start, incremented, decremented) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final StockRollupRepository stockRollupRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final BeerstockProperties beerstockProperties;
+    private final BeerstockProperties.Rollups properties;
+
+    private final ConcurrentMap<BucketKey, Totals> pending = new ConcurrentHashMap<>();
+    private final Lock flushLock = new ReentrantLock();
+
+    private ScheduledExecutorService writer;
+
+    public StockRollupService(StockRollupRepository stockRollupRepository,
+                              JdbcTemplate jdbcTemplate,
+                              TransactionTemplate transactionTemplate,
+                              BeerstockProperties beerstockProperties) {
+        this.stockRollupRepository = stockRollupRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.beerstockProperties = beerstockProperties;
+        this.properties = beerstockProperties.getRollups();
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+
+        writer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            var thread = new Thread(runnable, "stock-rollup-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        var interval = properties.getFlushInterval().toMillis();
+        writer.scheduleWithFixedDelay(this::flushQuietly, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (writer == null) {
+            return;
+        }
+
+        writer.shutdown();
+        writer.awaitTermination(properties.getFlushInterval().toMillis() * 2, TimeUnit.MILLISECONDS);
+
+        flush();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockChange(StockChangeEventDTO event) {
+        if (!properties.isEnabled()
+                || (event.getKind() != StockChangeKind.INCREMENTED && event.getKind() != StockChangeKind.DECREMENTED)) {
+            return;
+        }
+
+        var delta = event.getNewQuantity() - event.getOldQuantity();
+        var totals = delta >= 0 ? new Totals(event.getType(), delta, 0) : new Totals(event.getType(), 0, -delta);
+
+        for (var granularity : RollupGranularity.values()) {
+            var key = new BucketKey(event.getId(), granularity, granularity.bucketOf(event.getTimestamp()));
+            pending.merge(key, totals, Totals::plus);
+        }
+    }
+
+    /**
+     * Buckets of a beer within {@code [from, to)}, oldest first. Without a window, the
+     * default window of the granularity ending now is used.
+     */
+    public List<StockRollupDTO> findSeries(Long beerId, RollupGranularity granularity, Instant from, Instant to) {
+        var end = to != null ? to : Instant.now();
+        var start = from != null ? from : end.minus(granularity.getDefaultWindow());
+
+        return stockRollupRepository.findSeries(beerId, granularity, granularity.bucketOf(start), end)
+                .stream()
+                .map(rollup -> StockRollupDTO.builder()
+                        .bucketStart(rollup.getBucketStart())
+                        .incremented(rollup.getIncremented())
+                        .decremented(rollup.getDecremented())
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Beers with the most units decremented within {@code [from, to)}, optionally of one type.
+     */
+    public List<BeerMovementRankDTO> findTopMoving(RollupGranularity granularity, BeerType type,
+                                                   Instant from, Instant to, Integer limit) {
+        var end = to != null ? to : Instant.now();
+        var start = from != null ? from : end.minus(granularity.getDefaultWindow());
+        var size = beerstockProperties.getPagination().resolveSize(limit);
+
+        return stockRollupRepository.findTopMoving(granularity, type, granularity.bucketOf(start), end, PageRequest.of(0, size));
+    }
+
+    /**
+     * Adds the pending totals to their buckets in one transaction: one batch of updates,
+     * then one batch of inserts for the buckets that did not exist yet.
+     */
+    public void flush() {
+        flushLock.lock();
+        try {
+            var totals = takePending();
+
+            if (totals.isEmpty()) {
+                return;
+            }
+
+            try {
+                transactionTemplate.executeWithoutResult(status -> write(totals));
+            } catch (RuntimeException exception) {
+                totals.forEach((key, value) -> pending.merge(key, value, Totals::plus));
+                throw exception;
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private Map<BucketKey, Totals> takePending() {
+        var totals = new LinkedHashMap<BucketKey, Totals>();
+
+        // remove is atomic per key, a concurrent merge after it starts a new total
+        for (var key : pending.keySet()) {
+            var value = pending.remove(key);
+
+            if (value != null) {
+                totals.put(key, value);
+            }
+        }
+
+        return totals;
+    }
+
+    private void write(Map<BucketKey, Totals> totals) {
+        var keys = new ArrayList<>(totals.keySet());
+        var updateArgs = keys.stream()
+                .map(key -> new Object[]{
+                        totals.get(key).incremented(),
+                        totals.get(key).decremented(),
+                        key.beerId(),
+                        key.granularity().name(),
+                        Timestamp.from(key.bucketStart())})
+                .collect(Collectors.toList());
+
+        var updatedRows = jdbcTemplate.batchUpdate(ADD_TO_BUCKET_SQL, updateArgs);
+
+        var insertArgs = new ArrayList<Object[]>();
+
+        for (int i = 0; i < keys.size(); i++) {
+            if (updatedRows[i] == 0) {
+                var key = keys.get(i);
+                var value = totals.get(key);
+
+                insertArgs.add(new Object[]{
+                        key.beerId(),
+                        value.type().name(),
+                        key.granularity().name(),
+                        Timestamp.from(key.bucketStart()),
+                        value.incremented(),
+                        value.decremented()});
+            }
+        }
+
+        if (!insertArgs.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_BUCKET_SQL, insertArgs);
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException exception) {
+            log.warn("Stock rollup flush failed, it will be retried on the next cycle", exception);
+        }
+    }
+
+    private record BucketKey(Long beerId, RollupGranularity granularity, Instant bucketStart) {
+    }
+
+    private record Totals(BeerType type, long incremented, long decremented) {
+
+        private Totals plus(Totals other) {
+            return new Totals(type, incremented + other.incremented, decremented + other.decremented);
+        }
+    }
+}
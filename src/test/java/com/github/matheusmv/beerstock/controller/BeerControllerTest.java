@@ -1,34 +1,90 @@
 package com.github.matheusmv.beerstock.controller;
 
 import com.github.matheusmv.beerstock.builder.BeerDTOBuilder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.github.matheusmv.beerstock.config.BeerstockProperties;
+import com.github.matheusmv.beerstock.config.WireFormatConfig;
+import com.github.matheusmv.beerstock.dto.BeerDTO;
+import com.github.matheusmv.beerstock.dto.BeerImportResponseDTO;
+import com.github.matheusmv.beerstock.dto.BeerImportResultDTO;
+import com.github.matheusmv.beerstock.dto.BeerVersionDTO;
+import com.github.matheusmv.beerstock.dto.BulkStockRequestDTO;
+import com.github.matheusmv.beerstock.dto.BulkStockResponseDTO;
+import com.github.matheusmv.beerstock.dto.CursorPageDTO;
+import com.github.matheusmv.beerstock.dto.PageDTO;
 import com.github.matheusmv.beerstock.dto.QuantityDTO;
+import com.github.matheusmv.beerstock.dto.StockAlertDTO;
+import com.github.matheusmv.beerstock.dto.StockOperationDTO;
+import com.github.matheusmv.beerstock.dto.StockOperationResultDTO;
+import com.github.matheusmv.beerstock.enums.BeerImportStatus;
+import com.github.matheusmv.beerstock.enums.BeerType;
+import com.github.matheusmv.beerstock.enums.BulkMode;
+import com.github.matheusmv.beerstock.enums.StockAlertKind;
+import com.github.matheusmv.beerstock.enums.StockOperationStatus;
 import com.github.matheusmv.beerstock.exception.BeerNotFoundException;
 import com.github.matheusmv.beerstock.exception.BeerStockExceededException;
+import com.github.matheusmv.beerstock.exception.BeerStockInsufficientException;
+import com.github.matheusmv.beerstock.exception.BeerVersionMismatchException;
+import com.github.matheusmv.beerstock.exception.GlobalExceptionHandler;
+import com.github.matheusmv.beerstock.service.BeerExportService;
+import com.github.matheusmv.beerstock.service.BeerImportService;
 import com.github.matheusmv.beerstock.service.BeerService;
+import com.github.matheusmv.beerstock.service.IdempotencyService;
+import com.github.matheusmv.beerstock.service.InMemoryIdempotencyStore;
+import com.github.matheusmv.beerstock.service.StockAlertService;
+import com.github.matheusmv.beerstock.service.StockEventBroadcaster;
+import com.github.matheusmv.beerstock.service.StockMovementJournal;
+import com.github.matheusmv.beerstock.service.StockRollupService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.servlet.view.json.MappingJackson2JsonView;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
 
 import static com.github.matheusmv.beerstock.utils.JsonConvertionUtils.asJsonString;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.startsWith;
 import static org.hamcrest.core.Is.is;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @ExtendWith(MockitoExtension.class)
@@ -39,12 +95,39 @@ public class BeerControllerTest {
     private static final long INVALID_BEER_ID = 2L;
     private static final String BEER_API_SUB_PATH_INCREMENT_URL = "/increment";
     private static final String BEER_API_SUB_PATH_DECREMENT_URL = "/decrement";
+    private static final String BEER_API_SUB_PATH_STOCK_URL = "/stock";
+    private static final String BEER_API_SUB_PATH_IMPORT_URL = "/import";
+    private static final String BEER_API_SUB_PATH_LOW_STOCK_URL = "/alerts/low-stock";
+    private static final String NEXT_CURSOR = "MQ";
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
 
     private MockMvc mockMvc;
 
     @Mock
     private BeerService beerService;
 
+    @Mock
+    private BeerExportService beerExportService;
+
+    @Mock
+    private BeerImportService beerImportService;
+
+    @Mock
+    private StockEventBroadcaster stockEventBroadcaster;
+
+    @Mock
+    private StockAlertService stockAlertService;
+
+    @Mock
+    private StockMovementJournal stockMovementJournal;
+
+    @Mock
+    private StockRollupService stockRollupService;
+
+    @Spy
+    private IdempotencyService idempotencyService =
+            new IdempotencyService(new InMemoryIdempotencyStore(new BeerstockProperties()), new SimpleMeterRegistry());
+
     @InjectMocks
     private BeerController beerController;
 
@@ -104,6 +187,102 @@ public class BeerControllerTest {
                 .andExpect(jsonPath("$.type", is(beerDTO.getType().toString())));
     }
 
+    @Test
+    void whenGETIsCalledWithTheCurrentETagThenNotModifiedStatusIsReturnedWithoutLoadingTheBeer() throws Exception {
+        // given
+        var beerDTO = BeerDTOBuilder.builder().version(3L).build().toBeerDTO();
+        var beerVersion = BeerVersionDTO.builder().id(beerDTO.getId()).version(beerDTO.getVersion()).build();
+
+        //when
+        when(beerService.findVersion(beerDTO.getName())).thenReturn(Optional.of(beerVersion));
+
+        // then
+        mockMvc.perform(get(BEER_API_URL_PATH + "/" + beerDTO.getName())
+                .header(HttpHeaders.IF_NONE_MATCH, "\"1-3\"")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1-3\""));
+
+        verify(beerService, never()).findByName(anyString());
+    }
+
+    @Test
+    void whenGETIsCalledWithAStaleETagThenTheBeerIsReturnedWithItsCurrentETag() throws Exception {
+        // given
+        var beerDTO = BeerDTOBuilder.builder().version(4L).build().toBeerDTO();
+        var beerVersion = BeerVersionDTO.builder().id(beerDTO.getId()).version(beerDTO.getVersion()).build();
+
+        //when
+        when(beerService.findVersion(beerDTO.getName())).thenReturn(Optional.of(beerVersion));
+        when(beerService.findByName(beerDTO.getName())).thenReturn(beerDTO);
+
+        // then
+        mockMvc.perform(get(BEER_API_URL_PATH + "/" + beerDTO.getName())
+                .header(HttpHeaders.IF_NONE_MATCH, "\"1-3\"")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1-4\""))
+                .andExpect(jsonPath("$.version", is(4)));
+    }
+
+    @Test
+    void whenGETIsCalledAcceptingCborThenTheETagNamesTheRepresentationAndVariesOnAccept() throws Exception {
+        // given
+        var beerDTO = BeerDTOBuilder.builder().version(3L).build().toBeerDTO();
+        var beerVersion = BeerVersionDTO.builder().id(beerDTO.getId()).version(beerDTO.getVersion()).build();
+        var cborMockMvc = MockMvcBuilders.standaloneSetup(beerController)
+                .setMessageConverters(new MappingJackson2CborHttpMessageConverter(cborMapper()),
+                        new MappingJackson2HttpMessageConverter())
+                .build();
+
+        //when
+        when(beerService.findVersion(beerDTO.getName())).thenReturn(Optional.of(beerVersion));
+        when(beerService.findByName(beerDTO.getName())).thenReturn(beerDTO);
+
+        // then
+        cborMockMvc.perform(get(BEER_API_URL_PATH + "/" + beerDTO.getName())
+                .header(HttpHeaders.IF_NONE_MATCH, "\"1-3\"")
+                .accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1-3+cbor\""))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT));
+
+        cborMockMvc.perform(get(BEER_API_URL_PATH + "/" + beerDTO.getName())
+                .header(HttpHeaders.IF_NONE_MATCH, "\"1-3+cbor\"")
+                .accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT));
+    }
+
+    @Test
+    void whenGETIsCalledAcceptingCborThenTheBeerIsEncodedWithItsTypeAsAnOrdinal() throws Exception {
+        // given
+        var beerDTO = BeerDTOBuilder.builder().type(BeerType.IPA).build().toBeerDTO();
+        var cborMapper = cborMapper();
+        var cborMockMvc = MockMvcBuilders.standaloneSetup(beerController)
+                .setMessageConverters(new MappingJackson2CborHttpMessageConverter(cborMapper),
+                        new MappingJackson2HttpMessageConverter())
+                .build();
+
+        //when
+        when(beerService.findByName(beerDTO.getName())).thenReturn(beerDTO);
+
+        // then
+        var body = cborMockMvc.perform(get(BEER_API_URL_PATH + "/" + beerDTO.getName())
+                .accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn()
+                .getResponse()
+                .getContentAsByteArray();
+        var tree = cborMapper.readTree(body);
+
+        assertAll("cbor beer test",
+                () -> assertThat(tree.get("type").asInt(), is(equalTo(BeerType.IPA.ordinal()))),
+                () -> assertThat(cborMapper.readValue(body, BeerDTO.class), is(equalTo(beerDTO)))
+        );
+    }
+
     @Test
     void whenGETIsCalledWithoutRegisteredNameThenNotFoundStatusIsReturned() throws Exception {
         // given
@@ -122,31 +301,174 @@ public class BeerControllerTest {
     void whenGETListWithBeersIsCalledThenOkStatusIsReturned() throws Exception {
         // given
         var beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        var pageOfBeers = CursorPageDTO.<BeerDTO>builder()
+                .content(Collections.singletonList(beerDTO))
+                .size(1)
+                .nextCursor(NEXT_CURSOR)
+                .build();
 
         //when
-        when(beerService.listAll()).thenReturn(Collections.singletonList(beerDTO));
+        when(beerService.listAfter(null, 1)).thenReturn(pageOfBeers);
 
         // then
         mockMvc.perform(get(BEER_API_URL_PATH)
+                .param("size", "1")
                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$[0].name", is(beerDTO.getName())))
-                .andExpect(jsonPath("$[0].brand", is(beerDTO.getBrand())))
-                .andExpect(jsonPath("$[0].type", is(beerDTO.getType().toString())));
+                .andExpect(jsonPath("$.content[0].name", is(beerDTO.getName())))
+                .andExpect(jsonPath("$.content[0].brand", is(beerDTO.getBrand())))
+                .andExpect(jsonPath("$.content[0].type", is(beerDTO.getType().toString())))
+                .andExpect(jsonPath("$.nextCursor", is(NEXT_CURSOR)));
     }
 
     @Test
     void whenGETListWithoutBeersIsCalledThenOkStatusIsReturned() throws Exception {
+        // given
+        var pageOfBeers = CursorPageDTO.<BeerDTO>builder()
+                .content(Collections.emptyList())
+                .size(50)
+                .build();
+
+        //when
+        when(beerService.listAfter(NEXT_CURSOR, null)).thenReturn(pageOfBeers);
+
+        // then
+        mockMvc.perform(get(BEER_API_URL_PATH)
+                .param("cursor", NEXT_CURSOR)
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", is(empty())));
+    }
+
+    @Test
+    void whenGETListIsCalledWithTheCurrentPageETagThenNotModifiedStatusIsReturned() throws Exception {
         // given
         var beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        beerDTO.setVersion(3L);
+        var pageOfBeers = CursorPageDTO.<BeerDTO>builder()
+                .content(Collections.singletonList(beerDTO))
+                .size(1)
+                .nextCursor(NEXT_CURSOR)
+                .build();
 
         //when
-        when(beerService.listAll()).thenReturn(Collections.singletonList(beerDTO));
+        when(beerService.listAfter(null, 1)).thenReturn(pageOfBeers);
+        var eTag = mockMvc.perform(get(BEER_API_URL_PATH)
+                .param("size", "1")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
 
         // then
         mockMvc.perform(get(BEER_API_URL_PATH)
+                .param("size", "1")
+                .header(HttpHeaders.IF_NONE_MATCH, eTag)
                 .contentType(MediaType.APPLICATION_JSON))
-                .andExpect(status().isOk());
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void whenABeerOfThePageChangesThenThePageETagChanges() throws Exception {
+        // given
+        var beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        beerDTO.setVersion(3L);
+        var changedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        changedBeerDTO.setVersion(4L);
+
+        //when
+        when(beerService.listAfter(null, 1))
+                .thenReturn(CursorPageDTO.<BeerDTO>builder().content(List.of(beerDTO)).size(1).build())
+                .thenReturn(CursorPageDTO.<BeerDTO>builder().content(List.of(changedBeerDTO)).size(1).build());
+        var eTag = mockMvc.perform(get(BEER_API_URL_PATH)
+                .param("size", "1"))
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+
+        // then
+        mockMvc.perform(get(BEER_API_URL_PATH)
+                .param("size", "1")
+                .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].version", is(4)));
+    }
+
+    @Test
+    void whenGETListWithPageNumberIsCalledThenOkStatusIsReturned() throws Exception {
+        // given
+        var beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        var pageOfBeers = PageDTO.<BeerDTO>builder()
+                .content(Collections.singletonList(beerDTO))
+                .page(2)
+                .size(10)
+                .totalElements(21)
+                .totalPages(3)
+                .build();
+
+        //when
+        when(beerService.listPage(2, 10)).thenReturn(pageOfBeers);
+
+        // then
+        mockMvc.perform(get(BEER_API_URL_PATH)
+                .param("page", "2")
+                .param("size", "10")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].name", is(beerDTO.getName())))
+                .andExpect(jsonPath("$.page", is(2)))
+                .andExpect(jsonPath("$.totalPages", is(3)));
+    }
+
+    @Test
+    void whenGETListIsCalledAcceptingNdjsonThenTheCatalogIsStreamed() throws Exception {
+        // given
+        var ndjson = asJsonString(BeerDTOBuilder.builder().build().toBeerDTO()) + "\n";
+
+        //when
+        doAnswer(invocation -> {
+            invocation.<OutputStream>getArgument(0).write(ndjson.getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(beerExportService).writeNdjson(any());
+
+        // then
+        var result = mockMvc.perform(get(BEER_API_URL_PATH)
+                .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(ndjson));
+    }
+
+    @Test
+    void whenPOSTIsCalledToImportBeersThenTheOutcomeOfEachBeerIsReturned() throws Exception {
+        // given
+        var beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        var importResponse = BeerImportResponseDTO.builder()
+                .created(1)
+                .results(List.of(BeerImportResultDTO.builder()
+                        .index(0)
+                        .name(beerDTO.getName())
+                        .status(BeerImportStatus.CREATED)
+                        .id(beerDTO.getId())
+                        .build()))
+                .build();
+
+        // when
+        when(beerImportService.importBeers(List.of(beerDTO))).thenReturn(importResponse);
+
+        // then
+        mockMvc.perform(post(BEER_API_URL_PATH + BEER_API_SUB_PATH_IMPORT_URL)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(List.of(beerDTO))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created", is(1)))
+                .andExpect(jsonPath("$.results[0].status", is(BeerImportStatus.CREATED.toString())))
+                .andExpect(jsonPath("$.results[0].name", is(beerDTO.getName())));
     }
 
     @Test
@@ -195,6 +517,110 @@ public class BeerControllerTest {
                 .andExpect(jsonPath("$.quantity", is(beerDTO.getQuantity())));
     }
 
+    @Test
+    void whenPATCHIsRetriedWithTheSameIdempotencyKeyThenTheStockIsIncrementedOnce() throws Exception {
+        // given
+        var quantityDTO = QuantityDTO.builder().quantity(10).build();
+        var beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        beerDTO.setQuantity(beerDTO.getQuantity() + quantityDTO.getQuantity());
+
+        // when
+        when(beerService.increment(VALID_BEER_ID, quantityDTO.getQuantity())).thenReturn(beerDTO);
+
+        // then
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(patch(BEER_API_URL_PATH + "/" + VALID_BEER_ID + BEER_API_SUB_PATH_INCREMENT_URL)
+                    .header(IDEMPOTENCY_KEY_HEADER, "increment-colorado-1")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(asJsonString(quantityDTO)))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.quantity", is(beerDTO.getQuantity())));
+        }
+
+        verify(beerService, times(1)).increment(VALID_BEER_ID, quantityDTO.getQuantity());
+    }
+
+    @Test
+    void whenPATCHReusesAnIdempotencyKeyForAnotherRequestThenUnprocessableEntityStatusIsReturned() throws Exception {
+        // given
+        var quantityDTO = QuantityDTO.builder().quantity(10).build();
+        var beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+
+        // when
+        when(beerService.increment(VALID_BEER_ID, quantityDTO.getQuantity())).thenReturn(beerDTO);
+
+        mockMvc.perform(patch(BEER_API_URL_PATH + "/" + VALID_BEER_ID + BEER_API_SUB_PATH_INCREMENT_URL)
+                .header(IDEMPOTENCY_KEY_HEADER, "stock-colorado-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(quantityDTO)))
+                .andExpect(status().isOk());
+
+        // then
+        mockMvc.perform(patch(BEER_API_URL_PATH + "/" + VALID_BEER_ID + BEER_API_SUB_PATH_DECREMENT_URL)
+                .header(IDEMPOTENCY_KEY_HEADER, "stock-colorado-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(quantityDTO)))
+                .andExpect(status().isUnprocessableEntity());
+    }
+
+    @Test
+    void whenPATCHIsCalledWithAStaleIfMatchThenPreconditionFailedStatusIsReturned() throws Exception {
+        // given
+        var quantityDTO = QuantityDTO.builder().quantity(10).build();
+
+        // when
+        when(beerService.increment(VALID_BEER_ID, quantityDTO.getQuantity(), 3L))
+                .thenThrow(new BeerVersionMismatchException(VALID_BEER_ID));
+
+        // then
+        mockMvc.perform(patch(BEER_API_URL_PATH + "/" + VALID_BEER_ID + BEER_API_SUB_PATH_INCREMENT_URL)
+                .header(HttpHeaders.IF_MATCH, "\"" + VALID_BEER_ID + "-3\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(quantityDTO)))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void whenPATCHIsCalledWithTheIfMatchOfABinaryRepresentationThenTheVersionIsChecked() throws Exception {
+        // given
+        var quantityDTO = QuantityDTO.builder().quantity(10).build();
+        var beerDTO = BeerDTOBuilder.builder().version(4L).build().toBeerDTO();
+
+        // when
+        when(beerService.increment(VALID_BEER_ID, quantityDTO.getQuantity(), 3L)).thenReturn(beerDTO);
+
+        // then
+        mockMvc.perform(patch(BEER_API_URL_PATH + "/" + VALID_BEER_ID + BEER_API_SUB_PATH_INCREMENT_URL)
+                .header(HttpHeaders.IF_MATCH, "\"" + VALID_BEER_ID + "-3+smile\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(quantityDTO)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + VALID_BEER_ID + "-4\""));
+    }
+
+    @Test
+    void whenPATCHIsCalledWithACborBodyThenOKStatusIsReturned() throws Exception {
+        // given
+        var quantityDTO = QuantityDTO.builder().quantity(10).build();
+        var beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        var cborMapper = cborMapper();
+        var cborMockMvc = MockMvcBuilders.standaloneSetup(beerController)
+                .setMessageConverters(new MappingJackson2CborHttpMessageConverter(cborMapper),
+                        new MappingJackson2HttpMessageConverter())
+                .build();
+
+        // when
+        when(beerService.increment(VALID_BEER_ID, quantityDTO.getQuantity())).thenReturn(beerDTO);
+
+        // then
+        cborMockMvc.perform(patch(BEER_API_URL_PATH + "/" + VALID_BEER_ID + BEER_API_SUB_PATH_INCREMENT_URL)
+                .contentType(MediaType.APPLICATION_CBOR)
+                .accept(MediaType.APPLICATION_JSON)
+                .content(cborMapper.writeValueAsBytes(quantityDTO)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.quantity", is(beerDTO.getQuantity())));
+    }
+
     @Test
     void whenPATCHIsCalledToIncrementGreaterThanMaxThenBadRequestStatusIsReturned() throws Exception {
         // given
@@ -284,4 +710,125 @@ public class BeerControllerTest {
                 .content(asJsonString(quantityDTO)))
                 .andExpect(status().isNotFound());
     }
+
+    @Test
+    void whenPATCHIsCalledToDecrementBelowTheStockThenTheErrorIsDescribedByTheExceptionHandler() throws Exception {
+        // given
+        var quantityDTO = QuantityDTO.builder().quantity(5).build();
+        var exception = new BeerStockInsufficientException(VALID_BEER_ID, quantityDTO.getQuantity());
+        var path = BEER_API_URL_PATH + "/" + VALID_BEER_ID + BEER_API_SUB_PATH_DECREMENT_URL;
+
+        // when
+        when(beerService.decrement(VALID_BEER_ID, quantityDTO.getQuantity())).thenThrow(exception);
+
+        // then
+        mockMvcWithExceptionHandler().perform(patch(path)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(quantityDTO)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status", is(400)))
+                .andExpect(jsonPath("$.error", is("BeerStockInsufficientException")))
+                .andExpect(jsonPath("$.message", is(exception.getMessage())))
+                .andExpect(jsonPath("$.path", is(path)));
+
+        assertThat(exception.getStackTrace().length, is(0));
+    }
+
+    @Test
+    void whenPOSTIsCalledWithoutRequiredFieldThenTheErrorIsDescribedByTheExceptionHandler() throws Exception {
+        // given
+        var beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        beerDTO.setBrand(null);
+
+        // then
+        mockMvcWithExceptionHandler().perform(post(BEER_API_URL_PATH)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(beerDTO)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status", is(400)))
+                .andExpect(jsonPath("$.error", is("MethodArgumentNotValidException")))
+                .andExpect(jsonPath("$.message", startsWith("brand ")))
+                .andExpect(jsonPath("$.path", is(BEER_API_URL_PATH)));
+
+        verify(beerService, never()).createBeer(any());
+    }
+
+    @Test
+    void whenPATCHIsCalledToAdjustStockInBulkThenOKStatusIsReturned() throws Exception {
+        // given
+        var operations = List.of(new StockOperationDTO(VALID_BEER_ID, 10));
+        var request = BulkStockRequestDTO.builder().mode(BulkMode.ALL_OR_NOTHING).operations(operations).build();
+        var result = StockOperationResultDTO.builder()
+                .id(VALID_BEER_ID)
+                .delta(10)
+                .status(StockOperationStatus.APPLIED)
+                .quantity(20)
+                .build();
+        var response = BulkStockResponseDTO.builder()
+                .mode(BulkMode.ALL_OR_NOTHING)
+                .applied(1)
+                .results(List.of(result))
+                .build();
+
+        // when
+        when(beerService.adjustStock(operations, BulkMode.ALL_OR_NOTHING)).thenReturn(response);
+
+        // then
+        mockMvc.perform(patch(BEER_API_URL_PATH + BEER_API_SUB_PATH_STOCK_URL)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.applied", is(1)))
+                .andExpect(jsonPath("$.results[0].status", is(StockOperationStatus.APPLIED.toString())))
+                .andExpect(jsonPath("$.results[0].quantity", is(20)));
+    }
+
+    @Test
+    void whenPATCHIsCalledToAdjustStockInBulkWithInvalidItemThenBadRequestStatusIsReturned() throws Exception {
+        // given
+        var request = BulkStockRequestDTO.builder()
+                .operations(List.of(new StockOperationDTO(VALID_BEER_ID, 101)))
+                .build();
+
+        // then
+        mockMvc.perform(patch(BEER_API_URL_PATH + BEER_API_SUB_PATH_STOCK_URL)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(request)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void whenGETLowStockIsCalledThenTheBeersInLowStockAlertAreReturned() throws Exception {
+        // given
+        var beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        var alert = StockAlertDTO.builder()
+                .kind(StockAlertKind.LOW_STOCK)
+                .id(beerDTO.getId())
+                .name(beerDTO.getName())
+                .quantity(1)
+                .max(beerDTO.getMax())
+                .threshold(2)
+                .build();
+
+        // when
+        when(stockAlertService.findActive(StockAlertKind.LOW_STOCK)).thenReturn(List.of(alert));
+
+        // then
+        mockMvc.perform(get(BEER_API_URL_PATH + BEER_API_SUB_PATH_LOW_STOCK_URL)
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name", is(beerDTO.getName())))
+                .andExpect(jsonPath("$[0].kind", is(StockAlertKind.LOW_STOCK.toString())))
+                .andExpect(jsonPath("$[0].threshold", is(2)));
+    }
+
+    private MockMvc mockMvcWithExceptionHandler() {
+        return MockMvcBuilders.standaloneSetup(beerController)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    private static ObjectMapper cborMapper() {
+        return WireFormatConfig.binaryObjectMapper(Jackson2ObjectMapperBuilder.cbor(), new CBORFactory());
+    }
 }
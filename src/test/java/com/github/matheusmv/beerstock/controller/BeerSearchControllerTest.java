@@ -0,0 +1,138 @@
+package com.github.matheusmv.beerstock.controller;
+
+import com.github.matheusmv.beerstock.builder.BeerDTOBuilder;
+import com.github.matheusmv.beerstock.dto.BeerDTO;
+import com.github.matheusmv.beerstock.dto.BeerSearchCriteriaDTO;
+import com.github.matheusmv.beerstock.dto.BeerSuggestionDTO;
+import com.github.matheusmv.beerstock.dto.PageDTO;
+import com.github.matheusmv.beerstock.enums.BeerSortField;
+import com.github.matheusmv.beerstock.enums.BeerType;
+import com.github.matheusmv.beerstock.service.BeerNameIndex;
+import com.github.matheusmv.beerstock.service.BeerService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+
+import static org.hamcrest.core.Is.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+public class BeerSearchControllerTest {
+
+    private static final String SEARCH_API_URL_PATH = "/api/v1/search/beers";
+    private static final String SEARCH_API_SUB_PATH_AUTOCOMPLETE_URL = "/autocomplete";
+
+    private MockMvc mockMvc;
+
+    @Mock
+    private BeerService beerService;
+
+    @Mock
+    private BeerNameIndex beerNameIndex;
+
+    @InjectMocks
+    private BeerSearchController beerSearchController;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(beerSearchController).build();
+    }
+
+    @Test
+    void whenGETIsCalledWithFiltersThenTheMatchingPageIsReturned() throws Exception {
+        // given
+        var beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        var criteria = BeerSearchCriteriaDTO.builder()
+                .type(BeerType.LAGER)
+                .brand("Ambev")
+                .minQuantity(5)
+                .inStock(true)
+                .build();
+        var page = PageDTO.<BeerDTO>builder()
+                .content(List.of(beerDTO))
+                .page(0)
+                .size(20)
+                .totalElements(1)
+                .totalPages(1)
+                .build();
+
+        // when
+        when(beerService.search(criteria, 0, 20, BeerSortField.QUANTITY, Sort.Direction.DESC)).thenReturn(page);
+
+        // then
+        mockMvc.perform(get(SEARCH_API_URL_PATH)
+                .param("type", "LAGER")
+                .param("brand", "Ambev")
+                .param("minQuantity", "5")
+                .param("inStock", "true")
+                .param("size", "20")
+                .param("sort", "QUANTITY")
+                .param("direction", "DESC")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].name", is(beerDTO.getName())))
+                .andExpect(jsonPath("$.totalElements", is(1)));
+    }
+
+    @Test
+    void whenGETIsCalledWithNegativeQuantityThenBadRequestStatusIsReturned() throws Exception {
+        mockMvc.perform(get(SEARCH_API_URL_PATH)
+                .param("minQuantity", "-1")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+
+        verify(beerService, never()).search(any(), anyInt(), any(), any(), any());
+    }
+
+    @Test
+    void whenGETIsCalledWithUnknownSortFieldThenBadRequestStatusIsReturned() throws Exception {
+        mockMvc.perform(get(SEARCH_API_URL_PATH)
+                .param("sort", "PRICE")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void whenGETAutocompleteIsCalledThenTheSuggestionsAreReturned() throws Exception {
+        // given
+        var suggestion = BeerSuggestionDTO.builder().id(1L).name("Colorado Appia").brand("Colorado").build();
+
+        // when
+        when(beerNameIndex.suggest("col ap", 5)).thenReturn(List.of(suggestion));
+
+        // then
+        mockMvc.perform(get(SEARCH_API_URL_PATH + SEARCH_API_SUB_PATH_AUTOCOMPLETE_URL)
+                .param("q", "col ap")
+                .param("limit", "5")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name", is(suggestion.getName())))
+                .andExpect(jsonPath("$[0].brand", is(suggestion.getBrand())));
+    }
+
+    @Test
+    void whenGETAutocompleteIsCalledWithATooLongQueryThenBadRequestStatusIsReturned() throws Exception {
+        mockMvc.perform(get(SEARCH_API_URL_PATH + SEARCH_API_SUB_PATH_AUTOCOMPLETE_URL)
+                .param("q", "a".repeat(201))
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+
+        verify(beerNameIndex, never()).suggest(any(), any());
+    }
+}
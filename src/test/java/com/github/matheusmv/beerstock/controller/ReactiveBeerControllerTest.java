@@ -0,0 +1,173 @@
+package com.github.matheusmv.beerstock.controller;
+
+import com.github.matheusmv.beerstock.builder.BeerDTOBuilder;
+import com.github.matheusmv.beerstock.dto.BeerDTO;
+import com.github.matheusmv.beerstock.dto.QuantityDTO;
+import com.github.matheusmv.beerstock.entity.StockThreshold;
+import com.github.matheusmv.beerstock.exception.BeerStockExceededException;
+import com.github.matheusmv.beerstock.repository.ReactiveBeerRepository;
+import com.github.matheusmv.beerstock.repository.StockThresholdRepository;
+import com.github.matheusmv.beerstock.service.BeerNameIndex;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.test.StepVerifier;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+@ActiveProfiles("reactive")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class ReactiveBeerControllerTest {
+
+    private static final String BEER_API_URL_PATH = "/api/v1/beers";
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private ReactiveBeerRepository reactiveBeerRepository;
+
+    @Autowired
+    private StockThresholdRepository stockThresholdRepository;
+
+    @Autowired
+    private BeerNameIndex beerNameIndex;
+
+    @AfterEach
+    void tearDown() {
+        reactiveBeerRepository.deleteAll().block();
+        stockThresholdRepository.deleteAll();
+    }
+
+    @Test
+    void whenPOSTIsCalledThenABeerIsCreatedAndCanBeFoundByName() {
+        // given
+        var beerDTO = BeerDTOBuilder.builder().id(null).build().toBeerDTO();
+
+        // when
+        webTestClient.post().uri(BEER_API_URL_PATH)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(beerDTO)
+                .exchange()
+                .expectStatus().isCreated();
+
+        // then
+        webTestClient.get().uri(BEER_API_URL_PATH + "/" + beerDTO.getName())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.name").value(is(beerDTO.getName()))
+                .jsonPath("$.brand").value(is(beerDTO.getBrand()));
+    }
+
+    @Test
+    void whenPOSTIsCalledWithARegisteredNameThenBadRequestStatusIsReturned() {
+        // given
+        var beerDTO = createBeer(BeerDTOBuilder.builder().id(null).build().toBeerDTO());
+
+        // then
+        webTestClient.post().uri(BEER_API_URL_PATH)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(beerDTO)
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void whenPATCHIsCalledToIncrementGreaterThanMaxThenTheStandardErrorIsReturned() {
+        // given
+        var beerDTO = createBeer(BeerDTOBuilder.builder().id(null).max(50).quantity(10).build().toBeerDTO());
+        var quantityDTO = QuantityDTO.builder().quantity(41).build();
+
+        // then
+        webTestClient.patch().uri(BEER_API_URL_PATH + "/" + beerDTO.getId() + "/increment")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(quantityDTO)
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.status").value(is(400))
+                .jsonPath("$.error").value(is(BeerStockExceededException.class.getSimpleName()))
+                .jsonPath("$.path").value(is(BEER_API_URL_PATH + "/" + beerDTO.getId() + "/increment"));
+    }
+
+    @Test
+    void whenPATCHIsCalledToDecrementThenOKStatusIsReturned() {
+        // given
+        var beerDTO = createBeer(BeerDTOBuilder.builder().id(null).max(50).quantity(10).build().toBeerDTO());
+        var quantityDTO = QuantityDTO.builder().quantity(4).build();
+
+        // then
+        webTestClient.patch().uri(BEER_API_URL_PATH + "/" + beerDTO.getId() + "/decrement")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(quantityDTO)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.quantity").value(is(6));
+    }
+
+    @Test
+    void whenGETIsCalledWithUnregisteredNameThenNotFoundStatusIsReturned() {
+        webTestClient.get().uri(BEER_API_URL_PATH + "/Unknown")
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void whenGETListIsCalledAcceptingNdjsonThenTheCatalogIsStreamedInIdOrder() {
+        // given
+        var first = createBeer(BeerDTOBuilder.builder().id(null).name("Heineken").build().toBeerDTO());
+        var second = createBeer(BeerDTOBuilder.builder().id(null).name("Stella").build().toBeerDTO());
+
+        // when
+        var beers = webTestClient.get().uri(BEER_API_URL_PATH)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(BeerDTO.class)
+                .getResponseBody();
+
+        // then
+        StepVerifier.create(beers)
+                .expectNextMatches(beer -> beer.getId().equals(first.getId()))
+                .expectNextMatches(beer -> beer.getId().equals(second.getId()))
+                .verifyComplete();
+    }
+
+    @Test
+    void whenDELETEIsCalledThenTheThresholdsAndSuggestionsOfTheBeerAreRemoved() {
+        // given
+        var beerDTO = createBeer(BeerDTOBuilder.builder().id(null).name("Colorado Appia").build().toBeerDTO());
+        stockThresholdRepository.save(new StockThreshold(beerDTO.getId(), 5, null));
+
+        // when
+        webTestClient.delete().uri(BEER_API_URL_PATH + "/" + beerDTO.getId())
+                .exchange()
+                .expectStatus().isNoContent();
+
+        // then
+        assertAll("reactive delete test",
+                () -> assertThat(stockThresholdRepository.existsById(beerDTO.getId()), is(false)),
+                () -> assertThat(beerNameIndex.suggest("appia", null), is(empty()))
+        );
+    }
+
+    private BeerDTO createBeer(BeerDTO beerDTO) {
+        return webTestClient.post().uri(BEER_API_URL_PATH)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(beerDTO)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(BeerDTO.class)
+                .returnResult()
+                .getResponseBody();
+    }
+}
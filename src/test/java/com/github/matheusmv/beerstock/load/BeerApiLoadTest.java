@@ -0,0 +1,188 @@
+package com.github.matheusmv.beerstock.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.matheusmv.beerstock.config.CacheConfig;
+import com.github.matheusmv.beerstock.entity.Beer;
+import com.github.matheusmv.beerstock.enums.BeerType;
+import com.github.matheusmv.beerstock.repository.BeerRepository;
+import com.github.matheusmv.beerstock.service.StockLedger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.cache.CacheManager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static com.github.matheusmv.beerstock.load.BeerApiRequests.BEER_API_URL_PATH;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+/**
+ * Drives the whole application over HTTP with mixed read and write traffic and checks the
+ * stock invariants afterwards. Tagged {@code load} so it only runs with the load-test profile:
+ * {@code mvn -P load-test test}.
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"spring.jpa.show-sql=false", "logging.level.root=WARN"})
+public class BeerApiLoadTest {
+
+    private static final int CATALOG_MAX = 500;
+    private static final int HOT_KEY_MAX = 200;
+
+    private final LoadSettings settings = new LoadSettings();
+    private final LoadGenerator loadGenerator = new LoadGenerator(settings);
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private BeerRepository beerRepository;
+
+    @Autowired
+    private StockLedger stockLedger;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private BeerApiRequests requests;
+    private List<Beer> catalog;
+    private List<Beer> hotBeers;
+    private Map<Long, Integer> initialQuantities;
+
+    @BeforeEach
+    void setUp() {
+        var random = new Random(settings.seed);
+        var beers = new ArrayList<Beer>();
+
+        for (int i = 0; i < settings.catalogSize; i++) {
+            beers.add(new Beer(null, "Beer " + i, "Brand " + random.nextInt(50), CATALOG_MAX,
+                    random.nextInt(CATALOG_MAX + 1), BeerType.values()[random.nextInt(BeerType.values().length)], null));
+        }
+
+        for (int i = 0; i < settings.hotKeys; i++) {
+            beers.add(new Beer(null, "Hot " + i, "Hot", HOT_KEY_MAX, HOT_KEY_MAX / 2, BeerType.IPA, null));
+        }
+
+        var saved = beerRepository.saveAll(beers);
+
+        catalog = saved.subList(0, settings.catalogSize);
+        hotBeers = saved.subList(settings.catalogSize, saved.size());
+        initialQuantities = saved.stream().collect(Collectors.toMap(Beer::getId, Beer::getQuantity));
+        requests = new BeerApiRequests(port);
+
+        System.out.println("load settings: " + settings);
+    }
+
+    @AfterEach
+    void tearDown() {
+        beerRepository.deleteAll();
+        catalog.forEach(beer -> stockLedger.evict(beer.getId()));
+        hotBeers.forEach(beer -> stockLedger.evict(beer.getId()));
+
+        var beersCache = cacheManager.getCache(CacheConfig.BEERS_CACHE);
+
+        if (beersCache != null) {
+            beersCache.clear();
+        }
+    }
+
+    @Test
+    void readHeavyCatalog() throws Exception {
+        runAndVerify("read-heavy catalog", random -> () -> {
+            var beer = catalog.get(random.nextInt(catalog.size()));
+
+            if (random.nextInt(10) == 0) {
+                return requests.adjust(beer.getId(), random.nextBoolean() ? 1 : -1);
+            }
+
+            return requests.findByName(beer.getName());
+        });
+    }
+
+    @Test
+    void hotSkuAdjustments() throws Exception {
+        runAndVerify("hot-SKU adjustments", random -> () -> {
+            var beer = hotBeers.get(random.nextInt(hotBeers.size()));
+            var quantity = 1 + random.nextInt(5);
+
+            return requests.adjust(beer.getId(), random.nextBoolean() ? quantity : -quantity);
+        });
+    }
+
+    @Test
+    void bulkListing() throws Exception {
+        runAndVerify("bulk listing", random -> new Workload() {
+
+            private String cursor;
+
+            @Override
+            public Workload.Operation next() {
+                if (random.nextInt(4) == 0) {
+                    var lastPage = Math.max(settings.catalogSize / 100 - 1, 0);
+
+                    return new Workload.Operation("GET ?page",
+                            requests.get(BEER_API_URL_PATH + "?size=100&page=" + random.nextInt(lastPage + 1)));
+                }
+
+                var path = BEER_API_URL_PATH + "?size=100" + (cursor != null ? "&cursor=" + cursor : "");
+
+                return new Workload.Operation("GET ?cursor", requests.get(path), response -> cursor = nextCursor(response));
+            }
+        });
+    }
+
+    private void runAndVerify(String name, Function<Random, Workload> workloadFactory) throws Exception {
+        var report = loadGenerator.run(name, workloadFactory);
+        report.print(System.out);
+
+        stockLedger.flush();
+
+        var finalQuantities = beerRepository.findAll();
+
+        assertAll(name,
+                () -> assertThat(report.getTotalRequests(), is(greaterThan(0L))),
+                () -> assertThat(report.countStatus("5xx"), is(equalTo(0L))),
+                () -> assertThat(report.getFailures(), is(equalTo(0L))),
+                () -> finalQuantities.forEach(beer -> {
+                    var expected = initialQuantities.get(beer.getId()) + requests.netDelta(beer.getId());
+
+                    assertThat(beer.getQuantity(), is(greaterThanOrEqualTo(0)));
+                    assertThat(beer.getQuantity(), is(lessThanOrEqualTo(beer.getMax())));
+                    assertThat(beer.getName(), beer.getQuantity(), is(equalTo(expected)));
+                })
+        );
+    }
+
+    private String nextCursor(HttpResponse<String> response) {
+        if (response.statusCode() != 200) {
+            return null;
+        }
+
+        try {
+            var nextCursor = objectMapper.readTree(response.body()).path("nextCursor");
+
+            return nextCursor.isTextual() ? nextCursor.asText() : null;
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.github.matheusmv.beerstock.load;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Builds the beer API requests used by the load workloads and keeps the book of stock deltas
+ * the API accepted, so the final quantities can be checked exactly.
+ */
+final class BeerApiRequests {
+
+    static final String BEER_API_URL_PATH = "/api/v1/beers";
+
+    private final int port;
+    private final Map<Long, LongAdder> appliedDeltas = new ConcurrentHashMap<>();
+
+    BeerApiRequests(int port) {
+        this.port = port;
+    }
+
+    Workload.Operation findByName(String name) {
+        return new Workload.Operation("GET /{name}", get(BEER_API_URL_PATH + "/" + encode(name)));
+    }
+
+    Workload.Operation adjust(Long id, int delta) {
+        var operation = delta >= 0 ? "increment" : "decrement";
+        var request = HttpRequest.newBuilder(uri(BEER_API_URL_PATH + "/" + id + "/" + operation))
+                .header("Content-Type", "application/json")
+                .method("PATCH", HttpRequest.BodyPublishers.ofString("{\"quantity\": " + Math.abs(delta) + "}"))
+                .build();
+
+        return new Workload.Operation("PATCH /" + operation, request, response -> {
+            if (response.statusCode() == 200) {
+                appliedDeltas.computeIfAbsent(id, key -> new LongAdder()).add(delta);
+            }
+        });
+    }
+
+    int netDelta(Long id) {
+        var delta = appliedDeltas.get(id);
+
+        return delta == null ? 0 : delta.intValue();
+    }
+
+    HttpRequest get(String path) {
+        return HttpRequest.newBuilder(uri(path)).GET().build();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8).replace("+", "%20");
+    }
+}
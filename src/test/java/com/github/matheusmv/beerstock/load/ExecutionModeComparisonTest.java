@@ -0,0 +1,120 @@
+package com.github.matheusmv.beerstock.load;
+
+import com.github.matheusmv.beerstock.BeerstockApplication;
+import com.github.matheusmv.beerstock.entity.Beer;
+import com.github.matheusmv.beerstock.enums.BeerType;
+import com.github.matheusmv.beerstock.repository.BeerRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Random;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+/**
+ * Runs the same mixed workload against the application in each execution mode: the servlet
+ * stack on Tomcat's platform thread pool, the servlet stack on virtual threads and the reactive
+ * stack. Prints the reports one after the other, including the peak platform thread count.
+ * Uses 1000 clients unless {@code load.clients} asks for more:
+ * {@code mvn -P load-test test -Dtest=ExecutionModeComparisonTest}.
+ */
+@Tag("load")
+public class ExecutionModeComparisonTest {
+
+    private static final int MIN_CLIENTS = 1000;
+    private static final int BEER_MAX = 500;
+
+    private final LoadSettings settings = new LoadSettings(Math.max(Integer.getInteger("load.clients", MIN_CLIENTS), MIN_CLIENTS));
+    private final LoadGenerator loadGenerator = new LoadGenerator(settings);
+
+    @Test
+    void compareExecutionModes() throws Exception {
+        var reports = new LinkedHashMap<ExecutionMode, LoadReport>();
+
+        for (var mode : ExecutionMode.values()) {
+            reports.put(mode, runWith(mode));
+        }
+
+        System.out.println("load settings: " + settings);
+        reports.values().forEach(report -> report.print(System.out));
+    }
+
+    private LoadReport runWith(ExecutionMode mode) throws InterruptedException {
+        var database = mode.name().toLowerCase();
+        var context = new SpringApplicationBuilder(BeerstockApplication.class)
+                .profiles(mode.profiles)
+                .properties("server.port=0",
+                        "spring.threads.virtual.enabled=" + mode.virtualThreads,
+                        "spring.datasource.url=jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                        "spring.r2dbc.url=r2dbc:h2:mem:///" + database + "?options=DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                        "spring.jpa.show-sql=false",
+                        "spring.devtools.restart.enabled=false",
+                        "logging.level.root=WARN")
+                .run();
+
+        try {
+            var beerRepository = context.getBean(BeerRepository.class);
+            var requests = new BeerApiRequests(context.getEnvironment().getRequiredProperty("local.server.port", Integer.class));
+            var random = new Random(settings.seed);
+            var beers = new ArrayList<Beer>();
+
+            for (int i = 0; i < settings.catalogSize; i++) {
+                beers.add(new Beer(null, "Beer " + i, "Brand", BEER_MAX, BEER_MAX / 2,
+                        BeerType.values()[random.nextInt(BeerType.values().length)], null));
+            }
+
+            var catalog = beerRepository.saveAll(beers);
+            var hotBeers = catalog.subList(0, Math.min(settings.hotKeys, catalog.size()));
+
+            var report = loadGenerator.run(mode.description, clientRandom -> () -> {
+                if (clientRandom.nextInt(5) == 0) {
+                    var beer = hotBeers.get(clientRandom.nextInt(hotBeers.size()));
+
+                    return requests.adjust(beer.getId(), clientRandom.nextBoolean() ? 1 : -1);
+                }
+
+                return requests.findByName(catalog.get(clientRandom.nextInt(catalog.size())).getName());
+            });
+
+            var finalBeers = beerRepository.findAll();
+
+            assertAll(mode.description,
+                    () -> assertThat(report.countStatus("5xx"), is(equalTo(0L))),
+                    () -> finalBeers.forEach(beer -> {
+                        assertThat(beer.getQuantity(), is(greaterThanOrEqualTo(0)));
+                        assertThat(beer.getQuantity(), is(lessThanOrEqualTo(beer.getMax())));
+                        assertThat(beer.getName(), beer.getQuantity(), is(equalTo(BEER_MAX / 2 + requests.netDelta(beer.getId()))));
+                    })
+            );
+
+            return report;
+        } finally {
+            context.close();
+        }
+    }
+
+    private enum ExecutionMode {
+
+        PLATFORM_THREADS("servlet, platform threads", false),
+        VIRTUAL_THREADS("servlet, virtual threads", true),
+        REACTIVE("reactive", false, "reactive");
+
+        private final String description;
+        private final boolean virtualThreads;
+        private final String[] profiles;
+
+        ExecutionMode(String description, boolean virtualThreads, String... profiles) {
+            this.description = description;
+            this.virtualThreads = virtualThreads;
+            this.profiles = profiles;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.github.matheusmv.beerstock.load;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Closed-loop load generator: every client sends its next request as soon as the previous one
+ * completes. Clients run on virtual threads, so thousands of them cost little on this side. Latencies are only recorded once the warmup is over, but responses are always
+ * handed to the workload so stock bookkeeping covers the whole run.
+ */
+final class LoadGenerator {
+
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+
+    private final LoadSettings settings;
+
+    LoadGenerator(LoadSettings settings) {
+        this.settings = settings;
+    }
+
+    LoadReport run(String name, Function<Random, Workload> workloadFactory) throws InterruptedException {
+        var report = new LoadReport(name, settings.duration);
+        var threads = ManagementFactory.getThreadMXBean();
+        var executor = Executors.newVirtualThreadPerTaskExecutor();
+        var startSignal = new CountDownLatch(1);
+        var start = System.nanoTime();
+        var measureFrom = start + settings.warmup.toNanos();
+        var deadline = measureFrom + settings.duration.toNanos();
+
+        try {
+            for (int client = 0; client < settings.clients; client++) {
+                var workload = workloadFactory.apply(new Random(settings.seed + client));
+
+                executor.execute(() -> runClient(workload, startSignal, measureFrom, deadline, report));
+            }
+
+            threads.resetPeakThreadCount();
+            startSignal.countDown();
+        } finally {
+            shutdown(executor);
+        }
+
+        report.setPeakPlatformThreads(threads.getPeakThreadCount());
+
+        return report;
+    }
+
+    private void runClient(Workload workload, CountDownLatch startSignal, long measureFrom, long deadline,
+                           LoadReport report) {
+        var latencies = new HashMap<String, Histogram>();
+        var statuses = new HashMap<String, Long>();
+        var failures = 0L;
+
+        try {
+            startSignal.await();
+
+            for (var now = System.nanoTime(); now < deadline; now = System.nanoTime()) {
+                var operation = workload.next();
+
+                try {
+                    var response = httpClient.send(operation.request, HttpResponse.BodyHandlers.ofString());
+                    var latency = System.nanoTime() - now;
+
+                    operation.onResponse.accept(response);
+
+                    if (now >= measureFrom) {
+                        record(latencies, operation.name, latency);
+                        statuses.merge(response.statusCode() / 100 + "xx", 1L, Long::sum);
+                    }
+                } catch (IOException exception) {
+                    failures++;
+                }
+            }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        } finally {
+            report.merge(latencies, statuses, failures);
+        }
+    }
+
+    private void record(Map<String, Histogram> latencies, String operation, long latencyNanos) {
+        latencies.computeIfAbsent(operation, key -> new Histogram(HIGHEST_TRACKABLE_NANOS, 3))
+                .recordValue(Math.min(latencyNanos, HIGHEST_TRACKABLE_NANOS));
+    }
+
+    private void shutdown(ExecutorService executor) throws InterruptedException {
+        executor.shutdown();
+
+        var timeout = settings.warmup.plus(settings.duration).toSeconds() + 60;
+
+        if (!executor.awaitTermination(timeout, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.github.matheusmv.beerstock.load;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Latencies per operation, measured after the warmup, merged from every client.
+ */
+final class LoadReport {
+
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private final String workload;
+    private final Duration measured;
+    private final Map<String, Histogram> latencies = new TreeMap<>();
+    private final Map<String, Long> statuses = new TreeMap<>();
+    private long failures;
+    private int peakPlatformThreads;
+
+    LoadReport(String workload, Duration measured) {
+        this.workload = workload;
+        this.measured = measured;
+    }
+
+    synchronized void merge(Map<String, Histogram> clientLatencies, Map<String, Long> clientStatuses, long clientFailures) {
+        clientLatencies.forEach((operation, histogram) -> latencies
+                .computeIfAbsent(operation, key -> new Histogram(histogram.getNumberOfSignificantValueDigits()))
+                .add(histogram));
+        clientStatuses.forEach((status, count) -> statuses.merge(status, count, Long::sum));
+        failures += clientFailures;
+    }
+
+    long countStatus(String statusClass) {
+        return statuses.getOrDefault(statusClass, 0L);
+    }
+
+    void setPeakPlatformThreads(int peakPlatformThreads) {
+        this.peakPlatformThreads = peakPlatformThreads;
+    }
+
+    long getFailures() {
+        return failures;
+    }
+
+    long getTotalRequests() {
+        return latencies.values().stream().mapToLong(Histogram::getTotalCount).sum();
+    }
+
+    void print(PrintStream out) {
+        var seconds = measured.toMillis() / 1000.0;
+
+        out.printf("%n== %s (%.0fs measured) ==%n", workload, seconds);
+        out.printf("%-20s %10s %10s %9s %9s %9s %9s%n", "operation", "count", "ops/s", "p50 ms", "p99 ms", "p999 ms", "max ms");
+
+        latencies.forEach((operation, histogram) -> out.printf("%-20s %10d %10.1f %9.3f %9.3f %9.3f %9.3f%n",
+                operation,
+                histogram.getTotalCount(),
+                histogram.getTotalCount() / seconds,
+                histogram.getValueAtPercentile(50) / NANOS_PER_MILLI,
+                histogram.getValueAtPercentile(99) / NANOS_PER_MILLI,
+                histogram.getValueAtPercentile(99.9) / NANOS_PER_MILLI,
+                histogram.getMaxValue() / NANOS_PER_MILLI));
+
+        out.printf("total %d requests, %.1f ops/s, statuses %s, failures %d, peak platform threads %d%n",
+                getTotalRequests(), getTotalRequests() / seconds, statuses, failures, peakPlatformThreads);
+    }
+}
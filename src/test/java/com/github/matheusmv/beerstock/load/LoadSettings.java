@@ -0,0 +1,31 @@
+package com.github.matheusmv.beerstock.load;
+
+import java.time.Duration;
+
+/**
+ * Load test knobs, read from system properties so a run can be tuned from the command line,
+ * e.g. {@code mvn -P load-test test -Dload.clients=64 -Dload.durationSeconds=60}.
+ */
+final class LoadSettings {
+
+    final int clients;
+    final Duration warmup = Duration.ofSeconds(Integer.getInteger("load.warmupSeconds", 5));
+    final Duration duration = Duration.ofSeconds(Integer.getInteger("load.durationSeconds", 20));
+    final int catalogSize = Integer.getInteger("load.catalogSize", 1000);
+    final int hotKeys = Integer.getInteger("load.hotKeys", 4);
+    final long seed = Long.getLong("load.seed", 42L);
+
+    LoadSettings() {
+        this(Integer.getInteger("load.clients", 32));
+    }
+
+    LoadSettings(int clients) {
+        this.clients = clients;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("clients=%d, warmup=%ss, duration=%ss, catalogSize=%d, hotKeys=%d, seed=%d",
+                clients, warmup.toSeconds(), duration.toSeconds(), catalogSize, hotKeys, seed);
+    }
+}
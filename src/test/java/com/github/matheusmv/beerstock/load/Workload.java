@@ -0,0 +1,33 @@
+package com.github.matheusmv.beerstock.load;
+
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.function.Consumer;
+
+/**
+ * Source of requests for a single client. Each client gets its own instance, so a workload
+ * may keep per-client state such as a page cursor.
+ */
+@FunctionalInterface
+interface Workload {
+
+    Operation next();
+
+    final class Operation {
+
+        final String name;
+        final HttpRequest request;
+        final Consumer<HttpResponse<String>> onResponse;
+
+        Operation(String name, HttpRequest request) {
+            this(name, request, response -> {
+            });
+        }
+
+        Operation(String name, HttpRequest request, Consumer<HttpResponse<String>> onResponse) {
+            this.name = name;
+            this.request = request;
+            this.onResponse = onResponse;
+        }
+    }
+}
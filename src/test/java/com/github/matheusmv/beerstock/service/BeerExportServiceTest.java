@@ -0,0 +1,89 @@
+package com.github.matheusmv.beerstock.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.matheusmv.beerstock.builder.BeerDTOBuilder;
+import com.github.matheusmv.beerstock.enums.BeerType;
+import com.github.matheusmv.beerstock.mapper.BeerMapper;
+import com.github.matheusmv.beerstock.repository.BeerRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class BeerExportServiceTest {
+
+    @Mock
+    private BeerRepository beerRepository;
+
+    @Mock
+    private StockLedger stockLedger;
+
+    @Mock
+    private EntityManager entityManager;
+
+    private final BeerMapper beerMapper = BeerMapper.INSTANCE;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private BeerExportService beerExportService;
+
+    @BeforeEach
+    void setUp() {
+        beerExportService = new BeerExportService(beerRepository, stockLedger, entityManager, objectMapper);
+    }
+
+    @Test
+    void whenNdjsonExportIsCalledThenEachBeerIsWrittenOnItsOwnLine() throws Exception {
+        // given
+        var firstBeerDTO = BeerDTOBuilder.builder().id(1L).build().toBeerDTO();
+        var secondBeerDTO = BeerDTOBuilder.builder().id(2L).name("Skol").build().toBeerDTO();
+        var firstBeer = beerMapper.toModel(firstBeerDTO);
+        var secondBeer = beerMapper.toModel(secondBeerDTO);
+        var outputStream = new ByteArrayOutputStream();
+
+        // when
+        when(beerRepository.streamAll()).thenReturn(Stream.of(firstBeer, secondBeer));
+
+        // then
+        beerExportService.writeNdjson(outputStream);
+
+        var expectedNdjson = objectMapper.writeValueAsString(firstBeerDTO) + "\n"
+                + objectMapper.writeValueAsString(secondBeerDTO) + "\n";
+
+        assertThat(outputStream.toString(StandardCharsets.UTF_8), is(equalTo(expectedNdjson)));
+        verify(entityManager, times(1)).detach(firstBeer);
+        verify(entityManager, times(1)).detach(secondBeer);
+    }
+
+    @Test
+    void whenCsvExportIsCalledThenFieldsWithSeparatorsAreQuoted() throws Exception {
+        // given
+        var beerDTO = BeerDTOBuilder.builder().name("Colorado, \"Appia\"").type(BeerType.WEISS).build().toBeerDTO();
+        var outputStream = new ByteArrayOutputStream();
+
+        // when
+        when(beerRepository.streamAll()).thenReturn(Stream.of(beerMapper.toModel(beerDTO)));
+
+        // then
+        beerExportService.writeCsv(outputStream);
+
+        var expectedCsv = "id,name,brand,max,quantity,type\n"
+                + "1,\"Colorado, \"\"Appia\"\"\",Ambev,50,10,WEISS\n";
+
+        assertThat(outputStream.toString(StandardCharsets.UTF_8), is(equalTo(expectedCsv)));
+    }
+}
@@ -0,0 +1,185 @@
+package com.github.matheusmv.beerstock.service;
+
+import com.github.matheusmv.beerstock.builder.BeerDTOBuilder;
+import com.github.matheusmv.beerstock.dto.BeerDTO;
+import com.github.matheusmv.beerstock.dto.BeerImportResultDTO;
+import com.github.matheusmv.beerstock.entity.Beer;
+import com.github.matheusmv.beerstock.entity.OutboxEvent;
+import com.github.matheusmv.beerstock.enums.BeerImportStatus;
+import com.github.matheusmv.beerstock.enums.BeerType;
+import com.github.matheusmv.beerstock.enums.StockChangeKind;
+import com.github.matheusmv.beerstock.repository.BeerRepository;
+import com.github.matheusmv.beerstock.repository.OutboxEventRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.github.matheusmv.beerstock.utils.JsonConvertionUtils.asJsonString;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+// own database, so the outbox relay of another cached context cannot drain the rows under test
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:beerstock-import;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "beerstock.catalog-import.chunk-size=2",
+        "beerstock.outbox.poll-interval=1h"
+})
+public class BeerImportServiceTest {
+
+    @Autowired
+    private BeerImportService beerImportService;
+
+    @Autowired
+    private BeerRepository beerRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @AfterEach
+    void tearDown() {
+        beerRepository.deleteAll();
+        outboxEventRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void whenBeersAreImportedThenEachBeerIsCreatedAcrossChunks() {
+        // given
+        var beers = new ArrayList<BeerDTO>();
+
+        for (int i = 0; i < 5; i++) {
+            beers.add(beer("Beer " + i));
+        }
+
+        // when
+        var response = beerImportService.importBeers(beers);
+
+        // then
+        var ids = response.getResults()
+                .stream()
+                .map(BeerImportResultDTO::getId)
+                .collect(Collectors.toList());
+
+        assertAll("import test",
+                () -> assertThat(response.getCreated(), is(equalTo(5L))),
+                () -> assertThat(ids, everyItem(notNullValue())),
+                () -> assertThat(beerRepository.count(), is(equalTo(5L)))
+        );
+    }
+
+    @Test
+    void whenImportedBeersAreDuplicatedOrInvalidThenOnlyTheValidOnesAreCreated() {
+        // given
+        beerRepository.save(new Beer(null, "Heineken", "Heineken", 50, 10, BeerType.LAGER, null));
+
+        var invalidBeer = beer("Stella");
+        invalidBeer.setBrand(null);
+
+        var beers = List.of(beer("Heineken"), beer("Colorado"), beer("Colorado"), invalidBeer, beer("Budweiser"));
+
+        // when
+        var response = beerImportService.importBeers(beers);
+
+        // then
+        var statuses = response.getResults()
+                .stream()
+                .map(BeerImportResultDTO::getStatus)
+                .collect(Collectors.toList());
+
+        assertAll("import with rejected beers test",
+                () -> assertThat(response.getCreated(), is(equalTo(2L))),
+                () -> assertThat(response.getDuplicates(), is(equalTo(2L))),
+                () -> assertThat(response.getInvalid(), is(equalTo(1L))),
+                () -> assertThat(statuses, contains(BeerImportStatus.DUPLICATE, BeerImportStatus.CREATED,
+                        BeerImportStatus.DUPLICATE, BeerImportStatus.INVALID, BeerImportStatus.CREATED)),
+                () -> assertThat(beerRepository.count(), is(equalTo(3L)))
+        );
+    }
+
+    @Test
+    void whenNdjsonIsImportedThenMalformedLinesAreReportedAsInvalid() throws Exception {
+        // given
+        var ndjson = asJsonString(beer("Heineken")) + "\n"
+                + "{not json}\n"
+                + "\n"
+                + asJsonString(beer("Colorado")) + "\n";
+
+        // when
+        var response = beerImportService.importNdjson(new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)));
+
+        // then
+        var indexes = response.getResults()
+                .stream()
+                .map(BeerImportResultDTO::getIndex)
+                .collect(Collectors.toList());
+
+        assertAll("ndjson import test",
+                () -> assertThat(response.getCreated(), is(equalTo(2L))),
+                () -> assertThat(response.getInvalid(), is(equalTo(1L))),
+                () -> assertThat(indexes, contains(0, 1, 3)),
+                () -> assertThat(beerRepository.count(), is(equalTo(2L)))
+        );
+    }
+
+    @Test
+    void whenImportedRowsAreNullThenTheyAreReportedAsInvalid() throws Exception {
+        // given
+        var beers = new ArrayList<BeerDTO>();
+        beers.add(beer("Heineken"));
+        beers.add(null);
+
+        var ndjson = "null\n" + asJsonString(beer("Colorado")) + "\n";
+
+        // when
+        var response = beerImportService.importBeers(beers);
+        var ndjsonResponse = beerImportService.importNdjson(new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)));
+
+        // then
+        assertAll("null rows import test",
+                () -> assertThat(response.getCreated(), is(equalTo(1L))),
+                () -> assertThat(response.getInvalid(), is(equalTo(1L))),
+                () -> assertThat(response.getResults().get(1).getStatus(), is(BeerImportStatus.INVALID)),
+                () -> assertThat(ndjsonResponse.getCreated(), is(equalTo(1L))),
+                () -> assertThat(ndjsonResponse.getResults().get(0).getStatus(), is(BeerImportStatus.INVALID)),
+                () -> assertThat(beerRepository.count(), is(equalTo(2L)))
+        );
+    }
+
+    @Test
+    void whenBeersAreImportedThenACreationEventIsWrittenToTheOutboxForEachCreatedBeer() {
+        // given
+        var beers = List.of(beer("Heineken"), beer("Colorado"), beer("Colorado"), beer("Budweiser"));
+
+        // when
+        var response = beerImportService.importBeers(beers);
+
+        // then
+        var createdIds = response.getResults()
+                .stream()
+                .filter(result -> result.getStatus() == BeerImportStatus.CREATED)
+                .map(BeerImportResultDTO::getId)
+                .toArray(Long[]::new);
+        var events = outboxEventRepository.findAll();
+
+        assertAll("import outbox test",
+                () -> assertThat(events.stream().map(OutboxEvent::getBeerId).toList(), containsInAnyOrder(createdIds)),
+                () -> assertThat(events.stream().map(OutboxEvent::getKind).toList(), everyItem(is(StockChangeKind.CREATED)))
+        );
+    }
+
+    private BeerDTO beer(String name) {
+        return BeerDTOBuilder.builder().id(null).name(name).build().toBeerDTO();
+    }
+}
@@ -0,0 +1,99 @@
+package com.github.matheusmv.beerstock.service;
+
+import com.github.matheusmv.beerstock.config.BeerstockProperties;
+import com.github.matheusmv.beerstock.dto.BeerSuggestionDTO;
+import com.github.matheusmv.beerstock.repository.BeerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+@ExtendWith(MockitoExtension.class)
+public class BeerNameIndexTest {
+
+    @Mock
+    private BeerRepository beerRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private BeerNameIndex beerNameIndex;
+
+    @BeforeEach
+    void setUp() {
+        var beerstockProperties = new BeerstockProperties();
+        beerstockProperties.getAutocomplete().setMaxSuggestions(3);
+
+        beerNameIndex = new BeerNameIndex(beerRepository, transactionTemplate, beerstockProperties);
+        beerNameIndex.add(new BeerSuggestionDTO(1L, "Colorado Appia", "Colorado"));
+        beerNameIndex.add(new BeerSuggestionDTO(2L, "Colorado Indica", "Colorado"));
+        beerNameIndex.add(new BeerSuggestionDTO(3L, "Brahma Chopp", "Ambev"));
+        beerNameIndex.add(new BeerSuggestionDTO(4L, "Cerveja S\u00e3o Jorge", "Cervejaria Av\u00f3"));
+    }
+
+    @Test
+    void whenAPrefixIsSearchedThenTheBeersWithAWordStartingWithItAreSuggested() {
+        assertAll("prefix suggestion test",
+                () -> assertThat(ids(beerNameIndex.suggest("col", 10)), contains(1L, 2L)),
+                () -> assertThat(ids(beerNameIndex.suggest("amb", 10)), contains(3L)),
+                () -> assertThat(ids(beerNameIndex.suggest("chopp", 10)), contains(3L)),
+                () -> assertThat(beerNameIndex.suggest("lager", 10), is(empty()))
+        );
+    }
+
+    @Test
+    void whenTheQueryHasCaseOrAccentsThenTheyAreIgnored() {
+        assertAll("folded suggestion test",
+                () -> assertThat(ids(beerNameIndex.suggest("SAO", 10)), contains(4L)),
+                () -> assertThat(ids(beerNameIndex.suggest("avo", 10)), contains(4L)),
+                () -> assertThat(ids(beerNameIndex.suggest("J\u00f3rge", 10)), contains(4L))
+        );
+    }
+
+    @Test
+    void whenTheQueryHasSeveralWordsThenEveryWordMustMatch() {
+        assertThat(ids(beerNameIndex.suggest("colorado ind", 10)), contains(2L));
+    }
+
+    @Test
+    void whenABeerIsRemovedThenItIsNoLongerSuggested() {
+        // when
+        beerNameIndex.remove(1L);
+
+        // then
+        assertAll("removed beer test",
+                () -> assertThat(ids(beerNameIndex.suggest("appia", 10)), is(empty())),
+                () -> assertThat(ids(beerNameIndex.suggest("colorado", 10)), contains(2L)),
+                () -> assertThat(beerNameIndex.size(), is(equalTo(3)))
+        );
+    }
+
+    @Test
+    void whenMoreSuggestionsThanTheMaxAreAskedThenTheMaxIsReturned() {
+        // given
+        for (long id = 10; id < 20; id++) {
+            beerNameIndex.add(new BeerSuggestionDTO(id, "Session " + id, "Session"));
+        }
+
+        // then
+        assertThat(beerNameIndex.suggest("session", 100), hasSize(3));
+    }
+
+    private List<Long> ids(List<BeerSuggestionDTO> suggestions) {
+        return suggestions.stream()
+                .map(BeerSuggestionDTO::getId)
+                .toList();
+    }
+}
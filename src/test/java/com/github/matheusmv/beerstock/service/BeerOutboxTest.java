@@ -0,0 +1,251 @@
+package com.github.matheusmv.beerstock.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.github.matheusmv.beerstock.config.BeerstockProperties;
+import com.github.matheusmv.beerstock.dto.OutboxEventDTO;
+import com.github.matheusmv.beerstock.dto.StockChangeEventDTO;
+import com.github.matheusmv.beerstock.entity.OutboxEvent;
+import com.github.matheusmv.beerstock.enums.BeerType;
+import com.github.matheusmv.beerstock.enums.StockChangeKind;
+import com.github.matheusmv.beerstock.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.web.reactive.context.GenericReactiveWebApplicationContext;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class BeerOutboxTest {
+
+    private static final String INSERT_EVENT_SQL =
+            "INSERT INTO outbox_event (beer_id, kind, payload, created_at) VALUES (?, ?, ?, ?)";
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    private BeerstockProperties beerstockProperties;
+
+    private ObjectMapper objectMapper;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private InMemoryOutboxSink outboxSink;
+
+    private BeerOutbox beerOutbox;
+
+    @BeforeEach
+    void setUp() {
+        beerstockProperties = new BeerstockProperties();
+        beerstockProperties.getOutbox().setBatchSize(2);
+
+        objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        meterRegistry = new SimpleMeterRegistry();
+        outboxSink = new InMemoryOutboxSink(beerstockProperties);
+        beerOutbox = outbox(outboxSink);
+    }
+
+    @Test
+    void whenABeerChangesThenTheChangeIsWrittenToTheOutbox() {
+        // when
+        beerOutbox.onStockChange(change(StockChangeKind.INCREMENTED, 10, 15));
+
+        // then
+        verify(jdbcTemplate).update(eq(INSERT_EVENT_SQL),
+                eq(1L),
+                eq("INCREMENTED"),
+                argThat((String payload) -> payload.contains("\"newQuantity\":15")),
+                any(Timestamp.class));
+    }
+
+    @Test
+    void whenTheOutboxIsDisabledThenNothingIsWritten() {
+        // given
+        beerstockProperties.getOutbox().setEnabled(false);
+
+        // when
+        beerOutbox.onStockChange(change(StockChangeKind.DELETED, 10, 0));
+
+        // then
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void whenTheRelayRunsThenEventsAreHandedToTheSinkInOrderAndDeleted() {
+        // given
+        var first = event(1L, StockChangeKind.CREATED);
+        var second = event(2L, StockChangeKind.INCREMENTED);
+        var third = event(3L, StockChangeKind.DECREMENTED);
+
+        // when
+        when(outboxEventRepository.findAllByOrderByIdAsc(PageRequest.of(0, 2)))
+                .thenReturn(List.of(first, second))
+                .thenReturn(List.of(third));
+        var relayed = beerOutbox.relay();
+
+        // then
+        verify(outboxEventRepository).deleteAllByIdInBatch(List.of(1L, 2L));
+        verify(outboxEventRepository).deleteAllByIdInBatch(List.of(3L));
+
+        assertAll("relayed outbox test",
+                () -> assertThat(relayed, is(equalTo(3))),
+                () -> assertThat(outboxSink.getEvents().stream().map(OutboxEventDTO::getSequence).toList(), contains(1L, 2L, 3L)),
+                () -> assertThat(outboxSink.getEvents().get(1).getKind(), is(equalTo(StockChangeKind.INCREMENTED))),
+                () -> assertThat(meterRegistry.get("beerstock.outbox.published").counter().count(), is(equalTo(3.0)))
+        );
+    }
+
+    @Test
+    void whenTheSinkFailsThenTheBatchIsKeptForTheNextCycle() {
+        // given
+        OutboxSink failingSink = events -> {
+            throw new DataAccessResourceFailureException("broker unavailable");
+        };
+        beerOutbox = outbox(failingSink);
+
+        // when
+        when(outboxEventRepository.findAllByOrderByIdAsc(PageRequest.of(0, 2)))
+                .thenReturn(List.of(event(1L, StockChangeKind.CREATED)));
+
+        // then
+        assertThrows(DataAccessResourceFailureException.class, beerOutbox::relay);
+        verify(outboxEventRepository, never()).deleteAllByIdInBatch(anyList());
+        assertThat(meterRegistry.get("beerstock.outbox.failures").counter().count(), is(equalTo(1.0)));
+    }
+
+    @Test
+    void whenTheSinkFailsThenTheBatchLeftWaitingIsReportedAsTheBacklog() {
+        // given
+        OutboxSink failingSink = events -> {
+            throw new DataAccessResourceFailureException("broker unavailable");
+        };
+        // the gauges of the outbox built in setUp would be kept otherwise
+        meterRegistry = new SimpleMeterRegistry();
+        beerOutbox = outbox(failingSink);
+        var oldest = new OutboxEvent(1L, 1L, StockChangeKind.CREATED, "{\"id\":1}", Instant.now().minusSeconds(30));
+
+        // when
+        when(outboxEventRepository.findAllByOrderByIdAsc(PageRequest.of(0, 2)))
+                .thenReturn(List.of(oldest, event(2L, StockChangeKind.INCREMENTED)));
+        assertThrows(DataAccessResourceFailureException.class, beerOutbox::relay);
+
+        // then
+        assertAll("outbox backlog test",
+                () -> assertThat(meterRegistry.get("beerstock.outbox.pending").gauge().value(), is(equalTo(2.0))),
+                () -> assertThat(meterRegistry.get("beerstock.outbox.lag").gauge().value(), is(greaterThanOrEqualTo(30.0)))
+        );
+        verify(outboxEventRepository, never()).count();
+    }
+
+    @Test
+    void whenTheRelayDrainsTheOutboxThenNothingIsReportedAsPending() {
+        // given
+        var oldest = new OutboxEvent(1L, 1L, StockChangeKind.CREATED, "{\"id\":1}", Instant.now().minusSeconds(30));
+
+        // when
+        when(outboxEventRepository.findAllByOrderByIdAsc(PageRequest.of(0, 2)))
+                .thenReturn(List.of(oldest));
+        beerOutbox.relay();
+
+        // then
+        assertAll("drained outbox test",
+                () -> assertThat(meterRegistry.get("beerstock.outbox.pending").gauge().value(), is(equalTo(0.0))),
+                () -> assertThat(meterRegistry.get("beerstock.outbox.lag").gauge().value(), is(equalTo(0.0)))
+        );
+    }
+
+    @Test
+    void whenTheLedgerIsAlsoEnabledThenTheOutboxRefusesToStart() {
+        // given
+        beerstockProperties.getLedger().setEnabled(true);
+
+        // then
+        assertThrows(IllegalStateException.class, beerOutbox::start);
+    }
+
+    @Test
+    void whenTheApplicationIsReactiveThenTheOutboxRefusesToStart() {
+        // given
+        beerOutbox = outbox(outboxSink, new GenericReactiveWebApplicationContext());
+
+        // then
+        assertThrows(IllegalStateException.class, beerOutbox::start);
+    }
+
+    @Test
+    void whenTheOutboxEventIsSerializedThenThePayloadIsEmbeddedAsJson() throws Exception {
+        // given
+        var event = OutboxEventDTO.builder()
+                .sequence(7L)
+                .beerId(1L)
+                .kind(StockChangeKind.CREATED)
+                .payload("{\"id\":1}")
+                .build();
+
+        // when
+        var json = objectMapper.writeValueAsString(event);
+
+        // then
+        assertThat(json, containsString("\"payload\":{\"id\":1}"));
+    }
+
+    private BeerOutbox outbox(OutboxSink sink) {
+        return outbox(sink, new GenericApplicationContext());
+    }
+
+    private BeerOutbox outbox(OutboxSink sink, ApplicationContext applicationContext) {
+        return new BeerOutbox(jdbcTemplate, outboxEventRepository, sink, objectMapper, beerstockProperties,
+                meterRegistry, applicationContext);
+    }
+
+    private StockChangeEventDTO change(StockChangeKind kind, int oldQuantity, int newQuantity) {
+        return StockChangeEventDTO.builder()
+                .kind(kind)
+                .id(1L)
+                .name("Brahma")
+                .type(BeerType.LAGER)
+                .max(50)
+                .oldQuantity(oldQuantity)
+                .newQuantity(newQuantity)
+                .timestamp(Instant.now())
+                .build();
+    }
+
+    private OutboxEvent event(Long id, StockChangeKind kind) {
+        return new OutboxEvent(id, 1L, kind, "{\"id\":1}", Instant.now());
+    }
+}
@@ -0,0 +1,127 @@
+package com.github.matheusmv.beerstock.service;
+
+import com.github.matheusmv.beerstock.config.CacheConfig;
+import com.github.matheusmv.beerstock.dto.BeerDTO;
+import com.github.matheusmv.beerstock.dto.StockOperationDTO;
+import com.github.matheusmv.beerstock.entity.Beer;
+import com.github.matheusmv.beerstock.enums.BeerType;
+import com.github.matheusmv.beerstock.enums.BulkMode;
+import com.github.matheusmv.beerstock.repository.BeerRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+@SpringBootTest
+public class BeerServiceCacheTest {
+
+    @Autowired
+    private BeerService beerService;
+
+    @Autowired
+    private BeerRepository beerRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private Cache beersCache;
+
+    private Beer beer;
+
+    @BeforeEach
+    void setUp() {
+        beersCache = cacheManager.getCache(CacheConfig.BEERS_CACHE);
+        beer = beerRepository.save(new Beer(null, "Bohemia", "Ambev", 50, 10, BeerType.LAGER, null));
+    }
+
+    @AfterEach
+    void tearDown() {
+        beerRepository.deleteAll();
+        beersCache.clear();
+    }
+
+    @Test
+    void whenFindByNameIsCalledThenTheBeerIsCached() {
+        // when
+        var foundBeerDTO = beerService.findByName(beer.getName());
+
+        // then
+        assertThat(cachedBeer().getQuantity(), is(equalTo(foundBeerDTO.getQuantity())));
+    }
+
+    @Test
+    void whenStockIsIncrementedThenTheCachedBeerIsUpdatedInPlace() {
+        // given
+        beerService.findByName(beer.getName());
+
+        // when
+        beerService.increment(beer.getId(), 5);
+
+        // then
+        assertThat(beerService.findByName(beer.getName()).getQuantity(), is(equalTo(15)));
+        assertThat(cachedBeer().getQuantity(), is(equalTo(15)));
+    }
+
+    @Test
+    void whenStockIsDecrementedThenTheCachedBeerIsUpdatedInPlace() {
+        // given
+        beerService.findByName(beer.getName());
+
+        // when
+        beerService.decrement(beer.getId(), 4);
+
+        // then
+        assertThat(cachedBeer().getQuantity(), is(equalTo(6)));
+    }
+
+    @Test
+    void whenStockIsAdjustedInBulkThenTheCachedBeerIsUpdated() {
+        // given
+        beerService.findByName(beer.getName());
+
+        // when
+        beerService.adjustStock(List.of(new StockOperationDTO(beer.getId(), 7)), BulkMode.BEST_EFFORT);
+
+        // then
+        assertThat(cachedBeer().getQuantity(), is(equalTo(17)));
+    }
+
+    @Test
+    void whenAnOlderVersionOfTheBeerIsPutThenTheCachedBeerIsKept() {
+        // given
+        var staleBeerDTO = beerService.findByName(beer.getName());
+        beerService.increment(beer.getId(), 5);
+
+        // when
+        beersCache.put(beer.getName(), staleBeerDTO);
+
+        // then
+        assertThat(cachedBeer().getQuantity(), is(equalTo(15)));
+    }
+
+    @Test
+    void whenBeerIsDeletedThenItIsEvictedFromTheCache() {
+        // given
+        beerService.findByName(beer.getName());
+
+        // when
+        beerService.deleteById(beer.getId());
+
+        // then
+        assertThat(beersCache.get(beer.getName()), is(nullValue()));
+    }
+
+    private BeerDTO cachedBeer() {
+        return beersCache.get(beer.getName(), BeerDTO.class);
+    }
+}
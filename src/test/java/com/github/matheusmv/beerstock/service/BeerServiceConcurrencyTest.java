@@ -0,0 +1,181 @@
+package com.github.matheusmv.beerstock.service;
+
+import com.github.matheusmv.beerstock.builder.BeerDTOBuilder;
+import com.github.matheusmv.beerstock.entity.Beer;
+import com.github.matheusmv.beerstock.enums.BeerType;
+import com.github.matheusmv.beerstock.exception.BeerAlreadyRegisteredException;
+import com.github.matheusmv.beerstock.exception.BeerStockExceededException;
+import com.github.matheusmv.beerstock.exception.BeerStockInsufficientException;
+import com.github.matheusmv.beerstock.repository.BeerRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+@SpringBootTest
+public class BeerServiceConcurrencyTest {
+
+    private static final int THREADS = 16;
+    private static final int OPERATIONS_PER_THREAD = 50;
+
+    @Autowired
+    private BeerService beerService;
+
+    @Autowired
+    private BeerRepository beerRepository;
+
+    @AfterEach
+    void tearDown() {
+        beerRepository.deleteAll();
+    }
+
+    @Test
+    void whenConcurrentIncrementsExceedMaxThenFinalQuantityIsExactlyMax() throws Exception {
+        // given
+        var beer = beerRepository.save(new Beer(null, "Heineken", "Heineken", 500, 0, BeerType.LAGER, null));
+        var exceeded = new AtomicInteger();
+
+        // when
+        runConcurrently(() -> {
+            try {
+                beerService.increment(beer.getId(), 1);
+            } catch (BeerStockExceededException exception) {
+                exceeded.incrementAndGet();
+            }
+        });
+
+        // then
+        var finalQuantity = beerRepository.findById(beer.getId()).orElseThrow().getQuantity();
+        var attempts = THREADS * OPERATIONS_PER_THREAD;
+
+        assertAll("concurrent increment test",
+                () -> assertThat(finalQuantity, is(equalTo(500))),
+                () -> assertThat(exceeded.get(), is(equalTo(attempts - 500)))
+        );
+    }
+
+    @Test
+    void whenConcurrentDecrementsExceedStockThenFinalQuantityIsExactlyZero() throws Exception {
+        // given
+        var beer = beerRepository.save(new Beer(null, "Stella", "Ambev", 500, 300, BeerType.LAGER, null));
+        var insufficient = new AtomicInteger();
+
+        // when
+        runConcurrently(() -> {
+            try {
+                beerService.decrement(beer.getId(), 1);
+            } catch (BeerStockInsufficientException exception) {
+                insufficient.incrementAndGet();
+            }
+        });
+
+        // then
+        var finalQuantity = beerRepository.findById(beer.getId()).orElseThrow().getQuantity();
+        var attempts = THREADS * OPERATIONS_PER_THREAD;
+
+        assertAll("concurrent decrement test",
+                () -> assertThat(finalQuantity, is(equalTo(0))),
+                () -> assertThat(insufficient.get(), is(equalTo(attempts - 300)))
+        );
+    }
+
+    @Test
+    void whenConcurrentIncrementsAndDecrementsAreBalancedThenNoUpdateIsLost() throws Exception {
+        // given
+        var beer = beerRepository.save(new Beer(null, "Colorado", "Ambev", 500, 250, BeerType.IPA, null));
+        var counter = new AtomicInteger();
+
+        // when
+        runConcurrently(() -> {
+            if (counter.getAndIncrement() % 2 == 0) {
+                beerService.increment(beer.getId(), 3);
+            } else {
+                beerService.decrement(beer.getId(), 3);
+            }
+        });
+
+        // then
+        var finalQuantity = beerRepository.findById(beer.getId()).orElseThrow().getQuantity();
+
+        assertThat(finalQuantity, is(equalTo(250)));
+    }
+
+    @Test
+    void whenConcurrentCreatesUseTheSameNameThenOnlyOneBeerIsRegistered() throws Exception {
+        // given
+        var beerDTO = BeerDTOBuilder.builder().id(null).name("Budweiser").build().toBeerDTO();
+        var created = new AtomicInteger();
+        var alreadyRegistered = new AtomicInteger();
+
+        // when
+        runConcurrently(() -> {
+            try {
+                beerService.createBeer(beerDTO);
+                created.incrementAndGet();
+            } catch (BeerAlreadyRegisteredException exception) {
+                alreadyRegistered.incrementAndGet();
+            }
+        });
+
+        // then
+        var attempts = THREADS * OPERATIONS_PER_THREAD;
+
+        assertAll("concurrent create test",
+                () -> assertThat(created.get(), is(equalTo(1))),
+                () -> assertThat(alreadyRegistered.get(), is(equalTo(attempts - 1))),
+                () -> assertThat(beerRepository.count(), is(equalTo(1L)))
+        );
+    }
+
+    private void runConcurrently(Runnable operation) throws Exception {
+        var executor = Executors.newFixedThreadPool(THREADS);
+        var startSignal = new CountDownLatch(1);
+
+        try {
+            var futures = new ArrayList<Future<Void>>();
+
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(runAfter(startSignal, operation)));
+            }
+
+            startSignal.countDown();
+
+            for (var future : futures) {
+                future.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            shutdown(executor);
+        }
+    }
+
+    private Callable<Void> runAfter(CountDownLatch startSignal, Runnable operation) {
+        return () -> {
+            startSignal.await();
+
+            for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                operation.run();
+            }
+
+            return null;
+        };
+    }
+
+    private void shutdown(ExecutorService executor) throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+    }
+}
@@ -0,0 +1,98 @@
+package com.github.matheusmv.beerstock.service;
+
+import com.github.matheusmv.beerstock.builder.BeerDTOBuilder;
+import com.github.matheusmv.beerstock.entity.Beer;
+import com.github.matheusmv.beerstock.enums.BeerType;
+import com.github.matheusmv.beerstock.exception.BeerNotFoundException;
+import com.github.matheusmv.beerstock.repository.BeerRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = "beerstock.metrics.stock-levels-refresh=0s")
+public class BeerServiceMetricsTest {
+
+    @Autowired
+    private BeerService beerService;
+
+    @Autowired
+    private BeerRepository beerRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @AfterEach
+    void tearDown() {
+        beerRepository.deleteAll();
+    }
+
+    @Test
+    void whenAnOperationSucceedsThenItIsTimedWithSuccessOutcome() {
+        // given
+        var beerDTO = BeerDTOBuilder.builder().id(null).name("Heineken").build().toBeerDTO();
+        var before = timerCount("createBeer", "success");
+
+        // when
+        beerService.createBeer(beerDTO);
+
+        // then
+        assertThat(timerCount("createBeer", "success"), is(equalTo(before + 1)));
+    }
+
+    @Test
+    void whenAnOperationThrowsThenItIsTimedWithErrorOutcomeAndTheExceptionIsCounted() {
+        // given
+        var timerBefore = timerCount("findByName", "error");
+        var counterBefore = exceptionCount("findByName", BeerNotFoundException.class);
+
+        // when
+        assertThrows(BeerNotFoundException.class, () -> beerService.findByName("Unknown"));
+
+        // then
+        assertAll("error metrics test",
+                () -> assertThat(timerCount("findByName", "error"), is(equalTo(timerBefore + 1))),
+                () -> assertThat(exceptionCount("findByName", BeerNotFoundException.class), is(equalTo(counterBefore + 1)))
+        );
+    }
+
+    @Test
+    void whenStockChangesThenTheGaugesFollowTheDatabase() {
+        // given
+        beerRepository.save(new Beer(null, "Stella", "Ambev", 100, 100, BeerType.LAGER, null));
+        beerRepository.save(new Beer(null, "Colorado", "Ambev", 100, 95, BeerType.IPA, null));
+        beerRepository.save(new Beer(null, "Brahma", "Ambev", 100, 10, BeerType.LAGER, null));
+
+        // then
+        assertAll("gauges test",
+                () -> assertThat(meterRegistry.get("beerstock.stock.units").gauge().value(), is(equalTo(205.0))),
+                () -> assertThat(meterRegistry.get("beerstock.beers.at.max").gauge().value(), is(equalTo(1.0))),
+                () -> assertThat(meterRegistry.get("beerstock.beers.near.max").gauge().value(), is(equalTo(2.0)))
+        );
+    }
+
+    private long timerCount(String operation, String outcome) {
+        var timer = meterRegistry.find(BeerServiceMetrics.SERVICE_TIMER)
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .timer();
+
+        return timer == null ? 0 : timer.count();
+    }
+
+    private double exceptionCount(String operation, Class<? extends Exception> exception) {
+        var counter = meterRegistry.find(BeerServiceMetrics.EXCEPTIONS_COUNTER)
+                .tag("operation", operation)
+                .tag("exception", exception.getSimpleName())
+                .counter();
+
+        return counter == null ? 0 : counter.count();
+    }
+}
@@ -1,20 +1,44 @@
 package com.github.matheusmv.beerstock.service;
 
 import com.github.matheusmv.beerstock.builder.BeerDTOBuilder;
+import com.github.matheusmv.beerstock.config.BeerstockProperties;
+import com.github.matheusmv.beerstock.dto.BeerSearchCriteriaDTO;
+import com.github.matheusmv.beerstock.dto.StockChangeEventDTO;
+import com.github.matheusmv.beerstock.dto.StockOperationDTO;
+import com.github.matheusmv.beerstock.enums.BeerSortField;
+import com.github.matheusmv.beerstock.enums.BeerType;
+import com.github.matheusmv.beerstock.enums.BulkMode;
+import com.github.matheusmv.beerstock.enums.StockChangeKind;
+import com.github.matheusmv.beerstock.enums.StockOperationStatus;
 import com.github.matheusmv.beerstock.exception.BeerAlreadyRegisteredException;
 import com.github.matheusmv.beerstock.exception.BeerNotFoundException;
 import com.github.matheusmv.beerstock.exception.BeerStockExceededException;
 import com.github.matheusmv.beerstock.exception.BeerStockInsufficientException;
+import com.github.matheusmv.beerstock.exception.BeerVersionMismatchException;
+import com.github.matheusmv.beerstock.exception.InvalidCursorException;
 import com.github.matheusmv.beerstock.mapper.BeerMapper;
 import com.github.matheusmv.beerstock.repository.BeerRepository;
+import com.github.matheusmv.beerstock.repository.StockThresholdRepository;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.empty;
@@ -23,11 +47,14 @@ import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.lessThan;
 import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
 import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -38,6 +65,27 @@ public class BeerServiceTest {
     @Mock
     private BeerRepository beerRepository;
 
+    @Mock
+    private StockThresholdRepository stockThresholdRepository;
+
+    @Mock
+    private StockLedger stockLedger;
+
+    @Mock
+    private BeerNameIndex beerNameIndex;
+
+    @Spy
+    private BeerstockProperties beerstockProperties = new BeerstockProperties();
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+
     private final BeerMapper beerMapper = BeerMapper.INSTANCE;
 
     @InjectMocks
@@ -50,8 +98,7 @@ public class BeerServiceTest {
         var expectedSavedBeer = beerMapper.toModel(expectedBeerDTO);
 
         // when
-        when(beerRepository.findByName(expectedBeerDTO.getName())).thenReturn(Optional.empty());
-        when(beerRepository.save(expectedSavedBeer)).thenReturn(expectedSavedBeer);
+        when(beerRepository.saveAndFlush(expectedSavedBeer)).thenReturn(expectedSavedBeer);
 
         // then
         var createdBeerDTO = beerService.createBeer(expectedBeerDTO);
@@ -71,7 +118,7 @@ public class BeerServiceTest {
         var duplicatedBeer = beerMapper.toModel(expectedBeerDTO);
 
         // when
-        when(beerRepository.findByName(expectedBeerDTO.getName())).thenReturn(Optional.of(duplicatedBeer));
+        when(beerRepository.saveAndFlush(duplicatedBeer)).thenThrow(DataIntegrityViolationException.class);
 
         // then
         assertThrows(BeerAlreadyRegisteredException.class, () -> beerService.createBeer(expectedBeerDTO));
@@ -81,10 +128,9 @@ public class BeerServiceTest {
     void whenValidBeerIsGivenThenReturnABeer() {
         // given
         var expectedFoundBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
-        var expectedFoundBeer = beerMapper.toModel(expectedFoundBeerDTO);
 
         // when
-        when(beerRepository.findByName(expectedFoundBeer.getName())).thenReturn(Optional.of(expectedFoundBeer));
+        when(beerRepository.findDTOByName(expectedFoundBeerDTO.getName())).thenReturn(Optional.of(expectedFoundBeerDTO));
 
         // then
         var foundBeerDTO = beerService.findByName(expectedFoundBeerDTO.getName());
@@ -98,7 +144,7 @@ public class BeerServiceTest {
         var expectedFoundBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
 
         // when
-        when(beerRepository.findByName(expectedFoundBeerDTO.getName())).thenReturn(Optional.empty());
+        when(beerRepository.findDTOByName(expectedFoundBeerDTO.getName())).thenReturn(Optional.empty());
 
         // then
         assertThrows(BeerNotFoundException.class, () -> beerService.findByName(expectedFoundBeerDTO.getName()));
@@ -108,10 +154,9 @@ public class BeerServiceTest {
     void whenListBeerIsCalledThenReturnAListOfBeers() {
         // given
         var expectedFoundBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
-        var expectedFoundBeer = beerMapper.toModel(expectedFoundBeerDTO);
 
         // when
-        when(beerRepository.findAll()).thenReturn(Collections.singletonList(expectedFoundBeer));
+        when(beerRepository.findAllDTOs()).thenReturn(Collections.singletonList(expectedFoundBeerDTO));
 
         // then
         var listOfBeersDTO = beerService.listAll();
@@ -125,7 +170,7 @@ public class BeerServiceTest {
     @Test
     void whenListBeerIsCalledThenReturnAEmptyList() {
         // when
-        when(beerRepository.findAll()).thenReturn(Collections.EMPTY_LIST);
+        when(beerRepository.findAllDTOs()).thenReturn(Collections.EMPTY_LIST);
 
         // then
         var listOfBeersDTO = beerService.listAll();
@@ -133,6 +178,57 @@ public class BeerServiceTest {
         assertThat(listOfBeersDTO, is(empty()));
     }
 
+    @Test
+    void whenListAfterCursorIsCalledThenReturnTheNextPageOfBeers() {
+        // given
+        var firstBeer = BeerDTOBuilder.builder().id(1L).build().toBeerDTO();
+        var secondBeer = BeerDTOBuilder.builder().id(2L).name("Skol").build().toBeerDTO();
+
+        // when
+        when(beerRepository.findDTOsAfter(0L, PageRequest.of(0, 2)))
+                .thenReturn(List.of(firstBeer, secondBeer));
+        when(beerRepository.findDTOsAfter(1L, PageRequest.of(0, 2)))
+                .thenReturn(List.of(secondBeer));
+
+        // then
+        var firstPage = beerService.listAfter(null, 1);
+        var secondPage = beerService.listAfter(firstPage.getNextCursor(), 1);
+
+        assertAll("testing listAfter",
+                () -> assertThat(firstPage.getContent(), is(equalTo(List.of(firstBeer)))),
+                () -> assertThat(firstPage.getNextCursor(), is(not(nullValue()))),
+                () -> assertThat(secondPage.getContent(), is(equalTo(List.of(secondBeer)))),
+                () -> assertThat(secondPage.getNextCursor(), is(nullValue()))
+        );
+    }
+
+    @Test
+    void whenListAfterIsCalledWithInvalidCursorThenThrowAnException() {
+        assertThrows(InvalidCursorException.class, () -> beerService.listAfter("not-a-cursor", 1));
+    }
+
+    @Test
+    void whenSearchIsCalledThenTheCriteriaArePassedWithTheSortAndNearMaxPercent() {
+        // given
+        var beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        var criteria = BeerSearchCriteriaDTO.builder().type(BeerType.IPA).brand("Col").inStock(true).build();
+        var pageRequest = PageRequest.of(1, 10, Sort.by(Sort.Direction.DESC, "quantity"));
+
+        // when
+        when(beerRepository.search(criteria, beerstockProperties.getMetrics().getNearMaxPercent(), pageRequest))
+                .thenReturn(new PageImpl<>(List.of(beerDTO), pageRequest, 11));
+
+        // then
+        var page = beerService.search(criteria, 1, 10, BeerSortField.QUANTITY, Sort.Direction.DESC);
+
+        assertAll("testing search",
+                () -> assertThat(page.getContent(), is(equalTo(List.of(beerDTO)))),
+                () -> assertThat(page.getPage(), is(equalTo(1))),
+                () -> assertThat(page.getTotalElements(), is(equalTo(11L))),
+                () -> assertThat(page.getTotalPages(), is(equalTo(2)))
+        );
+    }
+
     @Test
     void whenExclusionIsCalledWithValidIdThenABeerShouldBeDeleted() {
         // given
@@ -165,13 +261,15 @@ public class BeerServiceTest {
         var expectedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
         var expectedBeer = beerMapper.toModel(expectedBeerDTO);
 
+        var quantityToIncrement = 10;
+        var expectedQuantityAfterIncrement = expectedBeerDTO.getQuantity() + quantityToIncrement;
+        expectedBeer.setQuantity(expectedQuantityAfterIncrement);
+
         // when
+        when(beerRepository.incrementQuantity(expectedBeerDTO.getId(), quantityToIncrement)).thenReturn(1);
         when(beerRepository.findById(expectedBeerDTO.getId())).thenReturn(Optional.of(expectedBeer));
-        when(beerRepository.save(expectedBeer)).thenReturn(expectedBeer);
 
         // then
-        var quantityToIncrement = 10;
-        var expectedQuantityAfterIncrement = expectedBeerDTO.getQuantity() + quantityToIncrement;
         var incrementedBeerDTO = beerService.increment(expectedBeerDTO.getId(), quantityToIncrement);
 
         assertAll("test increment",
@@ -181,22 +279,92 @@ public class BeerServiceTest {
     }
 
     @Test
-    void whenIncrementIsGreaterThanMaxThrowAnException() {
+    void whenIncrementIsCalledThenAStockChangeIsPublished() {
         // given
         var expectedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
         var expectedBeer = beerMapper.toModel(expectedBeerDTO);
 
+        var quantityToIncrement = 10;
+        expectedBeer.setQuantity(expectedBeerDTO.getQuantity() + quantityToIncrement);
+
         // when
+        when(beerRepository.incrementQuantity(expectedBeerDTO.getId(), quantityToIncrement)).thenReturn(1);
         when(beerRepository.findById(expectedBeerDTO.getId())).thenReturn(Optional.of(expectedBeer));
 
         // then
+        beerService.increment(expectedBeerDTO.getId(), quantityToIncrement);
+
+        var eventCaptor = ArgumentCaptor.forClass(StockChangeEventDTO.class);
+        verify(eventPublisher).publishEvent(eventCaptor.capture());
+        var event = eventCaptor.getValue();
+
+        assertAll("stock change event test",
+                () -> assertThat(event.getKind(), is(equalTo(StockChangeKind.INCREMENTED))),
+                () -> assertThat(event.getId(), is(equalTo(expectedBeerDTO.getId()))),
+                () -> assertThat(event.getOldQuantity(), is(equalTo(expectedBeerDTO.getQuantity()))),
+                () -> assertThat(event.getNewQuantity(), is(equalTo(expectedBeerDTO.getQuantity() + quantityToIncrement)))
+        );
+    }
+
+    @Test
+    void whenTheStockLedgerIsEnabledThenIncrementRunsWithoutATransaction() {
+        // given
+        var expectedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        var quantityToIncrement = 10;
+        var incrementedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        incrementedBeerDTO.setQuantity(expectedBeerDTO.getQuantity() + quantityToIncrement);
+
+        // when
+        when(stockLedger.isEnabled()).thenReturn(true);
+        when(stockLedger.increment(expectedBeerDTO.getId(), quantityToIncrement, null)).thenReturn(incrementedBeerDTO);
+
+        // then
+        var result = beerService.increment(expectedBeerDTO.getId(), quantityToIncrement);
+
+        assertAll("ledger increment test",
+                () -> assertThat(result.getQuantity(), is(equalTo(incrementedBeerDTO.getQuantity()))),
+                () -> verifyNoInteractions(transactionTemplate)
+        );
+    }
+
+    @Test
+    void whenIncrementIsGreaterThanMaxThrowAnException() {
+        // given
+        var expectedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        var expectedBeer = beerMapper.toModel(expectedBeerDTO);
+
         var quantityToIncrement = 45;
 
+        // when
+        when(beerRepository.incrementQuantity(expectedBeerDTO.getId(), quantityToIncrement)).thenReturn(0);
+        when(beerRepository.findById(expectedBeerDTO.getId())).thenReturn(Optional.of(expectedBeer));
+
+        // then
+
         assertThrows(
                 BeerStockExceededException.class,
                 () -> beerService.increment(expectedBeerDTO.getId(), quantityToIncrement));
     }
 
+    @Test
+    void whenIncrementExpectsAnOutdatedVersionThenThrowAnException() {
+        // given
+        var expectedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        var expectedBeer = beerMapper.toModel(expectedBeerDTO);
+        expectedBeer.setVersion(5L);
+
+        var quantityToIncrement = 10;
+
+        // when
+        when(beerRepository.incrementQuantityAtVersion(expectedBeerDTO.getId(), quantityToIncrement, 4L)).thenReturn(0);
+        when(beerRepository.findById(expectedBeerDTO.getId())).thenReturn(Optional.of(expectedBeer));
+
+        // then
+        assertThrows(
+                BeerVersionMismatchException.class,
+                () -> beerService.increment(expectedBeerDTO.getId(), quantityToIncrement, 4L));
+    }
+
     @Test
     void whenIncrementIsCalledWithInvalidIdThrownAnException() {
         // given
@@ -217,13 +385,15 @@ public class BeerServiceTest {
         var expectedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
         var expectedBeer = beerMapper.toModel(expectedBeerDTO);
 
+        var quantityToDecrement = 5;
+        var expectedQuantityAfterDecrement = expectedBeerDTO.getQuantity() - quantityToDecrement;
+        expectedBeer.setQuantity(expectedQuantityAfterDecrement);
+
         // when
+        when(beerRepository.decrementQuantity(expectedBeerDTO.getId(), quantityToDecrement)).thenReturn(1);
         when(beerRepository.findById(expectedBeerDTO.getId())).thenReturn(Optional.of(expectedBeer));
-        when(beerRepository.save(expectedBeer)).thenReturn(expectedBeer);
 
         // then
-        var quantityToDecrement = 5;
-        var expectedQuantityAfterDecrement = expectedBeerDTO.getQuantity() - quantityToDecrement;
         var decrementedBeerDTO = beerService.decrement(expectedBeerDTO.getId(), quantityToDecrement);
 
         assertAll("test decrement",
@@ -239,11 +409,13 @@ public class BeerServiceTest {
         var expectedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
         var expectedBeer = beerMapper.toModel(expectedBeerDTO);
 
+        var quantityToDecrement = 11;
+
         // when
+        when(beerRepository.decrementQuantity(expectedBeerDTO.getId(), quantityToDecrement)).thenReturn(0);
         when(beerRepository.findById(expectedBeerDTO.getId())).thenReturn(Optional.of(expectedBeer));
 
         // then
-        var quantityToDecrement = 11;
 
         assertThrows(
                 BeerStockInsufficientException.class,
@@ -263,4 +435,87 @@ public class BeerServiceTest {
                 BeerNotFoundException.class,
                 () -> beerService.increment(INVALID_BEER_ID, quantityToDecrement));
     }
+
+    @Test
+    void whenBestEffortBulkAdjustmentIsCalledThenValidOperationsAreApplied() {
+        // given
+        var expectedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        var expectedBeer = beerMapper.toModel(expectedBeerDTO);
+        expectedBeer.setVersion(0L);
+        var operations = List.of(
+                new StockOperationDTO(expectedBeerDTO.getId(), 30),
+                new StockOperationDTO(expectedBeerDTO.getId(), 20),
+                new StockOperationDTO(expectedBeerDTO.getId(), -15),
+                new StockOperationDTO(INVALID_BEER_ID + 1, 5));
+
+        // when
+        when(beerRepository.findAllByIdForUpdate(Set.of(expectedBeerDTO.getId(), INVALID_BEER_ID + 1)))
+                .thenReturn(List.of(expectedBeer));
+
+        // then
+        var response = beerService.adjustStock(operations, BulkMode.BEST_EFFORT);
+        var results = response.getResults();
+
+        assertAll("best effort bulk adjustment test",
+                () -> assertThat(response.getApplied(), is(equalTo(2L))),
+                () -> assertThat(response.getRejected(), is(equalTo(2L))),
+                () -> assertThat(results.get(0).getStatus(), is(equalTo(StockOperationStatus.APPLIED))),
+                () -> assertThat(results.get(1).getError(), is(equalTo("BeerStockExceededException"))),
+                () -> assertThat(results.get(2).getQuantity(), is(equalTo(25))),
+                () -> assertThat(results.get(3).getError(), is(equalTo("BeerNotFoundException"))),
+                () -> assertThat(expectedBeer.getQuantity(), is(equalTo(25)))
+        );
+    }
+
+    @Test
+    void whenBulkOperationsOfABeerCancelOutThenItsEventsKeepItsVersion() {
+        // given
+        var expectedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        var expectedBeer = beerMapper.toModel(expectedBeerDTO);
+        expectedBeer.setVersion(3L);
+        var operations = List.of(
+                new StockOperationDTO(expectedBeerDTO.getId(), 5),
+                new StockOperationDTO(expectedBeerDTO.getId(), -5));
+
+        // when
+        when(beerRepository.findAllByIdForUpdate(Set.of(expectedBeerDTO.getId()))).thenReturn(List.of(expectedBeer));
+
+        // then
+        var response = beerService.adjustStock(operations, BulkMode.BEST_EFFORT);
+
+        var eventCaptor = ArgumentCaptor.forClass(StockChangeEventDTO.class);
+        verify(eventPublisher, times(2)).publishEvent(eventCaptor.capture());
+
+        assertAll("net zero bulk adjustment test",
+                () -> assertThat(response.getApplied(), is(equalTo(2L))),
+                () -> assertThat(eventCaptor.getAllValues().get(0).getVersion(), is(equalTo(3L))),
+                () -> assertThat(eventCaptor.getAllValues().get(1).getVersion(), is(equalTo(3L))),
+                () -> assertThat(eventCaptor.getAllValues().get(1).getNewQuantity(), is(equalTo(expectedBeerDTO.getQuantity())))
+        );
+    }
+
+    @Test
+    void whenAllOrNothingBulkAdjustmentHasARejectionThenNothingIsApplied() {
+        // given
+        var expectedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        var expectedBeer = beerMapper.toModel(expectedBeerDTO);
+        var operations = List.of(
+                new StockOperationDTO(expectedBeerDTO.getId(), 5),
+                new StockOperationDTO(expectedBeerDTO.getId(), -20));
+
+        // when
+        when(beerRepository.findAllByIdForUpdate(Set.of(expectedBeerDTO.getId()))).thenReturn(List.of(expectedBeer));
+
+        // then
+        var response = beerService.adjustStock(operations, BulkMode.ALL_OR_NOTHING);
+        var results = response.getResults();
+
+        assertAll("all or nothing bulk adjustment test",
+                () -> assertThat(response.getApplied(), is(equalTo(0L))),
+                () -> assertThat(results.get(0).getStatus(), is(equalTo(StockOperationStatus.ROLLED_BACK))),
+                () -> assertThat(results.get(1).getStatus(), is(equalTo(StockOperationStatus.REJECTED))),
+                () -> assertThat(results.get(1).getError(), is(equalTo("BeerStockInsufficientException"))),
+                () -> assertThat(expectedBeer.getQuantity(), is(equalTo(expectedBeerDTO.getQuantity())))
+        );
+    }
 }
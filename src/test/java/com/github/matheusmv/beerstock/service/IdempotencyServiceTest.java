@@ -0,0 +1,138 @@
+package com.github.matheusmv.beerstock.service;
+
+import com.github.matheusmv.beerstock.builder.BeerDTOBuilder;
+import com.github.matheusmv.beerstock.config.BeerstockProperties;
+import com.github.matheusmv.beerstock.dto.BeerDTO;
+import com.github.matheusmv.beerstock.exception.BeerStockExceededException;
+import com.github.matheusmv.beerstock.exception.IdempotencyKeyReusedException;
+import com.github.matheusmv.beerstock.exception.InvalidIdempotencyKeyException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class IdempotencyServiceTest {
+
+    private static final String IDEMPOTENCY_KEY = "increment-1";
+    private static final String FINGERPRINT = "increment:1:10";
+
+    private final AtomicInteger calls = new AtomicInteger();
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private IdempotencyService idempotencyService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        idempotencyService = new IdempotencyService(new InMemoryIdempotencyStore(new BeerstockProperties()), meterRegistry);
+    }
+
+    @Test
+    void whenARequestIsRetriedThenTheStoredResponseIsReturnedWithoutRunningItAgain() {
+        // given
+        var beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+
+        // when
+        var first = idempotencyService.execute(IDEMPOTENCY_KEY, FINGERPRINT, () -> count(beerDTO));
+        var retry = idempotencyService.execute(IDEMPOTENCY_KEY, FINGERPRINT, () -> count(beerDTO));
+
+        // then
+        assertAll("retried request test",
+                () -> assertThat(retry, is(sameInstance(first))),
+                () -> assertThat(calls.get(), is(equalTo(1))),
+                () -> assertThat(meterRegistry.get("beerstock.idempotency.replayed").counter().count(), is(equalTo(1.0)))
+        );
+    }
+
+    @Test
+    void whenTheKeyIsTooLongThenTheRequestIsRejectedWithoutRunning() {
+        // given
+        var beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        var idempotencyKey = "k".repeat(256);
+
+        // then
+        assertThrows(InvalidIdempotencyKeyException.class,
+                () -> idempotencyService.execute(idempotencyKey, FINGERPRINT, () -> count(beerDTO)));
+        assertThat(calls.get(), is(equalTo(0)));
+    }
+
+    @Test
+    void whenADuplicateArrivesWhileTheFirstRequestRunsThenItWaitsForItsResponse() throws Exception {
+        // given
+        var beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+
+        var first = CompletableFuture.supplyAsync(() -> idempotencyService.execute(IDEMPOTENCY_KEY, FINGERPRINT, () -> {
+            started.countDown();
+            await(release);
+            return count(beerDTO);
+        }));
+        started.await(5, TimeUnit.SECONDS);
+
+        // when
+        var duplicate = CompletableFuture.supplyAsync(() ->
+                idempotencyService.execute(IDEMPOTENCY_KEY, FINGERPRINT, () -> count(beerDTO)));
+        release.countDown();
+
+        // then
+        assertAll("concurrent duplicate test",
+                () -> assertThat(duplicate.get(5, TimeUnit.SECONDS), is(sameInstance(first.get(5, TimeUnit.SECONDS)))),
+                () -> assertThat(calls.get(), is(equalTo(1)))
+        );
+    }
+
+    @Test
+    void whenTheKeyIsReusedForAnotherRequestThenThrowAnException() {
+        // given
+        var beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+
+        // when
+        idempotencyService.execute(IDEMPOTENCY_KEY, FINGERPRINT, () -> count(beerDTO));
+
+        // then
+        assertThrows(IdempotencyKeyReusedException.class,
+                () -> idempotencyService.execute(IDEMPOTENCY_KEY, "decrement:1:10", () -> count(beerDTO)));
+    }
+
+    @Test
+    void whenTheRequestFailsThenItCanBeRetriedWithTheSameKey() {
+        // given
+        var beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+
+        // when
+        assertThrows(BeerStockExceededException.class, () -> idempotencyService.execute(IDEMPOTENCY_KEY, FINGERPRINT, () -> {
+            calls.incrementAndGet();
+            throw new BeerStockExceededException(1L, 10);
+        }));
+
+        // then
+        idempotencyService.execute(IDEMPOTENCY_KEY, FINGERPRINT, () -> count(beerDTO));
+        assertThat(calls.get(), is(equalTo(2)));
+    }
+
+    private BeerDTO count(BeerDTO beerDTO) {
+        calls.incrementAndGet();
+        return beerDTO;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package com.github.matheusmv.beerstock.service;
+
+import com.github.matheusmv.beerstock.builder.BeerDTOBuilder;
+import com.github.matheusmv.beerstock.config.BeerstockProperties;
+import com.github.matheusmv.beerstock.dto.StockAlertDTO;
+import com.github.matheusmv.beerstock.dto.StockAlertEventDTO;
+import com.github.matheusmv.beerstock.dto.StockChangeEventDTO;
+import com.github.matheusmv.beerstock.dto.StockThresholdsDTO;
+import com.github.matheusmv.beerstock.entity.StockThreshold;
+import com.github.matheusmv.beerstock.enums.StockAlertKind;
+import com.github.matheusmv.beerstock.enums.StockAlertState;
+import com.github.matheusmv.beerstock.enums.StockChangeKind;
+import com.github.matheusmv.beerstock.exception.BeerNotFoundException;
+import com.github.matheusmv.beerstock.mapper.BeerMapper;
+import com.github.matheusmv.beerstock.repository.BeerRepository;
+import com.github.matheusmv.beerstock.repository.StockThresholdRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class StockAlertServiceTest {
+
+    @Mock
+    private BeerRepository beerRepository;
+
+    @Mock
+    private StockThresholdRepository stockThresholdRepository;
+
+    @Mock
+    private StockLedger stockLedger;
+
+    @Spy
+    private BeerstockProperties beerstockProperties = new BeerstockProperties();
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private final BeerMapper beerMapper = BeerMapper.INSTANCE;
+
+    @InjectMocks
+    private StockAlertService stockAlertService;
+
+    @Test
+    void whenStockFallsBelowTheReorderPointThenALowStockAlertIsRaisedOnce() {
+        // when
+        stockAlertService.onStockChange(change(6, 4));
+        stockAlertService.onStockChange(change(4, 3));
+
+        // then
+        var eventCaptor = ArgumentCaptor.forClass(StockAlertEventDTO.class);
+        verify(eventPublisher, times(1)).publishEvent(eventCaptor.capture());
+        var event = eventCaptor.getValue();
+
+        assertAll("low stock alert test",
+                () -> assertThat(event.getState(), is(equalTo(StockAlertState.RAISED))),
+                () -> assertThat(event.getAlert().getKind(), is(equalTo(StockAlertKind.LOW_STOCK))),
+                () -> assertThat(event.getAlert().getThreshold(), is(equalTo(5))),
+                () -> assertThat(quantities(StockAlertKind.LOW_STOCK), contains(3))
+        );
+    }
+
+    @Test
+    void whenStockRecoversThenTheAlertIsClearedAndLeavesTheSet() {
+        // given
+        stockAlertService.onStockChange(change(6, 4));
+
+        // when
+        stockAlertService.onStockChange(change(4, 20));
+
+        // then
+        var eventCaptor = ArgumentCaptor.forClass(StockAlertEventDTO.class);
+        verify(eventPublisher, times(2)).publishEvent(eventCaptor.capture());
+
+        assertAll("cleared alert test",
+                () -> assertThat(eventCaptor.getValue().getState(), is(equalTo(StockAlertState.CLEARED))),
+                () -> assertThat(stockAlertService.findActive(StockAlertKind.LOW_STOCK), is(empty()))
+        );
+    }
+
+    @Test
+    void whenStockReachesTheNearMaxPercentageThenANearMaxAlertIsRaised() {
+        // when
+        stockAlertService.onStockChange(change(40, 45));
+
+        // then
+        assertAll("near max alert test",
+                () -> assertThat(quantities(StockAlertKind.NEAR_MAX), contains(45)),
+                () -> assertThat(stockAlertService.findActive(StockAlertKind.LOW_STOCK), is(empty()))
+        );
+    }
+
+    @Test
+    void whenAChangeArrivesAfterANewerOneThenItIsIgnored() {
+        // given
+        stockAlertService.onStockChange(change(4, 20, 3L));
+
+        // when
+        stockAlertService.onStockChange(change(6, 4, 2L));
+
+        // then
+        verify(eventPublisher, never()).publishEvent(any(StockAlertEventDTO.class));
+        assertThat(stockAlertService.findActive(StockAlertKind.LOW_STOCK), is(empty()));
+    }
+
+    @Test
+    void whenAChangeOfADeletedBeerArrivesLateThenItsAlertIsNotRaisedAgain() {
+        // given
+        stockAlertService.onStockChange(change(6, 4, 2L));
+        stockAlertService.onStockChange(change(4, 0, 3L).toBuilder().kind(StockChangeKind.DELETED).build());
+
+        // when
+        stockAlertService.onStockChange(change(4, 3, 3L));
+
+        // then
+        var eventCaptor = ArgumentCaptor.forClass(StockAlertEventDTO.class);
+        verify(eventPublisher, times(2)).publishEvent(eventCaptor.capture());
+
+        assertAll("deleted beer alert test",
+                () -> assertThat(eventCaptor.getValue().getState(), is(equalTo(StockAlertState.CLEARED))),
+                () -> assertThat(stockAlertService.findActive(StockAlertKind.LOW_STOCK), is(empty()))
+        );
+    }
+
+    @Test
+    void whenThresholdsAreUpdatedAfterANewerChangeThenTheNewerLevelIsReevaluated() {
+        // given
+        var beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        var beer = beerMapper.toModel(beerDTO);
+        beer.setVersion(1L);
+        var thresholds = StockThresholdsDTO.builder().reorderPoint(20).build();
+        stockAlertService.onStockChange(change(beerDTO.getQuantity(), 12, 2L));
+
+        // when
+        when(beerRepository.findById(beerDTO.getId())).thenReturn(Optional.of(beer));
+        when(stockThresholdRepository.save(any(StockThreshold.class))).then(invocation -> invocation.getArgument(0));
+
+        // then
+        stockAlertService.updateThresholds(beerDTO.getId(), thresholds);
+
+        assertThat(quantities(StockAlertKind.LOW_STOCK), contains(12));
+    }
+
+    @Test
+    void whenThresholdsAreUpdatedThenTheBeerIsReevaluatedWithThem() {
+        // given
+        var beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        var thresholds = StockThresholdsDTO.builder().reorderPoint(20).build();
+
+        // when
+        when(beerRepository.findById(beerDTO.getId())).thenReturn(Optional.of(beerMapper.toModel(beerDTO)));
+        when(stockThresholdRepository.save(any(StockThreshold.class))).then(invocation -> invocation.getArgument(0));
+
+        // then
+        stockAlertService.updateThresholds(beerDTO.getId(), thresholds);
+
+        var alerts = stockAlertService.findActive(StockAlertKind.LOW_STOCK);
+
+        assertAll("updated thresholds test",
+                () -> assertThat(quantities(StockAlertKind.LOW_STOCK), contains(beerDTO.getQuantity())),
+                () -> assertThat(alerts.get(0).getThreshold(), is(equalTo(20)))
+        );
+    }
+
+    @Test
+    void whenThresholdsAreUpdatedWithInvalidIdThenThrowAnException() {
+        // given
+        var thresholds = StockThresholdsDTO.builder().reorderPoint(20).build();
+
+        // when
+        when(beerRepository.findById(1L)).thenReturn(Optional.empty());
+
+        // then
+        assertThrows(BeerNotFoundException.class, () -> stockAlertService.updateThresholds(1L, thresholds));
+        verify(stockThresholdRepository, never()).save(any(StockThreshold.class));
+    }
+
+    private List<Integer> quantities(StockAlertKind kind) {
+        return stockAlertService.findActive(kind)
+                .stream()
+                .map(StockAlertDTO::getQuantity)
+                .toList();
+    }
+
+    private StockChangeEventDTO change(int oldQuantity, int newQuantity) {
+        return change(oldQuantity, newQuantity, null);
+    }
+
+    private StockChangeEventDTO change(int oldQuantity, int newQuantity, Long version) {
+        var beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+
+        return StockChangeEventDTO.builder()
+                .kind(newQuantity >= oldQuantity ? StockChangeKind.INCREMENTED : StockChangeKind.DECREMENTED)
+                .id(beerDTO.getId())
+                .name(beerDTO.getName())
+                .type(beerDTO.getType())
+                .max(beerDTO.getMax())
+                .oldQuantity(oldQuantity)
+                .newQuantity(newQuantity)
+                .version(version)
+                .timestamp(Instant.now())
+                .build();
+    }
+}
@@ -0,0 +1,140 @@
+package com.github.matheusmv.beerstock.service;
+
+import com.github.matheusmv.beerstock.config.BeerstockProperties;
+import com.github.matheusmv.beerstock.dto.StockChangeEventDTO;
+import com.github.matheusmv.beerstock.enums.BeerType;
+import com.github.matheusmv.beerstock.enums.StockChangeKind;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+public class StockEventBroadcasterTest {
+
+    private final Queue<Runnable> scheduledDrains = new ArrayDeque<>();
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private StockEventBroadcaster stockEventBroadcaster;
+
+    @BeforeEach
+    void setUp() {
+        var beerstockProperties = new BeerstockProperties();
+        beerstockProperties.getEvents().setBufferSize(2);
+
+        meterRegistry = new SimpleMeterRegistry();
+        stockEventBroadcaster = new StockEventBroadcaster(beerstockProperties, meterRegistry, scheduledDrains::add);
+    }
+
+    @Test
+    void whenSubscribedWithAFilterThenOnlyMatchingEventsAreSent() {
+        // given
+        var lagers = new ArrayList<StockChangeEventDTO>();
+        var beerTwo = new ArrayList<StockChangeEventDTO>();
+
+        stockEventBroadcaster.subscribe(BeerType.LAGER, null, lagers::add);
+        stockEventBroadcaster.subscribe(null, 2L, beerTwo::add);
+
+        // when
+        stockEventBroadcaster.onStockChange(event(1L, BeerType.LAGER, 10, 20));
+        stockEventBroadcaster.onStockChange(event(2L, BeerType.IPA, 5, 0));
+        runScheduledDrains();
+
+        // then
+        assertAll("filtered subscription test",
+                () -> assertThat(ids(lagers), contains(1L)),
+                () -> assertThat(ids(beerTwo), contains(2L))
+        );
+    }
+
+    @Test
+    void whenASubscriberFallsBehindThenPendingChangesAreCoalescedPerBeer() {
+        // given
+        var received = new ArrayList<StockChangeEventDTO>();
+        stockEventBroadcaster.subscribe(null, null, received::add);
+
+        // when
+        stockEventBroadcaster.onStockChange(event(1L, BeerType.LAGER, 10, 20));
+        stockEventBroadcaster.onStockChange(event(1L, BeerType.LAGER, 20, 15));
+        stockEventBroadcaster.onStockChange(event(1L, BeerType.LAGER, 15, 30));
+        runScheduledDrains();
+
+        // then
+        assertAll("coalesced events test",
+                () -> assertThat(received, hasSize(1)),
+                () -> assertThat(received.get(0).getOldQuantity(), is(equalTo(10))),
+                () -> assertThat(received.get(0).getNewQuantity(), is(equalTo(30)))
+        );
+    }
+
+    @Test
+    void whenTheBufferIsFullThenTheOldestPendingBeerIsDropped() {
+        // given
+        var received = new ArrayList<StockChangeEventDTO>();
+        stockEventBroadcaster.subscribe(null, null, received::add);
+
+        // when
+        stockEventBroadcaster.onStockChange(event(1L, BeerType.LAGER, 0, 1));
+        stockEventBroadcaster.onStockChange(event(2L, BeerType.LAGER, 0, 1));
+        stockEventBroadcaster.onStockChange(event(3L, BeerType.LAGER, 0, 1));
+        runScheduledDrains();
+
+        // then
+        assertAll("bounded buffer test",
+                () -> assertThat(ids(received), contains(2L, 3L)),
+                () -> assertThat(meterRegistry.get("beerstock.events.dropped").counter().count(), is(equalTo(1.0)))
+        );
+    }
+
+    @Test
+    void whenTheSenderFailsThenTheSubscriptionIsClosed() {
+        // given
+        stockEventBroadcaster.subscribe(null, null, event -> {
+            throw new IOException("Broken pipe");
+        });
+
+        // when
+        stockEventBroadcaster.onStockChange(event(1L, BeerType.LAGER, 0, 1));
+        runScheduledDrains();
+
+        // then
+        assertThat(stockEventBroadcaster.getSubscriberCount(), is(equalTo(0)));
+    }
+
+    private void runScheduledDrains() {
+        while (!scheduledDrains.isEmpty()) {
+            scheduledDrains.poll().run();
+        }
+    }
+
+    private List<Long> ids(List<StockChangeEventDTO> events) {
+        return events.stream()
+                .map(StockChangeEventDTO::getId)
+                .toList();
+    }
+
+    private StockChangeEventDTO event(Long id, BeerType type, int oldQuantity, int newQuantity) {
+        return StockChangeEventDTO.builder()
+                .kind(newQuantity >= oldQuantity ? StockChangeKind.INCREMENTED : StockChangeKind.DECREMENTED)
+                .id(id)
+                .name("Beer " + id)
+                .type(type)
+                .oldQuantity(oldQuantity)
+                .newQuantity(newQuantity)
+                .timestamp(Instant.now())
+                .build();
+    }
+}
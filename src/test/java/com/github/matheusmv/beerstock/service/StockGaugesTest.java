@@ -0,0 +1,79 @@
+package com.github.matheusmv.beerstock.service;
+
+import com.github.matheusmv.beerstock.config.BeerstockProperties;
+import com.github.matheusmv.beerstock.dto.StockLevelsDTO;
+import com.github.matheusmv.beerstock.repository.BeerRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class StockGaugesTest {
+
+    @Mock
+    private BeerRepository beerRepository;
+
+    private BeerstockProperties beerstockProperties;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        beerstockProperties = new BeerstockProperties();
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void whenTheGaugesAreScrapedThenTheStockLevelsAreReadOnce() {
+        // given
+        when(beerRepository.findStockLevels(90)).thenReturn(new StockLevelsDTO(205L, 1L, 2L));
+        new StockGauges(beerRepository, beerstockProperties).bindTo(meterRegistry);
+
+        // when
+        var units = gauge("beerstock.stock.units");
+        var atMax = gauge("beerstock.beers.at.max");
+        var nearMax = gauge("beerstock.beers.near.max");
+
+        // then
+        assertAll("stock gauges test",
+                () -> assertThat(units, is(equalTo(205.0))),
+                () -> assertThat(atMax, is(equalTo(1.0))),
+                () -> assertThat(nearMax, is(equalTo(2.0))),
+                () -> verify(beerRepository, times(1)).findStockLevels(90)
+        );
+    }
+
+    @Test
+    void whenTheRefreshIntervalHasElapsedThenTheStockLevelsAreReadAgain() {
+        // given
+        beerstockProperties.getMetrics().setStockLevelsRefresh(Duration.ZERO);
+        when(beerRepository.findStockLevels(90))
+                .thenReturn(new StockLevelsDTO(205L, 1L, 2L))
+                .thenReturn(new StockLevelsDTO(210L, 1L, 2L));
+        new StockGauges(beerRepository, beerstockProperties).bindTo(meterRegistry);
+
+        // when
+        gauge("beerstock.stock.units");
+        var units = gauge("beerstock.stock.units");
+
+        // then
+        assertThat(units, is(equalTo(210.0)));
+    }
+
+    private double gauge(String name) {
+        return meterRegistry.get(name).gauge().value();
+    }
+}
@@ -0,0 +1,217 @@
+package com.github.matheusmv.beerstock.service;
+
+import com.github.matheusmv.beerstock.builder.BeerDTOBuilder;
+import com.github.matheusmv.beerstock.config.BeerstockProperties;
+import com.github.matheusmv.beerstock.exception.BeerNotFoundException;
+import com.github.matheusmv.beerstock.exception.BeerStockExceededException;
+import com.github.matheusmv.beerstock.exception.BeerStockInsufficientException;
+import com.github.matheusmv.beerstock.exception.BeerVersionMismatchException;
+import com.github.matheusmv.beerstock.mapper.BeerMapper;
+import com.github.matheusmv.beerstock.repository.BeerRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class StockLedgerTest {
+
+    private static final String UPDATE_QUANTITY_SQL = "UPDATE beer SET quantity = ?, version = ? WHERE id = ?";
+
+    @Mock
+    private BeerRepository beerRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Captor
+    private ArgumentCaptor<List<Object[]>> batchArgsCaptor;
+
+    @TempDir
+    Path logDirectory;
+
+    private final BeerMapper beerMapper = BeerMapper.INSTANCE;
+
+    private BeerstockProperties beerstockProperties;
+
+    private StockLedger stockLedger;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        beerstockProperties = new BeerstockProperties();
+        beerstockProperties.getLedger().setEnabled(true);
+        beerstockProperties.getLedger().setFlushInterval(Duration.ofHours(1));
+        beerstockProperties.getLedger().setFlushThreshold(Integer.MAX_VALUE);
+        beerstockProperties.getLedger().setLogFile(logDirectory.resolve("stock-ledger.log").toString());
+
+        stockLedger = new StockLedger(beerRepository, jdbcTemplate, beerstockProperties);
+        stockLedger.start();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        stockLedger.stop();
+    }
+
+    @Test
+    void whenAdjustmentsAreMadeThenTheyAreCoalescedIntoOneBatch() {
+        // given
+        var beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+
+        // when
+        when(beerRepository.findById(beerDTO.getId())).thenReturn(Optional.of(beerMapper.toModel(beerDTO)));
+
+        // then
+        stockLedger.increment(beerDTO.getId(), 10);
+        stockLedger.increment(beerDTO.getId(), 5);
+        var adjustedBeerDTO = stockLedger.decrement(beerDTO.getId(), 3);
+        stockLedger.flush();
+
+        verify(beerRepository, times(1)).findById(beerDTO.getId());
+        verify(jdbcTemplate, times(1)).batchUpdate(eq(UPDATE_QUANTITY_SQL), batchArgsCaptor.capture());
+
+        var batchArgs = batchArgsCaptor.getValue();
+
+        assertAll("ledger flush test",
+                () -> assertThat(adjustedBeerDTO.getQuantity(), is(equalTo(22))),
+                () -> assertThat(batchArgs, hasSize(1)),
+                () -> assertThat(batchArgs.get(0)[0], is(equalTo(22))),
+                () -> assertThat(batchArgs.get(0)[1], is(equalTo(3L))),
+                () -> assertThat(batchArgs.get(0)[2], is(equalTo(beerDTO.getId())))
+        );
+    }
+
+    @Test
+    void whenIncrementIsGreaterThanMaxThenAnExceptionShouldBeThrown() {
+        // given
+        var beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+
+        // when
+        when(beerRepository.findById(beerDTO.getId())).thenReturn(Optional.of(beerMapper.toModel(beerDTO)));
+
+        // then
+        assertThrows(BeerStockExceededException.class, () -> stockLedger.increment(beerDTO.getId(), 41));
+    }
+
+    @Test
+    void whenDecrementIsGreaterThanQuantityThenAnExceptionShouldBeThrown() {
+        // given
+        var beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+
+        // when
+        when(beerRepository.findById(beerDTO.getId())).thenReturn(Optional.of(beerMapper.toModel(beerDTO)));
+
+        // then
+        assertThrows(BeerStockInsufficientException.class, () -> stockLedger.decrement(beerDTO.getId(), 11));
+    }
+
+    @Test
+    void whenTheBeerIsNoLongerAtTheExpectedVersionThenAnExceptionShouldBeThrown() {
+        // given
+        var beerDTO = BeerDTOBuilder.builder().version(4L).build().toBeerDTO();
+        var beer = beerMapper.toModel(beerDTO);
+        beer.setVersion(beerDTO.getVersion());
+
+        // when
+        when(beerRepository.findById(beerDTO.getId())).thenReturn(Optional.of(beer));
+
+        var incrementedBeerDTO = stockLedger.increment(beerDTO.getId(), 1, 4L);
+
+        // then
+        assertAll("ledger version test",
+                () -> assertThat(incrementedBeerDTO.getVersion(), is(equalTo(5L))),
+                () -> assertThrows(BeerVersionMismatchException.class, () -> stockLedger.decrement(beerDTO.getId(), 1, 4L))
+        );
+    }
+
+    @Test
+    void whenAdjustmentIsCalledWithInvalidIdThenAnExceptionShouldBeThrown() {
+        // when
+        when(beerRepository.findById(2L)).thenReturn(Optional.empty());
+
+        // then
+        assertThrows(BeerNotFoundException.class, () -> stockLedger.increment(2L, 1));
+    }
+
+    @Test
+    void whenTheAdjustmentCannotBeLoggedThenTheQuantityIsLeftUnchanged() throws Exception {
+        // given
+        var beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+
+        // when
+        when(beerRepository.findById(beerDTO.getId())).thenReturn(Optional.of(beerMapper.toModel(beerDTO)));
+
+        stockLedger.increment(beerDTO.getId(), 1);
+        stockLedger.stop();
+
+        // then
+        assertThrows(UncheckedIOException.class, () -> stockLedger.decrement(beerDTO.getId(), 1));
+
+        var beer = stockLedger.find(beerDTO.getId()).orElseThrow();
+
+        assertAll("unlogged adjustment test",
+                () -> assertThat(beer.getQuantity(), is(equalTo(11))),
+                () -> assertThat(beer.getVersion(), is(equalTo(1L)))
+        );
+    }
+
+    @Test
+    void whenNothingWasAdjustedThenFlushDoesNotTouchTheDatabase() {
+        // when
+        stockLedger.flush();
+
+        // then
+        verify(jdbcTemplate, never()).batchUpdate(eq(UPDATE_QUANTITY_SQL), batchArgsCaptor.capture());
+    }
+
+    @Test
+    void whenLedgerRestartsBeforeFlushingThenTheLogIsReplayed() throws Exception {
+        // given
+        var beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+
+        // when
+        when(beerRepository.findById(beerDTO.getId())).thenReturn(Optional.of(beerMapper.toModel(beerDTO)));
+
+        stockLedger.increment(beerDTO.getId(), 7);
+        stockLedger.decrement(beerDTO.getId(), 2);
+
+        var restartedLedger = new StockLedger(beerRepository, jdbcTemplate, beerstockProperties);
+        restartedLedger.start();
+        restartedLedger.stop();
+
+        // then
+        verify(jdbcTemplate, times(1)).batchUpdate(eq(UPDATE_QUANTITY_SQL), batchArgsCaptor.capture());
+
+        var batchArgs = batchArgsCaptor.getValue();
+
+        assertAll("ledger replay test",
+                () -> assertThat(batchArgs, hasSize(1)),
+                () -> assertThat(batchArgs.get(0)[0], is(equalTo(15))),
+                () -> assertThat(batchArgs.get(0)[2], is(equalTo(beerDTO.getId())))
+        );
+    }
+}
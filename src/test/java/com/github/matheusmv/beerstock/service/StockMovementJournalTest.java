@@ -0,0 +1,184 @@
+package com.github.matheusmv.beerstock.service;
+
+import com.github.matheusmv.beerstock.config.BeerstockProperties;
+import com.github.matheusmv.beerstock.dto.StockChangeEventDTO;
+import com.github.matheusmv.beerstock.enums.BeerType;
+import com.github.matheusmv.beerstock.enums.JournalBackpressure;
+import com.github.matheusmv.beerstock.enums.StockChangeKind;
+import com.github.matheusmv.beerstock.repository.StockMovementRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class StockMovementJournalTest {
+
+    private static final String INSERT_MOVEMENT_SQL =
+            "INSERT INTO stock_movement (beer_id, delta, quantity, actor, moved_at) VALUES (?, ?, ?, ?, ?)";
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private StockMovementRepository stockMovementRepository;
+
+    @Captor
+    private ArgumentCaptor<List<Object[]>> batchArgsCaptor;
+
+    private BeerstockProperties beerstockProperties;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private StockMovementJournal stockMovementJournal;
+
+    @BeforeEach
+    void setUp() {
+        beerstockProperties = new BeerstockProperties();
+        beerstockProperties.getJournal().setCapacity(3);
+        beerstockProperties.getJournal().setBatchSize(2);
+
+        meterRegistry = new SimpleMeterRegistry();
+        stockMovementJournal = new StockMovementJournal(jdbcTemplate, stockMovementRepository, beerstockProperties, meterRegistry);
+    }
+
+    @Test
+    void whenMovementsAreFlushedThenTheyAreWrittenInBatches() {
+        // given
+        stockMovementJournal.onStockChange(change(StockChangeKind.INCREMENTED, 10, 15));
+        stockMovementJournal.onStockChange(change(StockChangeKind.DECREMENTED, 15, 12));
+        stockMovementJournal.onStockChange(change(StockChangeKind.INCREMENTED, 12, 20));
+
+        // when
+        stockMovementJournal.flush();
+
+        // then
+        verify(jdbcTemplate, times(2)).batchUpdate(eq(INSERT_MOVEMENT_SQL), batchArgsCaptor.capture());
+        var firstBatch = batchArgsCaptor.getAllValues().get(0);
+
+        assertAll("batched journal test",
+                () -> assertThat(firstBatch, hasSize(2)),
+                () -> assertThat(firstBatch.get(0)[1], is(equalTo(5))),
+                () -> assertThat(firstBatch.get(1)[1], is(equalTo(-3))),
+                () -> assertThat(firstBatch.get(0)[3], is(equalTo(StockMovementJournal.SYSTEM_ACTOR))),
+                () -> assertThat(batchArgsCaptor.getAllValues().get(1), hasSize(1)),
+                () -> assertThat(stockMovementJournal.getQueuedMovements(), is(equalTo(0)))
+        );
+    }
+
+    @Test
+    void whenTheChangeIsNotAStockMovementThenItIsNotJournaled() {
+        // when
+        stockMovementJournal.onStockChange(change(StockChangeKind.CREATED, 0, 10));
+        stockMovementJournal.onStockChange(change(StockChangeKind.DELETED, 10, 0));
+        stockMovementJournal.flush();
+
+        // then
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    void whenTheQueueIsFullWithDropPolicyThenTheMovementIsDropped() {
+        // given
+        beerstockProperties.getJournal().setBackpressure(JournalBackpressure.DROP);
+
+        // when
+        for (int i = 0; i < 4; i++) {
+            stockMovementJournal.onStockChange(change(StockChangeKind.INCREMENTED, i, i + 1));
+        }
+
+        // then
+        assertAll("dropped movement test",
+                () -> assertThat(stockMovementJournal.getQueuedMovements(), is(equalTo(3))),
+                () -> assertThat(meterRegistry.get("beerstock.journal.dropped").counter().count(), is(equalTo(1.0)))
+        );
+    }
+
+    @Test
+    void whenTheQueueIsFullWithCallerRunsPolicyThenTheMovementIsWrittenRightAway() {
+        // given
+        beerstockProperties.getJournal().setBackpressure(JournalBackpressure.CALLER_RUNS);
+
+        // when
+        for (int i = 0; i < 4; i++) {
+            stockMovementJournal.onStockChange(change(StockChangeKind.INCREMENTED, i, i + 1));
+        }
+
+        // then
+        verify(jdbcTemplate, times(1)).batchUpdate(eq(INSERT_MOVEMENT_SQL), batchArgsCaptor.capture());
+
+        assertAll("caller runs test",
+                () -> assertThat(batchArgsCaptor.getValue(), hasSize(1)),
+                () -> assertThat(stockMovementJournal.getQueuedMovements(), is(equalTo(3)))
+        );
+    }
+
+    @Test
+    void whenTheQueueStaysFullWithBlockPolicyThenTheMovementIsDroppedAfterTheTimeout() {
+        // given
+        beerstockProperties.getJournal().setBackpressure(JournalBackpressure.BLOCK);
+        beerstockProperties.getJournal().setBlockTimeout(Duration.ofMillis(10));
+
+        // when
+        for (int i = 0; i < 4; i++) {
+            stockMovementJournal.onStockChange(change(StockChangeKind.INCREMENTED, i, i + 1));
+        }
+
+        // then
+        assertAll("blocked movement test",
+                () -> assertThat(stockMovementJournal.getQueuedMovements(), is(equalTo(3))),
+                () -> assertThat(meterRegistry.get("beerstock.journal.dropped").counter().count(), is(equalTo(1.0)))
+        );
+    }
+
+    @Test
+    void whenTheWriteFailsThenTheMovementsStayQueued() {
+        // given
+        stockMovementJournal.onStockChange(change(StockChangeKind.INCREMENTED, 10, 15));
+
+        // when
+        when(jdbcTemplate.batchUpdate(eq(INSERT_MOVEMENT_SQL), anyList()))
+                .thenThrow(new DataAccessResourceFailureException("Connection refused"));
+
+        // then
+        assertThrows(DataAccessResourceFailureException.class, () -> stockMovementJournal.flush());
+        assertThat(stockMovementJournal.getQueuedMovements(), is(equalTo(1)));
+    }
+
+    private StockChangeEventDTO change(StockChangeKind kind, int oldQuantity, int newQuantity) {
+        return StockChangeEventDTO.builder()
+                .kind(kind)
+                .id(1L)
+                .name("Brahma")
+                .type(BeerType.LAGER)
+                .max(50)
+                .oldQuantity(oldQuantity)
+                .newQuantity(newQuantity)
+                .timestamp(Instant.now())
+                .build();
+    }
+}
@@ -0,0 +1,152 @@
+package com.github.matheusmv.beerstock.service;
+
+import com.github.matheusmv.beerstock.config.BeerstockProperties;
+import com.github.matheusmv.beerstock.dto.StockChangeEventDTO;
+import com.github.matheusmv.beerstock.enums.BeerType;
+import com.github.matheusmv.beerstock.enums.RollupGranularity;
+import com.github.matheusmv.beerstock.enums.StockChangeKind;
+import com.github.matheusmv.beerstock.repository.StockRollupRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class StockRollupServiceTest {
+
+    private static final String ADD_TO_BUCKET_SQL = "UPDATE stock_rollup " +
+            "SET incremented = incremented + ?, decremented = decremented + ? " +
+            "WHERE beer_id = ? AND granularity = ? AND bucket_start = ?";
+    private static final String INSERT_BUCKET_SQL = "INSERT INTO stock_rollup " +
+            "(beer_id, beer_type, granularity, bucket_start, incremented, decremented) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final Instant MOVED_AT = Instant.parse("2024-05-10T14:25:00Z");
+
+    @Mock
+    private StockRollupRepository stockRollupRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Captor
+    private ArgumentCaptor<List<Object[]>> batchArgsCaptor;
+
+    private StockRollupService stockRollupService;
+
+    @BeforeEach
+    void setUp() {
+        stockRollupService = new StockRollupService(stockRollupRepository, jdbcTemplate, transactionTemplate, new BeerstockProperties());
+    }
+
+    @Test
+    void whenChangesFallInTheSameBucketThenTheyAreAddedToItAsOneRow() {
+        // given
+        stockRollupService.onStockChange(change(10, 15));
+        stockRollupService.onStockChange(change(15, 12));
+        stockRollupService.onStockChange(change(12, 20));
+
+        // when
+        runTransactionCallbacks();
+        when(jdbcTemplate.batchUpdate(eq(ADD_TO_BUCKET_SQL), anyList())).thenReturn(new int[]{1, 1});
+
+        stockRollupService.flush();
+
+        // then
+        verify(jdbcTemplate).batchUpdate(eq(ADD_TO_BUCKET_SQL), batchArgsCaptor.capture());
+        var buckets = batchArgsCaptor.getValue()
+                .stream()
+                .map(args -> args[3] + " " + args[4] + " +" + args[0] + " -" + args[1])
+                .toList();
+
+        assertThat(buckets, containsInAnyOrder(
+                RollupGranularity.HOUR + " " + Timestamp.from(Instant.parse("2024-05-10T14:00:00Z")) + " +13 -3",
+                RollupGranularity.DAY + " " + Timestamp.from(Instant.parse("2024-05-10T00:00:00Z")) + " +13 -3")
+        );
+        verify(jdbcTemplate, never()).batchUpdate(eq(INSERT_BUCKET_SQL), anyList());
+    }
+
+    @Test
+    void whenABucketDoesNotExistYetThenItIsInserted() {
+        // given
+        stockRollupService.onStockChange(change(10, 4));
+
+        // when
+        runTransactionCallbacks();
+        when(jdbcTemplate.batchUpdate(eq(ADD_TO_BUCKET_SQL), anyList())).thenReturn(new int[]{0, 1});
+
+        stockRollupService.flush();
+
+        // then
+        verify(jdbcTemplate).batchUpdate(eq(INSERT_BUCKET_SQL), batchArgsCaptor.capture());
+        var inserted = batchArgsCaptor.getValue();
+
+        assertAll("inserted bucket test",
+                () -> assertThat(inserted, hasSize(1)),
+                () -> assertThat(inserted.get(0)[1], is(equalTo(BeerType.IPA.name()))),
+                () -> assertThat(inserted.get(0)[4], is(equalTo(0L))),
+                () -> assertThat(inserted.get(0)[5], is(equalTo(6L)))
+        );
+    }
+
+    @Test
+    void whenTheChangeIsNotAStockMovementThenNoBucketIsTouched() {
+        // given
+        stockRollupService.onStockChange(change(0, 10).toBuilder().kind(StockChangeKind.CREATED).build());
+
+        // when
+        stockRollupService.flush();
+
+        // then
+        verify(transactionTemplate, never()).executeWithoutResult(any());
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void runTransactionCallbacks() {
+        doAnswer(invocation -> {
+            invocation.getArgument(0, Consumer.class).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any(Consumer.class));
+    }
+
+    private StockChangeEventDTO change(int oldQuantity, int newQuantity) {
+        return StockChangeEventDTO.builder()
+                .kind(newQuantity >= oldQuantity ? StockChangeKind.INCREMENTED : StockChangeKind.DECREMENTED)
+                .id(1L)
+                .name("Colorado")
+                .type(BeerType.IPA)
+                .max(50)
+                .oldQuantity(oldQuantity)
+                .newQuantity(newQuantity)
+                .timestamp(MOVED_AT)
+                .build();
+    }
+}